@@ -13,7 +13,12 @@ public class AI extends Player implements BoardObserver, Serializable {
     //keeps the actual board state in map for easy lookup
     static Map<Point, Character> board = new HashMap<Point, Character>();
     static WordDictionary dictionary;
+    //premium and blocked squares of the game's board, which also give its size
+    static PremiumLayout layout = PremiumLayout.STANDARD;
+    //words the AI may play, null for every word of the dictionary
+    static WordSubset vocabulary;
     boolean shouldPlace;
+    private static final long serialVersionUID = -7110701117802673148L;
 
     public static class PlaceWord {
         int[] rows;
@@ -52,10 +57,45 @@ public class AI extends Player implements BoardObserver, Serializable {
      * clearing to remove any old data because it is static
      */
     public static void setUp(WordDictionary wordDictionary) {
+        setUp(wordDictionary, PremiumLayout.STANDARD, null);
+    }
+
+    /**
+     * Same as setUp for a board with another layout, the first move goes on its centre square
+     * @param wordDictionary the game's dictionary
+     * @param layout the premium squares, which give the size of the board
+     */
+    public static void setUp(WordDictionary wordDictionary, PremiumLayout layout) {
+        setUp(wordDictionary, layout, null);
+    }
+
+    /**
+     * Same as setUp but the AI only plays words from a vocabulary, e.g. common words for an easy
+     * AI. The board still checks every word against the full dictionary.
+     * @param wordDictionary the game's dictionary
+     * @param layout the premium squares, which give the size of the board
+     * @param vocabulary the words the AI may play, null for all of them
+     */
+    public static void setUp(WordDictionary wordDictionary, PremiumLayout layout, WordSubset vocabulary) {
         legalPlacements.clear();
         board.clear();
-        dictionary = wordDictionary;
-        legalPlacements.add(new Point(7,7));
+        AI.vocabulary = vocabulary;
+        useDictionary(wordDictionary);
+        AI.layout = layout;
+        legalPlacements.add(new Point(layout.getCenter(), layout.getCenter()));
+    }
+
+    /**
+     * Sets the dictionary the AI plays from, restricted to the vocabulary if there is one. A
+     * vocabulary built for another word list is dropped, since its ids would be other words.
+     * @param wordDictionary the game's dictionary
+     */
+    static void useDictionary(WordDictionary wordDictionary) {
+        if (vocabulary != null && vocabulary.getUniverse() != wordDictionary.getWordCount()) {
+            System.out.println("AI vocabulary was built for another word list, the AI may play every word");
+            vocabulary = null;
+        }
+        dictionary = vocabulary == null ? wordDictionary : wordDictionary.restrictTo(vocabulary);
     }
 
     /**
@@ -79,8 +119,9 @@ public class AI extends Player implements BoardObserver, Serializable {
                 int x = rows[i] + place[0];
                 int y = cols[i] + place[1];
 
-                //only add to legalPlacement if its a actual coordinate on the board and if its not occupied by a word on the board
-                if ((x >= 0 && x < 15 && y >= 0 && y < 15)  && !board.containsKey(new Point(x, y))) {
+                //only add to legalPlacement if its a actual coordinate on the board, not blocked and if its not occupied by a word on the board
+                if ((x >= 0 && x < layout.getSize() && y >= 0 && y < layout.getSize()) && !layout.isBlocked(x, y)
+                        && !board.containsKey(new Point(x, y))) {
                     legalPlacements.add(new Point(x, y));
                 }
             }
@@ -107,35 +148,19 @@ public class AI extends Player implements BoardObserver, Serializable {
 
         availableLetters.addAll(board.values());
 
-        for (String word : dictionary.getWords()) {
-            if (this.haveEnoughLetters(word,availableLetters)){
-                possibleWords.add(word);
-            }
-        }
-        return possibleWords.isEmpty()? null: possibleWords;
-    }
-
-    /**
-     * helper functions to see if with avaialable letters we can make the word given
-     * duplicates are counted for
-     * @param word given to see if we have enough letters
-     * @param availableLetters all letter avaialable
-     * @return true is we do else false
-     */
-    private boolean haveEnoughLetters(String word, List<Character> availableLetters) {
-        if (word.length() > availableLetters.size()){
-            return false;
+        //ask the dictionary for every word length that still fits on the board instead of scanning it
+        StringBuilder letters = new StringBuilder();
+        for (char letter : availableLetters) {
+            letters.append(letter);
         }
-
-        List<Character> temp = new ArrayList<>(availableLetters);
-
-        //check for every letter in word if we have in available letters
-        for (char letter: word.toCharArray()) {
-            if (!temp.remove((Character)letter)) {
-               return false; // ran out of letters or not in word
-            }
+        int[] rack = dictionary.rackCounts(letters);
+        int longest = Math.min(layout.getSize(), availableLetters.size());
+        for (int length = 1; length <= longest; length++) {
+            char[] pattern = new char[length];
+            Arrays.fill(pattern, WordDictionary.OPEN_SQUARE);
+            dictionary.findMatches(pattern, null, rack, possibleWords::add);
         }
-        return true;
+        return possibleWords.isEmpty()? null: possibleWords;
     }
 
     /**
@@ -145,17 +170,28 @@ public class AI extends Player implements BoardObserver, Serializable {
      * @return type for command in model for validwordandplace
      */
     public PlaceWord findBestWord(Board board, Set<String> possibleWords) {
-        if (possibleWords == null || possibleWords.isEmpty()) return null;
         int bestMove = 0;
         PlaceWord bestWord = null;
+        //every try is scored on one copy of the board and taken off again, instead of copying the
+        //whole board for each try
+        Board scratch = copyBoard(board);
+
+        //single tiles hooked onto words already on the board come straight from the hook index
+        for (PlaceWord hook : hookPlays(scratch)) {
+            if (hook.score > bestMove) {
+                bestWord = hook;
+                bestMove = hook.score;
+            }
+        }
+        if (possibleWords == null || possibleWords.isEmpty()) return bestWord;
 
         for (Point position: legalPlacements){
             for (String word: possibleWords) {
                 if (AI.board.isEmpty() && word.length() < 2) { continue;}
                 for (int offset = -(word.length()-1); offset <= 0; offset++) {
                     int x = position.x + offset;
-                    if (x >= 0 && x + word.length() <= 15) {
-                        PlaceWord vertical = tryWordPlace(word, x, position.y, false, board);
+                    if (x >= 0 && x + word.length() <= layout.getSize()) {
+                        PlaceWord vertical = tryWordPlace(word, x, position.y, false, scratch);
                         if (vertical != null && vertical.score > bestMove){
                             bestWord = vertical;
                             bestMove = vertical.score;
@@ -163,8 +199,8 @@ public class AI extends Player implements BoardObserver, Serializable {
                     }
 
                     int y =  position.y + offset;
-                    if (y >= 0 && y + word.length() <= 15) {
-                        PlaceWord horizontal = tryWordPlace(word, position.x, y, true, board);
+                    if (y >= 0 && y + word.length() <= layout.getSize()) {
+                        PlaceWord horizontal = tryWordPlace(word, position.x, y, true, scratch);
                         if (horizontal != null && horizontal.score > bestMove){
                             bestWord = horizontal;;
                             bestMove = horizontal.score;
@@ -176,6 +212,86 @@ public class AI extends Player implements BoardObserver, Serializable {
         return bestWord;
     }
 
+    /**
+     * Finds the plays that add one tile from the hand to the front or back of a word on the board.
+     * The letters that make a word there are looked up in the dictionary's hook index, so only
+     * those letters are tried instead of every tile.
+     *
+     * @param board board of the game
+     * @return the hook plays that are valid, with their scores
+     */
+    public List<PlaceWord> findHookPlays(Board board) {
+        return hookPlays(copyBoard(board));
+    }
+
+    /**
+     * findHookPlays on a copy of the board that the tries may change and put back
+     */
+    private List<PlaceWord> hookPlays(Board scratch) {
+        List<PlaceWord> plays = new ArrayList<>();
+        if (AI.board.isEmpty()) return plays;
+        int size = scratch.getSize();
+
+        Alphabet alphabet = dictionary.getAlphabet();
+        int handLetters = 0;
+        for (Tile tile : this.getAvailableTiles()) {
+            int code = tile == null || tile.isBlank() ? Alphabet.NONE : alphabet.code(tile.getEffectiveLetter());
+            if (code != Alphabet.NONE) {
+                handLetters |= 1 << code;
+            }
+        }
+        HookIndex hooks = dictionary.getHookIndex();
+        char[][] grid = scratch.getCharBoard();
+
+        for (int line = 0; line < size; line++) {
+            for (int direction = 0; direction < 2; direction++) {
+                boolean horizontal = direction == 0;
+                int start = 0;
+                while (start < size) {
+                    //find the next run of letters in this row or column
+                    if (letterAt(grid, line, start, horizontal) == ' ') { start++; continue; }
+                    int end = start;
+                    while (end < size && letterAt(grid, line, end, horizontal) != ' ') end++;
+
+                    int length = end - start;
+                    int row = horizontal ? line : start;
+                    int col = horizontal ? start : line;
+                    int id = length > 1 ? dictionary.wordId(grid, row, col, length, horizontal) : WordTrie.NONE;
+                    if (id != WordTrie.NONE) {
+                        String word = dictionary.wordOf(id);
+                        if (start > 0) {
+                            addHookPlays(plays, hooks.getFrontHooks(id) & handLetters, word, line, start - 1, true, horizontal, scratch);
+                        }
+                        if (end < size) {
+                            addHookPlays(plays, hooks.getBackHooks(id) & handLetters, word, line, start, false, horizontal, scratch);
+                        }
+                    }
+                    start = end;
+                }
+            }
+        }
+        return plays;
+    }
+
+    /**
+     * Tries each hook letter in turn, the board copy still checks any cross words it makes
+     */
+    private void addHookPlays(List<PlaceWord> plays, int letters, String word, int line, int first, boolean front, boolean horizontal, Board scratch) {
+        for (int mask = letters; mask != 0; mask &= mask - 1) {
+            char letter = dictionary.getAlphabet().symbol(Integer.numberOfTrailingZeros(mask));
+            String hooked = front ? letter + word : word + letter;
+            PlaceWord play = horizontal ? tryWordPlace(hooked, line, first, true, scratch)
+                    : tryWordPlace(hooked, first, line, false, scratch);
+            if (play != null) {
+                plays.add(play);
+            }
+        }
+    }
+
+    private static char letterAt(char[][] grid, int line, int index, boolean horizontal) {
+        return horizontal ? grid[line][index] : grid[index][line];
+    }
+
     /**
      * helper function to see if the word can be placed --> brute force
      *
@@ -183,11 +299,13 @@ public class AI extends Player implements BoardObserver, Serializable {
      * @param row            starting point x
      * @param col            starting point y
      * @param horizontal     if horizontal placement = true else false
+     * @param scratch        copy of the board, the word is scored on it and taken off again
      * @return score given to placed word 0 if no word placed
      */
-    private PlaceWord tryWordPlace(String word, int row, int col, boolean horizontal, Board board) {
-        if (horizontal && col + word.length() > 15) return null;
-        if (!horizontal && row + word.length() > 15) return null; //word placed outside board
+    private PlaceWord tryWordPlace(String word, int row, int col, boolean horizontal, Board scratch) {
+        if (horizontal && col + word.length() > scratch.getSize()) return null;
+        if (!horizontal && row + word.length() > scratch.getSize()) return null; //word placed outside board
+        if (scratch.getLayout().isAnyBlocked(row, col, word.length(), horizontal)) return null; //runs over a blocked square
 
         List<Integer> newRows =  new ArrayList<>();
         List<Integer> newCols =  new ArrayList<>();
@@ -207,7 +325,7 @@ public class AI extends Player implements BoardObserver, Serializable {
                 }
                 canConnect = true;
             } else {
-                if (board.getLetterAt(currentRow,currentCol) == ' ') {
+                if (scratch.getLetterAt(currentRow,currentCol) == ' ') {
                     Tile tile = this.getTile(word.charAt(i));
                     if (tile == null) {return null;}
                     needed.add(tile); // else we need the char from our hand
@@ -221,12 +339,11 @@ public class AI extends Player implements BoardObserver, Serializable {
             return null;
         }
 
-        Board copy = this.copyBoard(board);
-
         int[] rows = newRows.stream().mapToInt(Integer::intValue).toArray();
         int[] cols = newCols.stream().mapToInt(Integer::intValue).toArray();
 
-        int score = copy.placeTilesAndValidate(rows, cols, needed.toArray(new Tile[needed.size()]));
+        int score = scratch.placeTilesAndValidate(rows, cols, needed.toArray(new Tile[needed.size()]));
+        scratch.removeTiles(rows, cols);   //the squares were empty, a valid play would stay on the board
 
         return score == 0? null : new PlaceWord(rows,cols, needed.toArray(new Tile[needed.size()]), score, tileTochar(needed.toArray(new Tile[needed.size()])));
     }
@@ -272,12 +389,12 @@ public class AI extends Player implements BoardObserver, Serializable {
      * @return copy of board
      */
     private Board copyBoard(Board ogBoard){
-        Board copy = new Board(ogBoard.getWordDictionary());
+        Board copy = new Board(ogBoard.getWordDictionary(), ogBoard.getLayout());   //shares the premium squares
 
         for (Map.Entry<Point, Character> entry: board.entrySet()){
             Point position = entry.getKey();
             Character character = entry.getValue();
-            copy.setLetterAt(position.x,position.y,character);
+            copy.setLetterAt(position.x,position.y,character,ogBoard.isBlankAt(position.x,position.y));
         }
         return copy;
     }
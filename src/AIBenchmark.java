@@ -0,0 +1,110 @@
+import java.util.*;
+
+/**
+ * AIBenchmark times the computer player's turns on the standard 15x15 board, the 21x21 Super
+ * Scrabble board and the cross shaped board from Custom Board Layout Files. Two AI players play one game on each board and every turn (finding the
+ * possible words and the best place for one) is timed. Run it from the src folder:
+ *
+ *      java AIBenchmark [word list file] [games per board]
+ *
+ * A game stops when the bag runs out, since a rack with empty slots is not something the AI
+ * handles. The first game on each board includes JIT warm up, so use 2 or more games.
+ */
+public class AIBenchmark {
+    private static final int RACK_SIZE = 7;
+    private static final int MAX_TURNS = 60;
+
+    public static void main(String[] args) {
+        String filename = args.length > 0 ? args[0] : "ValidWords.txt";
+        int games = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+        WordDictionary dictionary = new WordDictionary(filename);
+        PremiumLayout cross = null;
+        try {
+            cross = BoardLayout.compile("../Custom Board Layout Files/cross-scrabble-board");
+        } catch (Exception e) {
+            System.out.println("Skipping the cross shaped board: " + e.getMessage());
+        }
+
+        System.out.println("Words file: " + filename + ", games per board: " + games);
+        for (int game = 1; game <= games; game++) {
+            run("Standard 15x15", dictionary, PremiumLayout.STANDARD, Alphabet.ENGLISH, game);
+            run("Super 21x21", dictionary, PremiumLayout.SUPER, Alphabet.SUPER_ENGLISH, game);
+            if (cross != null) {
+                run("Cross 15x15", dictionary, cross, Alphabet.ENGLISH, game);
+            }
+        }
+    }
+
+    /**
+     * Plays one game between two AI players and prints the average and slowest turn
+     */
+    private static void run(String name, WordDictionary dictionary, PremiumLayout layout, Alphabet bagTiles, int game) {
+        Board board = new Board(dictionary, layout);
+        TileBag bag = new TileBag(bagTiles);
+        AI.setUp(dictionary, layout);
+        AI[] players = {new AI("One"), new AI("Two")};
+        for (AI player : players) {
+            refill(player, bag);
+        }
+
+        long total = 0;
+        long slowest = 0;
+        int turns = 0;
+        int placed = 0;
+        int stuck = 0;
+        while (turns < MAX_TURNS && stuck < players.length && bag.size() > 0) {
+            AI player = players[turns % players.length];
+            long start = System.nanoTime();
+            AI.PlaceWord move = player.findBestWord(board, player.findPossibleWord());
+            long elapsed = System.nanoTime() - start;
+            total += elapsed;
+            slowest = Math.max(slowest, elapsed);
+            turns++;
+
+            if (move == null) {
+                stuck++;
+                swap(player, bag);
+                continue;
+            }
+            stuck = 0;
+            board.placeTilesAndValidate(move.rows, move.cols, move.tilesNeeded);
+            player.useTile(move.tilesNeeded);
+            player.boardChanged(move.rows, move.cols, move.word);
+            placed += move.tilesNeeded.length;
+            refill(player, bag);
+        }
+        System.out.printf("%-15s game %d: %2d turns, %3d tiles placed, %7.2f ms per turn, slowest %7.2f ms%n",
+                name, game, turns, placed, total / 1e6 / Math.max(1, turns), slowest / 1e6);
+    }
+
+    private static void refill(Player player, TileBag bag) {
+        while (countTiles(player) < RACK_SIZE && bag.size() > 0) {
+            player.addTile(bag.pickFromBag());
+        }
+    }
+
+    /**
+     * Puts the rack back in the bag and draws a new one, for when no word can be played
+     */
+    private static void swap(Player player, TileBag bag) {
+        if (bag.size() < RACK_SIZE) return;
+        Tile[] rack = player.getAvailableTiles();
+        List<Tile> old = new ArrayList<>();
+        for (Tile tile : rack) {
+            if (tile != null) old.add(tile);
+        }
+        player.useTile(old.toArray(new Tile[0]));
+        refill(player, bag);
+        for (Tile tile : old) {
+            bag.returnTileToBag(tile);
+        }
+    }
+
+    private static int countTiles(Player player) {
+        int count = 0;
+        for (Tile tile : player.getAvailableTiles()) {
+            if (tile != null) count++;
+        }
+        return count;
+    }
+}
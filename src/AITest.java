@@ -1,6 +1,7 @@
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import java.awt.Point;
+import java.util.List;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -105,4 +106,43 @@ class AITest {
         }
     }
 
+
+    @Test
+    public void testFindHookPlays() {
+        int[] rows = {7, 7, 7, 7};
+        int[] cols = {7, 8, 9, 10};
+        char[] letters = {'T', 'E', 'S', 'T'};
+        for (int i = 0; i < rows.length; i++) {
+            board.setLetterAt(rows[i], cols[i], letters[i]);
+        }
+        ai.boardChanged(rows, cols, letters);
+
+        boolean foundTests = false;
+        for (AI.PlaceWord play : ai.findHookPlays(board)) {
+            assertEquals(1, play.rows.length);
+            if (play.rows[0] == 7 && play.cols[0] == 11 && play.word[0] == 'S') foundTests = true;
+        }
+        assertTrue(foundTests);
+    }
+
+    @Test
+    public void testVocabularyOnSuperBoard() {
+        WordSubset common = WordSubset.of(dictionary, List.of("test", "tests", "set"));
+        AI.setUp(dictionary, PremiumLayout.SUPER, common);
+        assertSame(PremiumLayout.SUPER, AI.layout);
+        assertTrue(AI.legalPlacements.contains(new Point(10, 10)));
+        assertSame(common, AI.dictionary.getSubset());
+        for (String word : ai.findPossibleWord()) {
+            assertTrue(List.of("TEST", "TESTS", "SET").contains(word.toUpperCase()), word);
+        }
+
+        //a list with other ids drops the vocabulary instead of reading the ids as other words
+        AI.vocabulary = new WordSubset(dictionary.getWordCount() + 1, new int[0]);
+        AI.useDictionary(dictionary);
+        assertNull(AI.vocabulary);
+        assertSame(dictionary, AI.dictionary);
+        AI.setUp(dictionary);
+        assertNull(AI.vocabulary);
+        assertSame(PremiumLayout.STANDARD, AI.layout);
+    }
 }
@@ -0,0 +1,318 @@
+import java.util.*;
+
+/**
+ * Alphabet is the set of tiles of one language: their letters, values and how many of each go in
+ * the bag. Every letter gets a small code (0 to size() - 1) so the game can use arrays indexed by
+ * code for letter values, rack counts and trie edges instead of maps keyed by char.
+ *
+ * Inside the game every tile is one char, its symbol. For a plain letter the symbol is the letter
+ * itself; a digraph tile such as Spanish CH, LL or RR gets a spare Latin-1 char as its symbol and
+ * keeps "CH" as its label for showing to players. toSymbols() turns ordinary text into symbols,
+ * reading digraphs first (CHICO becomes three tiles) and folding accented letters that are not
+ * tiles of their own onto their base letter (Á is played as A, but Spanish Ñ is its own tile).
+ *
+ * Codes follow the order of the symbols, so sorting symbol Strings also sorts them by code, which
+ * WordTrie needs. An alphabet has at most MAX_SIZE letters so a set of letters fits in an int.
+ */
+public final class Alphabet {
+    public static final int MAX_SIZE = 32;
+    public static final int NONE = -1;   //code of a char that is not a letter of the alphabet
+
+    public static final Alphabet ENGLISH = new Alphabet("English",
+            new String[] {"A", "B", "C", "D", "E", "F", "G", "H", "I", "J", "K", "L", "M",
+                          "N", "O", "P", "Q", "R", "S", "T", "U", "V", "W", "X", "Y", "Z"},
+            "",
+            new int[] {1, 3, 3, 2, 1, 4, 2, 4, 1, 8, 5, 1, 3, 1, 1, 3, 10, 1, 1, 1, 1, 4, 4, 8, 4, 10},
+            new int[] {10, 2, 2, 4, 12, 2, 3, 2, 9, 1, 1, 4, 2, 6, 8, 2, 1, 7, 4, 6, 4, 2, 2, 1, 2, 1},
+            2, "");
+
+    //English letters with the 200 tile bag of Super Scrabble (21x21 board), 4 blanks
+    public static final Alphabet SUPER_ENGLISH = new Alphabet("English (Super Scrabble)",
+            new String[] {"A", "B", "C", "D", "E", "F", "G", "H", "I", "J", "K", "L", "M",
+                          "N", "O", "P", "Q", "R", "S", "T", "U", "V", "W", "X", "Y", "Z"},
+            "",
+            new int[] {1, 3, 3, 2, 1, 4, 2, 4, 1, 8, 5, 1, 3, 1, 1, 3, 10, 1, 1, 1, 1, 4, 4, 8, 4, 10},
+            new int[] {16, 4, 6, 8, 24, 4, 5, 5, 13, 2, 2, 7, 6, 13, 15, 4, 2, 13, 10, 15, 7, 3, 4, 2, 4, 2},
+            4, "");
+
+    //the Spanish set: CH, LL and RR are tiles (symbols Ç, £ and ®), Ñ is its own letter
+    public static final Alphabet SPANISH = new Alphabet("Spanish",
+            new String[] {"A", "B", "C", "CH", "D", "E", "F", "G", "H", "I", "J", "L", "LL", "M",
+                          "N", "Ñ", "O", "P", "Q", "R", "RR", "S", "T", "U", "V", "X", "Y", "Z"},
+            "Ç£®",
+            new int[] {1, 3, 3, 5, 2, 1, 4, 2, 4, 1, 8, 1, 8, 3, 1, 8, 1, 3, 5, 1, 8, 1, 1, 1, 4, 8, 4, 10},
+            new int[] {12, 2, 4, 1, 5, 12, 1, 2, 2, 6, 1, 4, 1, 2, 5, 1, 9, 2, 1, 5, 1, 6, 4, 5, 1, 1, 1, 1},
+            2, "ÁAÉEÍIÓOÚUÜU");
+
+    private final String name;
+    private final char[] symbols;     //symbol of each code
+    private final String[] labels;    //what the players see for each code, "CH" for a digraph
+    private final int[] values;
+    private final int[] counts;
+    private final int blanks;
+    private final int[] codes;        //code of each char up to the highest symbol, NONE for the rest
+    private final Map<String, Character> digraphs = new HashMap<>();
+    private final Map<Character, Character> folds = new HashMap<>();
+    private final int longestLabel;
+    private final Tile[] tiles;
+
+    /**
+     * Makes an alphabet
+     *
+     * @param name the language, for messages
+     * @param letters the label of each tile, one char for a plain letter
+     * @param digraphSymbols the symbols of the labels longer than one char, in the order they appear
+     * @param values the points of each tile
+     * @param tileCounts how many of each tile are in a full bag
+     * @param blanks how many blank tiles are in a full bag
+     * @param folding pairs of chars, an accented letter followed by the letter it is played as
+     * @throws IllegalArgumentException if the arrays do not match, a symbol is used twice or there
+     *         are more than MAX_SIZE letters
+     */
+    public Alphabet(String name, String[] letters, String digraphSymbols, int[] values, int[] tileCounts,
+                    int blanks, String folding) {
+        if (letters.length > MAX_SIZE || values.length != letters.length || tileCounts.length != letters.length) {
+            throw new IllegalArgumentException(name + " needs one value and count for each of at most "
+                    + MAX_SIZE + " letters");
+        }
+        this.name = name;
+        this.blanks = blanks;
+
+        //give each letter its symbol, then number them in symbol order
+        char[] symbolOf = new char[letters.length];
+        int nextDigraph = 0;
+        int longest = 1;
+        for (int i = 0; i < letters.length; i++) {
+            String label = letters[i].toUpperCase(Locale.ROOT);
+            if (label.length() == 1) {
+                symbolOf[i] = label.charAt(0);
+            } else {
+                if (nextDigraph >= digraphSymbols.length()) {
+                    throw new IllegalArgumentException(name + " has no symbol for " + label);
+                }
+                symbolOf[i] = digraphSymbols.charAt(nextDigraph++);
+                longest = Math.max(longest, label.length());
+            }
+        }
+        Integer[] order = new Integer[letters.length];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        Arrays.sort(order, Comparator.comparingInt(i -> symbolOf[i]));
+
+        symbols = new char[letters.length];
+        labels = new String[letters.length];
+        this.values = new int[letters.length];
+        counts = new int[letters.length];
+        char highest = 0;
+        for (int code = 0; code < order.length; code++) {
+            int i = order[code];
+            if (code > 0 && symbols[code - 1] == symbolOf[i]) {
+                throw new IllegalArgumentException(name + " uses the symbol " + symbolOf[i] + " twice");
+            }
+            symbols[code] = symbolOf[i];
+            labels[code] = letters[i].toUpperCase(Locale.ROOT);
+            this.values[code] = values[i];
+            counts[code] = tileCounts[i];
+            highest = (char) Math.max(highest, Math.max(symbols[code], Character.toLowerCase(symbols[code])));
+            if (labels[code].length() > 1) digraphs.put(labels[code], symbols[code]);
+        }
+        longestLabel = longest;
+
+        codes = new int[highest + 1];
+        Arrays.fill(codes, NONE);
+        for (int code = 0; code < symbols.length; code++) {
+            codes[symbols[code]] = code;
+            codes[Character.toLowerCase(symbols[code])] = code;
+        }
+        for (int i = 0; i + 1 < folding.length(); i += 2) {
+            folds.put(folding.charAt(i), folding.charAt(i + 1));
+        }
+
+        tiles = new Tile[symbols.length];
+        for (int code = 0; code < symbols.length; code++) {
+            tiles[code] = new Tile(symbols[code], this.values[code], this);
+        }
+    }
+
+    /**
+     * The shared tile of one of the alphabets above with a symbol and value, for tiles read back
+     * from a saved game
+     *
+     * @param symbol the symbol of the tile
+     * @param value its points
+     * @return the shared tile, or null if no built in alphabet has that tile
+     */
+    static Tile sharedTile(char symbol, int value) {
+        for (Alphabet alphabet : new Alphabet[] {ENGLISH, SUPER_ENGLISH, SPANISH}) {
+            int code = alphabet.code(symbol);
+            if (code != NONE && alphabet.symbols[code] == symbol && alphabet.values[code] == value) {
+                return alphabet.tiles[code];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Code of a symbol. Lowercase letters give the code of their uppercase letter.
+     *
+     * @param symbol the symbol
+     * @return its code, or NONE if it is not a letter of the alphabet
+     */
+    public int code(char symbol) {
+        return symbol < codes.length ? codes[symbol] : NONE;
+    }
+
+    /**
+     * Symbol of a code
+     *
+     * @param code the code (0 to size() - 1)
+     * @return the char that stands for the tile
+     */
+    public char symbol(int code) {
+        return symbols[code];
+    }
+
+    /**
+     * What players see for a code, "CH" for a digraph tile
+     *
+     * @param code the code
+     * @return the label
+     */
+    public String label(int code) {
+        return labels[code];
+    }
+
+    /**
+     * Points of the tile with a code
+     *
+     * @param code the code
+     * @return the value
+     */
+    public int value(int code) {
+        return values[code];
+    }
+
+    /**
+     * Number of tiles with a code in a full bag
+     *
+     * @param code the code
+     * @return the count
+     */
+    public int count(int code) {
+        return counts[code];
+    }
+
+    /**
+     * Number of blank tiles in a full bag
+     *
+     * @return blank count
+     */
+    public int getBlankCount() {
+        return blanks;
+    }
+
+    /**
+     * The shared tile of a code
+     *
+     * @param code the code
+     * @return the tile
+     */
+    public Tile tile(int code) {
+        return tiles[code];
+    }
+
+    /**
+     * Number of letters in the alphabet
+     *
+     * @return the size
+     */
+    public int size() {
+        return symbols.length;
+    }
+
+    /**
+     * Name of the language
+     *
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Checks if a String is only uppercase symbols of the alphabet, i.e. ready for the trie
+     *
+     * @param symbols the String to check
+     * @return true if it is not empty and every char is a symbol
+     */
+    public boolean isSymbols(CharSequence symbols) {
+        if (symbols.length() == 0) return false;
+        for (int i = 0; i < symbols.length(); i++) {
+            char symbol = symbols.charAt(i);
+            int code = code(symbol);
+            if (code == NONE || this.symbols[code] != symbol) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Turns text into symbols: uppercase, accents folded and digraphs joined into one symbol
+     *
+     * @param text a word in any case
+     * @return the word as symbols, or null if it has a letter that is not in the alphabet
+     */
+    public String toSymbols(CharSequence text) {
+        String upper = text.toString().toUpperCase(Locale.ROOT);
+        StringBuilder result = new StringBuilder(upper.length());
+        int i = 0;
+        while (i < upper.length()) {
+            boolean joined = false;
+            for (int length = Math.min(longestLabel, upper.length() - i); length > 1 && !joined; length--) {
+                Character digraph = digraphs.get(upper.substring(i, i + length));
+                if (digraph != null) {
+                    result.append(digraph.charValue());
+                    i += length;
+                    joined = true;
+                }
+            }
+            if (joined) continue;
+
+            char letter = folds.getOrDefault(upper.charAt(i), upper.charAt(i));
+            int code = code(letter);
+            if (code == NONE || symbols[code] != letter || labels[code].length() > 1) return null;
+            result.append(letter);
+            i++;
+        }
+        return result.length() == 0 ? null : result.toString();
+    }
+
+    /**
+     * Turns symbols back into text that players can read, with digraphs spelled out
+     *
+     * @param symbols the symbols
+     * @return the text
+     */
+    public String spell(CharSequence symbols) {
+        StringBuilder text = new StringBuilder(symbols.length());
+        for (int i = 0; i < symbols.length(); i++) {
+            int code = code(symbols.charAt(i));
+            text.append(code == NONE ? String.valueOf(symbols.charAt(i)) : labels[code]);
+        }
+        return text.toString();
+    }
+
+    /**
+     * A number made from the symbols, saved with automaton files so a file is not opened with
+     * the wrong alphabet
+     *
+     * @return a hash of the symbols in code order, never 0
+     */
+    public int signature() {
+        int hash = Arrays.hashCode(symbols);
+        return hash == 0 ? 1 : hash;
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + size() + " letters)";
+    }
+}
@@ -0,0 +1,77 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+
+/**
+ * JUnit tests for the Alphabet class.
+ *
+ * Tests the English codes and values, and that a Spanish word list with digraph tiles and accents
+ * loads into a dictionary that works on the alphabet's symbols.
+ *
+ */
+class AlphabetTest {
+
+    @Test
+    void testEnglishCodesAndValues() {
+        Alphabet english = Alphabet.ENGLISH;
+        assertEquals(26, english.size());
+        for (char letter = 'A'; letter <= 'Z'; letter++) {
+            assertEquals(letter - 'A', english.code(letter));
+            assertEquals(letter, english.symbol(english.code(letter)));
+        }
+        assertEquals(english.code('Q'), english.code('q'));
+        assertEquals(Alphabet.NONE, english.code('.'));
+        assertEquals(10, Scoring.getLetterValue('Z'));
+        assertEquals(0, Scoring.getLetterValue(' '));
+        assertEquals(102, new TileBag(english).size());
+    }
+
+    @Test
+    void testSpanishDigraphsAndAccents() throws IOException {
+        Alphabet spanish = Alphabet.SPANISH;
+        assertEquals(28, spanish.size());
+        assertEquals(100, new TileBag(spanish).size());
+
+        String chorro = spanish.toSymbols("chorro");
+        assertEquals(4, chorro.length());
+        assertEquals("CHORRO", spanish.spell(chorro));
+        assertEquals(spanish.toSymbols("CAMION"), spanish.toSymbols("camión"));
+        assertNotEquals(spanish.toSymbols("ANO"), spanish.toSymbols("AÑO"));
+        assertNull(spanish.toSymbols("KIWI"));   //no K or W tiles
+
+        File file = File.createTempFile("palabras", ".txt");
+        file.deleteOnExit();
+        Files.write(file.toPath(), List.of("chorro", "año", "llama", "camión", "kiwi", "calle"), StandardCharsets.UTF_8);
+        WordDictionary dictionary = WordDictionary.load(file.getPath(), false, spanish);
+
+        assertEquals(5, dictionary.getWordCount());
+        assertEquals(1, dictionary.getLoadReport().getRejected());
+        assertTrue(dictionary.isValidWord(spanish.toSymbols("LLAMA")));
+        assertTrue(dictionary.isValidWord("llama"));   //spelled out, LL becomes the tile
+        assertTrue(dictionary.isValidWord("CAMIÓN"));
+        assertEquals(dictionary.wordId(spanish.toSymbols("CHORRO")), dictionary.wordId("chorro"));
+        char[] twoTiles = "LLAMA".toCharArray();
+        assertFalse(dictionary.isValidWord(twoTiles, 0, twoTiles.length, 1));   //L L on the board is not the LL tile
+        assertEquals(spanish.toSymbols("CALLE"), dictionary.wordOf(dictionary.wordId(spanish.toSymbols("calle"))));
+
+        //CALLE is four tiles: C, A, LL and E
+        List<String> matches = dictionary.findMatches(spanish.toSymbols("CA") + "??", null);
+        assertEquals(List.of(spanish.toSymbols("CALLE")), matches);
+
+        //racks are counted in the dictionary's alphabet, whatever the game's default is
+        int[] rack = dictionary.rackCounts(spanish.toSymbols("ÑLL"));
+        assertEquals(1, rack[spanish.code('Ñ')]);
+        assertEquals(1, rack[spanish.code(spanish.toSymbols("LL").charAt(0))]);
+        assertEquals(List.of(spanish.toSymbols("AÑO")), dictionary.findMatches("???", spanish.toSymbols("OAÑ")));
+
+        //the fast reject filter folds ñ to Ñ like the trie does
+        dictionary.enableFastReject(0.01);
+        char[] lower = spanish.toSymbols("año").toLowerCase(Locale.ROOT).toCharArray();
+        assertTrue(dictionary.isValidWord(lower, 0, lower.length, 1));
+        assertEquals(0, dictionary.getFilterRejects());
+    }
+}
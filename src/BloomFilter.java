@@ -0,0 +1,157 @@
+/**
+ * BloomFilter is a small bit set that answers "is this word possibly in the dictionary". It can
+ * say yes for a word that is not there (a false positive, at the rate it was built for) but never
+ * says no for a word that is, so a no lets WordDictionary skip the real lookup.
+ *
+ * This is a blocked Bloom filter: one hash picks a 512 bit block (a single cache line) and all
+ * the bits of a word are set inside that block, so a check touches one cache line. Letters are
+ * hashed by their code in the alphabet, so case is folded the same way the trie folds it,
+ * straight from a char array slice, without allocating.
+ */
+public class BloomFilter {
+    private static final int BLOCK_LONGS = 8;           //512 bits, one cache line
+    private static final int BLOCK_BITS = BLOCK_LONGS * 64;
+
+    private final long[] bits;
+    private final int blocks;
+    private final int hashes;     //bits set per word
+    private final Alphabet alphabet;
+
+    /**
+     * Creates an empty filter sized for a number of words and a false positive rate
+     *
+     * @param expectedWords how many words will be added
+     * @param falsePositiveRate the wanted chance that a word that was not added is reported as possibly added, e.g. 0.01
+     * @param alphabet the letters of the words
+     */
+    public BloomFilter(int expectedWords, double falsePositiveRate, Alphabet alphabet) {
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("False positive rate must be between 0 and 1: " + falsePositiveRate);
+        }
+        //standard sizing, with a little extra room since blocking raises the rate slightly
+        double ln2 = Math.log(2);
+        long totalBits = (long) Math.ceil(-Math.max(expectedWords, 1) * Math.log(falsePositiveRate) / (ln2 * ln2) * 1.1);
+        blocks = (int) Math.max(1, (totalBits + BLOCK_BITS - 1) / BLOCK_BITS);
+        bits = new long[blocks * BLOCK_LONGS];
+        hashes = Math.max(1, Math.min(16, (int) Math.round(-Math.log(falsePositiveRate) / ln2)));
+        this.alphabet = alphabet;
+    }
+
+    /**
+     * Adds a word
+     *
+     * @param word the word to add
+     */
+    public void add(CharSequence word) {
+        long hash = hash(word);
+        int base = block(hash);
+        int h = (int) hash;
+        int step = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < hashes; i++, h += step) {
+            int bit = h & (BLOCK_BITS - 1);
+            bits[base + (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    /**
+     * Checks if a word may have been added
+     *
+     * @param word the word
+     * @return false if the word was certainly not added
+     */
+    public boolean mightContain(CharSequence word) {
+        return check(hash(word));
+    }
+
+    /**
+     * Checks if the word in a slice of a char array may have been added
+     *
+     * @param letters the array holding the word
+     * @param start index of the first letter
+     * @param length number of letters in the word
+     * @param stride distance between two letters of the word in the array
+     * @return false if the word was certainly not added
+     */
+    public boolean mightContain(char[] letters, int start, int length, int stride) {
+        long hash = SEED;
+        for (int i = 0, index = start; i < length; i++, index += stride) {
+            hash = mix(hash, letters[index]);
+        }
+        return check(finish(hash));
+    }
+
+    /**
+     * Checks if the word going down a column of the board may have been added
+     *
+     * @param grid the board letters
+     * @param row row of the first letter
+     * @param col column of the word
+     * @param length number of letters in the word
+     * @return false if the word was certainly not added
+     */
+    public boolean mightContain(char[][] grid, int row, int col, int length) {
+        long hash = SEED;
+        for (int i = 0; i < length; i++) {
+            hash = mix(hash, grid[row + i][col]);
+        }
+        return check(finish(hash));
+    }
+
+    /**
+     * Size of the filter
+     *
+     * @return number of bytes in the bit set
+     */
+    public int getBytes() {
+        return bits.length * Long.BYTES;
+    }
+
+    private boolean check(long hash) {
+        int base = block(hash);
+        int h = (int) hash;
+        int step = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < hashes; i++, h += step) {
+            int bit = h & (BLOCK_BITS - 1);
+            if ((bits[base + (bit >>> 6)] & (1L << bit)) == 0) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Picks the block from the bits of the hash that are not used for the bit positions
+     */
+    private int block(long hash) {
+        return (int) (((hash >>> 40) * blocks) >>> 24) * BLOCK_LONGS;
+    }
+
+    private static final long SEED = 0xcbf29ce484222325L;
+
+    private long hash(CharSequence word) {
+        long hash = SEED;
+        for (int i = 0; i < word.length(); i++) {
+            hash = mix(hash, word.charAt(i));
+        }
+        return finish(hash);
+    }
+
+    /**
+     * FNV-1a step on the code of the letter. Chars that are not letters are kept apart from the
+     * codes, they only have to hash differently from real words.
+     */
+    private long mix(long hash, char letter) {
+        int code = alphabet.code(letter);
+        return (hash ^ (code == Alphabet.NONE ? letter + Alphabet.MAX_SIZE : code)) * 0x100000001b3L;
+    }
+
+    /**
+     * Final avalanche so every bit of the hash depends on every letter
+     */
+    private static long finish(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
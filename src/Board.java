@@ -1,6 +1,8 @@
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 
 
@@ -14,117 +16,204 @@ public class Board  implements Serializable{
      */
 
     private static class WordScore{
-        String word;
+        int row;          //first square of the word
+        int col;
+        int length;
+        boolean horizontal;
         int score;
-        WordScore(String word, int score){
-            this.word = word;
+        int wordId = WordTrie.NONE;   //id of the word in the dictionary, set once it is validated
+        WordScore(int row, int col, int length, boolean horizontal, int score){
+            this.row = row;
+            this.col = col;
+            this.length = length;
+            this.horizontal = horizontal;
             this.score = score;
         }
     }
 
     //deals with word placement and validation, along with printing the board
-    private char[][] scrabbleBoard;   //2D array representing the board
-    protected static final int SIZE = 15;
+    private char[][] scrabbleBoard;   //2D array representing the board, as many squares as the layout
     private WordDictionary dictionary;  //the scrabble board has its own dictionary of valid words
     private List<WordScore> validWordsWithScores; //the list of valid words to calculate the turn score
-    private int[][] tileLetterMultiplier;
-    private int[][] tileWordMultiplier;
+    private int[] lastWordIds = new int[0];  //ids of the words made by the last scored placement
+    private PremiumLayout layout;       //premium squares, shared with every board using the same layout
     private List<Integer> letterMultipliers;
+
+    //what is known about the tile on each square, kept next to the letters in plain arrays
+    //instead of an object per tile. Squares are [row * size + col] except for the blank bits
+    private long[] blankRows;          //bit col of blankRows[row] is set if the tile there is a blank
+    private byte[] owners;             //index of the player who placed the tile, NO_OWNER if unknown
+    private short[] turnsPlaced;       //turn the tile was placed in, NO_TURN if unknown
+    //occupied squares of each row (bit col) and column (bit row), so the run of letters through
+    //a square, i.e. where its word starts and ends, is found with a few bit operations
+    private long[] filledRows;
+    private long[] filledCols;
+    //last snapshot handed out and the rows changed since, so the next one copies only those
+    private transient BoardSnapshot snapshot;
+    private transient long changedRows;
+    public static final int NO_OWNER = -1;
+    public static final int NO_TURN = -1;
     private static final long serialVersionUID = 1L;
 
     /**
      * Constructor creates the Scrabble board and creates + sets the dictionary that contains
-     * all legal words for the game.
+     * all legal words for the game. The board uses the standard premium squares.
      *
      * @param dictionary The dictionary of valid words that can be used
      */
     public Board(WordDictionary dictionary){
-        scrabbleBoard = new char[SIZE][SIZE];
-        tileLetterMultiplier = new int[SIZE][SIZE];
-        tileWordMultiplier = new int[SIZE][SIZE];
-        letterMultipliers = new ArrayList<>();
+        this(dictionary, PremiumLayout.STANDARD);
+    }
 
+    /**
+     * Creates a board with a premium square layout. The layout is shared, not copied, so this
+     * only allocates the letter grid. The board has the size of the layout, e.g. 21x21 for
+     * PremiumLayout.SUPER.
+     *
+     * @param dictionary The dictionary of valid words that can be used
+     * @param layout the premium squares
+     */
+    public Board(WordDictionary dictionary, PremiumLayout layout){
+        int size = layout.getSize();
+        scrabbleBoard = new char[size][size];
+        letterMultipliers = new ArrayList<>();
         validWordsWithScores = new ArrayList<>();
         this.dictionary = dictionary;
+        this.layout = layout;
 
         // Loop below fills each row with an empty space
-        for (int i = 0; i < SIZE; i++){
+        for (int i = 0; i < size; i++){
             Arrays.fill(scrabbleBoard[i], ' ');
+        }
+        initPlanes(size);
+    }
+
+    /**
+     * Makes the blank, owner and turn planes with nothing recorded
+     */
+    private void initPlanes(int size){
+        blankRows = new long[size];
+        owners = new byte[size * size];
+        turnsPlaced = new short[size * size];
+        Arrays.fill(owners, (byte) NO_OWNER);
+        Arrays.fill(turnsPlaced, (short) NO_TURN);
+        indexRuns(size);
+    }
 
-            for (int j = 0; j < SIZE; j++){
-                tileLetterMultiplier[i][j] = 1; //initialize tile multiplier with base multiplier for all
-                tileWordMultiplier[i][j] = 1;
+    /**
+     * Builds the occupied square masks from the letters on the board
+     */
+    private void indexRuns(int size){
+        filledRows = new long[size];
+        filledCols = new long[size];
+        for (int row = 0; row < size; row++){
+            for (int col = 0; col < size; col++){
+                if (scrabbleBoard[row][col] != ' '){
+                    filledRows[row] |= 1L << col;
+                    filledCols[col] |= 1L << row;
+                }
             }
         }
+    }
+
+    /**
+     * Puts a letter (or ' ') on a square and keeps the occupied masks up to date
+     */
+    private void putLetter(int row, int col, char letter){
+        scrabbleBoard[row][col] = letter;
+        changedRows |= 1L << row;
+        if (letter == ' '){
+            filledRows[row] &= ~(1L << col);
+            filledCols[col] &= ~(1L << row);
+        } else {
+            filledRows[row] |= 1L << col;
+            filledCols[col] |= 1L << row;
+        }
+    }
+
+    /**
+     * First square of the run of letters through a square, along its row or down its column
+     *
+     * @param row The row index.
+     * @param col The column index.
+     * @param horizontal true for the row, false for the column
+     * @return the column (or row) where the run starts, the square itself if it starts there
+     */
+    public int getRunStart(int row, int col, boolean horizontal){
+        long filled = horizontal ? filledRows[row] : filledCols[col];
+        int index = horizontal ? col : row;
+        long gaps = ~filled & ((1L << index) - 1);   //empty squares before this one
+        return gaps == 0 ? 0 : 64 - Long.numberOfLeadingZeros(gaps);
+    }
+
+    /**
+     * Square after the end of the run of letters through a square
+     *
+     * @param row The row index.
+     * @param col The column index.
+     * @param horizontal true for the row, false for the column
+     * @return the column (or row) just past the run, the square itself if it is empty
+     */
+    public int getRunEnd(int row, int col, boolean horizontal){
+        long filled = horizontal ? filledRows[row] : filledCols[col];
+        int index = horizontal ? col : row;
+        return index + Long.numberOfTrailingZeros(~(filled >>> index));
+    }
+
+    /**
+     * Games saved before the planes existed get empty ones, their blanks score as letters.
+     * Games saved before layouts kept the multipliers as two grids, they become the layout
+     */
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        scrabbleBoard = (char[][]) fields.get("scrabbleBoard", null);
+        dictionary = (WordDictionary) fields.get("dictionary", null);
+        validWordsWithScores = (List<WordScore>) fields.get("validWordsWithScores", null);
+        letterMultipliers = (List<Integer>) fields.get("letterMultipliers", null);
+        if (hasField(fields, "layout")){
+            layout = (PremiumLayout) fields.get("layout", null);
+        } else {
+            layout = PremiumLayout.of((int[][]) fields.get("tileLetterMultiplier", null),
+                    (int[][]) fields.get("tileWordMultiplier", null));
+        }
+        if (hasField(fields, "lastWordIds")){
+            lastWordIds = (int[]) fields.get("lastWordIds", null);
+        }
+        if (lastWordIds == null){
+            lastWordIds = new int[0];
+        }
+        if (validWordsWithScores == null){
+            validWordsWithScores = new ArrayList<>();
+        }
+        if (hasField(fields, "blankRows")){
+            blankRows = (long[]) fields.get("blankRows", null);
+            owners = (byte[]) fields.get("owners", null);
+            turnsPlaced = (short[]) fields.get("turnsPlaced", null);
+        }
+        if (hasField(fields, "filledRows")){
+            filledRows = (long[]) fields.get("filledRows", null);
+            filledCols = (long[]) fields.get("filledCols", null);
+        }
+        if (blankRows == null){
+            initPlanes(getSize());
+        }
+        if (filledRows == null){
+            indexRuns(getSize());
+        }
+    }
 
-        // Two Point Letter Multipliers - LIGHT BLUE ON THE BOARD GUI
-        tileLetterMultiplier[0][3] = 2;
-        tileLetterMultiplier[0][11] = 2;
-        tileLetterMultiplier[2][6] = 2;
-        tileLetterMultiplier[2][8] = 2;
-        tileLetterMultiplier[3][0] = 2;
-        tileLetterMultiplier[3][7] = 2;
-        tileLetterMultiplier[3][14] = 2;
-        tileLetterMultiplier[6][2] = 2;
-        tileLetterMultiplier[6][6] = 2;
-        tileLetterMultiplier[6][8] = 2;
-        tileLetterMultiplier[6][12] = 2;
-        tileLetterMultiplier[7][3] = 2;
-        tileLetterMultiplier[7][11] = 2;
-        tileLetterMultiplier[8][2] = 2;
-        tileLetterMultiplier[8][6] = 2;
-        tileLetterMultiplier[8][8] = 2;
-        tileLetterMultiplier[8][12] = 2;
-        tileLetterMultiplier[11][0] = 2;
-        tileLetterMultiplier[11][7] = 2;
-        tileLetterMultiplier[11][14] = 2;
-        tileLetterMultiplier[12][6] = 2;
-        tileLetterMultiplier[12][8] = 2;
-        tileLetterMultiplier[14][3] = 2;
-        tileLetterMultiplier[14][11] = 2;
-
-        //Three Point Letter Multipliers - DARK BLUE ON THE GUI
-        tileLetterMultiplier[1][5] = 3;
-        tileLetterMultiplier[1][9] = 3;
-        tileLetterMultiplier[5][1] = 3;
-        tileLetterMultiplier[5][5] = 3;
-        tileLetterMultiplier[5][9] = 3;
-        tileLetterMultiplier[5][13] = 3;
-        tileLetterMultiplier[9][1] = 3;
-        tileLetterMultiplier[9][5] = 3;
-        tileLetterMultiplier[9][9] = 3;
-        tileLetterMultiplier[9][13] = 3;
-        tileLetterMultiplier[13][5] = 3;
-        tileLetterMultiplier[13][9] = 3;
-
-        //Two Point Word Multipliers - PINK ON THE BOARD GUI
-        tileWordMultiplier[1][1] = 2;
-        tileWordMultiplier[1][13] = 2;
-        tileWordMultiplier[2][2] = 2;
-        tileWordMultiplier[2][12] = 2;
-        tileWordMultiplier[3][3] = 2;
-        tileWordMultiplier[3][11] = 2;
-        tileWordMultiplier[4][4] = 2;
-        tileWordMultiplier[4][10] = 2;
-        tileWordMultiplier[7][7] = 2;
-        tileWordMultiplier[10][4] = 2;
-        tileWordMultiplier[10][10] = 2;
-        tileWordMultiplier[11][3] = 2;
-        tileWordMultiplier[11][11] = 2;
-        tileWordMultiplier[12][2] = 2;
-        tileWordMultiplier[12][12] = 2;
-        tileWordMultiplier[13][1] = 2;
-        tileWordMultiplier[13][13] = 2;
-
-        //Three Point Word Multipliers - RED ON THE BOARD GUI
-        tileWordMultiplier[0][0] = 3;
-        tileWordMultiplier[0][7] = 3;
-        tileWordMultiplier[0][14] = 3;
-        tileWordMultiplier[7][0] = 3;
-        tileWordMultiplier[7][14] = 3;
-        tileWordMultiplier[14][0] = 3;
-        tileWordMultiplier[14][7] = 3;
-        tileWordMultiplier[14][14] = 3;
+    private static boolean hasField(ObjectInputStream.GetField fields, String name){
+        return fields.getObjectStreamClass().getField(name) != null;
+    }
+
+    /**
+     * Clears what is recorded about a square when its tile is taken off
+     */
+    private void clearSquare(int row, int col){
+        blankRows[row] &= ~(1L << col);
+        owners[row * getSize() + col] = NO_OWNER;
+        turnsPlaced[row * getSize() + col] = NO_TURN;
     }
 
     /**
@@ -132,14 +221,19 @@ public class Board  implements Serializable{
      * Should be called by the Game class.
      */
     public void display(){
-        System.out.println("     0   1   2   3   4   5   6   7   8   9  10   11  12  13  14  ");
-        System.out.println("----------------------------------------------------------------");
-        for(int i = 0; i < SIZE ; i++){
+        StringBuilder header = new StringBuilder("   ");
+        for (int j = 0; j < getSize(); j++){
+            header.append(j < 10 ? "  " : " ").append(j).append(' ');
+        }
+        String line = "-".repeat(header.length() + 1);
+        System.out.println(header);
+        System.out.println(line);
+        for(int i = 0; i < getSize() ; i++){
             System.out.print((i < 10 ? " " : "") + i + " | ");    //prints column numbers
-            for(int j = 0; j < SIZE ; j++){
+            for(int j = 0; j < getSize() ; j++){
                 System.out.print(scrabbleBoard[i][j] + " | "); // prints out rows
             }
-            System.out.println("\n----------------------------------------------------------------");
+            System.out.println("\n" + line);
         }
         System.out.println();
     }
@@ -159,6 +253,7 @@ public class Board  implements Serializable{
      *      The tiles played are not adjacent to an existing word (at least one tile must be touching
      *      one already on the board)
      *      The first play does not include the center square or is not at least 2 letters long
+     *      A tile is on a square the layout blocks
      *
      * @param rows An array of what rows the player placed their tiles into
      * @param cols  An array of what columns the player placed their tiles into
@@ -179,8 +274,9 @@ public class Board  implements Serializable{
                 System.out.println("Invalid play. First play must be at least 2 letters long. Please try again.");
             }
             
+            int center = layout.getCenter();
             for (int i = 0; i < rows.length; i++){
-                if(rows[i] == 7 && cols[i] == 7){
+                if(rows[i] == center && cols[i] == center){
                     centerSquareUsed = true;
                     break;
                 }
@@ -192,6 +288,14 @@ public class Board  implements Serializable{
             }
         }
 
+        //No tile can go on a square the layout blocks
+        for (int i = 0; i < rows.length; i++){
+            if (layout.isBlocked(rows[i], cols[i])){
+                System.out.println("Invalid play. Square (" + rows[i] + ", " + cols[i] + ") is blocked. Please try again.");
+                return 0;
+            }
+        }
+
         //All played tiles must be in the same column or row, only becomes an issue if there are 2+ tiles played
         if (rows.length >= 2){
             for (int i = 0; i < (rows.length - 1); i++){
@@ -207,7 +311,10 @@ public class Board  implements Serializable{
         {
             if (tilesUsedFromRack[i] != null)
             {
-                scrabbleBoard[rows[i]][cols[i]] = tilesUsedFromRack[i].getEffectiveLetter();
+                putLetter(rows[i], cols[i], tilesUsedFromRack[i].getEffectiveLetter());
+                if (tilesUsedFromRack[i].isBlank()){
+                    blankRows[rows[i]] |= 1L << cols[i];
+                }
             }
         }
 
@@ -235,7 +342,15 @@ public class Board  implements Serializable{
      * @return True, if the centre square is empty
      */
     private boolean isFirstPlay(){
-        return scrabbleBoard[7][7] == ' ';
+        return scrabbleBoard[layout.getCenter()][layout.getCenter()] == ' ';
+    }
+
+    /**
+     * Number of rows (and columns) of the board, set by its layout
+     * @return the board size
+     */
+    public int getSize(){
+        return scrabbleBoard.length;
     }
 
     /**
@@ -248,12 +363,29 @@ public class Board  implements Serializable{
     }
 
     /**
-     * setter for the char[][] board
+     * setter for the char[][] board, the blank, owner and turn records of the old tiles are dropped
      * @param newBoard the char[][] board to replace/update the current one
      */
     public void setCharBoard(char[][] newBoard)
     {
         this.scrabbleBoard = newBoard;
+        initPlanes(getSize());   //also rebuilds the occupied square masks
+        changedRows = -1L;
+    }
+
+    /**
+     * A version of the board that never changes, for readers that must not see it change, such
+     * as another thread. Only the rows changed since the last snapshot are copied, the others are
+     * shared with it, and a board that has not changed gives the same snapshot back.
+     * Letters must be changed through the board's methods (not getCharBoard()) to be seen here.
+     *
+     * @return the snapshot of the letters and blanks as they are now
+     */
+    public BoardSnapshot snapshot()
+    {
+        snapshot = BoardSnapshot.next(snapshot, scrabbleBoard, blankRows, changedRows, layout);
+        changedRows = 0;
+        return snapshot;
     }
 
     /**
@@ -273,11 +405,11 @@ public class Board  implements Serializable{
             //Check the square above
             if(row > 0 && scrabbleBoard[row - 1][col] != ' ') adjacent = true;
             // Checks the square below
-            if(row < SIZE - 1 && scrabbleBoard[row + 1][col] != ' ') adjacent = true;
+            if(row < getSize() - 1 && scrabbleBoard[row + 1][col] != ' ') adjacent = true;
             //Checks the square to the left
             if(col > 0 && scrabbleBoard[row][col - 1] != ' ') adjacent = true;
             //Check the square to the right
-            if(col < SIZE - 1 && scrabbleBoard[row][col + 1] != ' ') adjacent = true;
+            if(col < getSize() - 1 && scrabbleBoard[row][col + 1] != ' ') adjacent = true;
         }
         return adjacent;
     }
@@ -293,22 +425,23 @@ public class Board  implements Serializable{
         boolean allWordsValid = true;
         validWordsWithScores.clear();
 
-        // Check horizontal and vertical words formed by new tiles
+        // Check the horizontal and vertical word through every new tile. The main word goes
+        // through all of them but is only scored once, the run index tells where it starts
         for (int i = 0; i < rows.length; i++) {
-            if (cols[i] == cols[0]) {
-                extractWordAndCalculateScore(rows[i], cols[i], false, rows, cols);
-            }
-            // validate the horizontal words
-            if (rows[i] == rows[0]) {
-                extractWordAndCalculateScore(rows[i], cols[i], true, rows, cols);
+            for (int direction = 0; direction < 2; direction++) {
+                boolean horizontal = direction == 0;
+                if (!foundAlready(rows[i], cols[i], horizontal)) {
+                    findWordAndCalculateScore(rows[i], cols[i], horizontal, rows, cols);
+                }
             }
         }
 
 
         // Now validate all words
         for (WordScore ws : validWordsWithScores) {
-            if(!dictionary.isValidWord(ws.word)){
-                System.out.println("Invalid word: " + ws.word + ". All placed tiles removed. Please try again.");
+            ws.wordId = dictionary.wordId(scrabbleBoard, ws.row, ws.col, ws.length, ws.horizontal);
+            if(ws.wordId == WordTrie.NONE){
+                System.out.println("Invalid word: " + wordAt(ws) + ". All placed tiles removed. Please try again.");
                 allWordsValid = false;
             }
         }
@@ -317,6 +450,20 @@ public class Board  implements Serializable{
 
 
 
+    /**
+     * Checks if the word through a square is already in validWordsWithScores
+     */
+    private boolean foundAlready(int row, int col, boolean horizontal){
+        int start = getRunStart(row, col, horizontal);
+        for (WordScore ws : validWordsWithScores){
+            if (ws.horizontal == horizontal && (horizontal ? ws.row == row && ws.col == start
+                                                           : ws.col == col && ws.row == start)){
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Extracts the longest word created in the row or column and places it into a string.
      *
@@ -326,56 +473,76 @@ public class Board  implements Serializable{
      * @return String of the word created in the given direction (horizontal or vertical)
      */
     public String extractWordAndCalculateScore(int startRow, int startCol, boolean horizontal, int[] placedRows, int[] placedCols){
-        StringBuilder word = new StringBuilder();
+        WordScore ws = findWordAndCalculateScore(startRow, startCol, horizontal, placedRows, placedCols);
+        return ws == null ? "" : wordAt(ws);
+    }
+
+    /**
+     * Finds where the longest word in the row or column through a square starts and ends, and
+     * scores it. The start comes from the occupied square masks. Words of 2+ letters are added
+     * to validWordsWithScores. The letters are left on the board instead of being copied into a
+     * string, the dictionary reads them from there.
+     *
+     * @param startRow A square containing a letter in the word
+     * @param startCol A square containing a letter in the word
+     * @param horizontal True if the word is horizontal, false if vertical
+     * @return the position and score of the word, null if there are no letters at the square
+     */
+    private WordScore findWordAndCalculateScore(int startRow, int startCol, boolean horizontal, int[] placedRows, int[] placedCols){
         int wordScore = 0;
-        int row = startRow;
-        int col =startCol;
-
-        //moves backwards to the start of the word (we end up at the very first empty space before the word)
-        while(row >= 0 && col >= 0 && scrabbleBoard[row][col] != ' '){
-            if(horizontal){
-                col--;
-            } else{
-                row--;
-            }
+
+        if (scrabbleBoard[startRow][startCol] == ' '){
+            return null;
         }
 
-        //moves us to the square with a letter
-        if (horizontal) col++; else row++;
+        //the run index gives where the word starts and ends, no walking back over it
+        int start = getRunStart(startRow, startCol, horizontal);
+        int length = getRunEnd(startRow, startCol, horizontal) - start;
+        int firstRow = horizontal ? startRow : start;
+        int firstCol = horizontal ? start : startCol;
 
-        //builds the word by moving forward and tracking multipliers
-        while(row < SIZE && col < SIZE && scrabbleBoard[row][col] != ' '){
-            word.append(scrabbleBoard[row][col]);
+        //walks forward over the word and tracks multipliers
+        for (int i = 0; i < length; i++){
+            int row = horizontal ? firstRow : firstRow + i;
+            int col = horizontal ? firstCol + i : firstCol;
 
             boolean isNewlyPlaced = false;
-            for (int i = 0; i < placedRows.length; i++){
-                if (placedRows[i] == row && placedCols[i] == col){
+            for (int j = 0; j < placedRows.length; j++){
+                if (placedRows[j] == row && placedCols[j] == col){
                     isNewlyPlaced = true;
                     break;
                 }
             }
 
-            //Calculate word score immediately
-            int letterValue = Scoring.getLetterValue(scrabbleBoard[row][col]);
+            //Calculate word score immediately, a blank is worth nothing whatever letter it stands for
+            int letterValue = (blankRows[row] & (1L << col)) != 0 ? 0
+                    : Scoring.getLetterValue(scrabbleBoard[row][col], dictionary.getAlphabet());
             if (isNewlyPlaced){
-                letterValue *= tileLetterMultiplier[row][col];
+                letterValue *= layout.letterMultiplier(row, col);
             }
 
             wordScore += letterValue;
-
-            if(horizontal){
-                col++;
-            }
-            else{
-                row++;
-            }
         }
 
-        if (word.length() > 1){
-            validWordsWithScores.add(new WordScore(word.toString(), wordScore));
+        WordScore ws = new WordScore(firstRow, firstCol, length, horizontal, wordScore);
+        if (length > 1){
+            validWordsWithScores.add(ws);
         }
+        return ws;
+    }
 
-        return word.toString();
+    /**
+     * Reads a word off the board. Only needed when the word has to be shown.
+     *
+     * @param ws the position of the word
+     * @return the word as a string
+     */
+    private String wordAt(WordScore ws){
+        char[] word = new char[ws.length];
+        for (int i = 0; i < ws.length; i++){
+            word[i] = ws.horizontal ? scrabbleBoard[ws.row][ws.col + i] : scrabbleBoard[ws.row + i][ws.col];
+        }
+        return new String(word);
     }
 
     /**
@@ -386,10 +553,71 @@ public class Board  implements Serializable{
      */
     public void removeTiles(int[] rows, int[] cols){
         for(int i = 0; i < rows.length; i++){
-            scrabbleBoard[rows[i]][cols[i]] = ' ';
+            putLetter(rows[i], cols[i], ' ');
+            clearSquare(rows[i], cols[i]);
+        }
+    }
+
+    /**
+     * Records who placed the tiles of a move and in which turn, once the move is accepted
+     *
+     * @param rows Rows of the tiles placed
+     * @param cols Columns of the tiles placed
+     * @param owner index of the player, 0 to 127
+     * @param turn the turn of the game the move was made in, 0 to 32767
+     */
+    public void recordMove(int[] rows, int[] cols, int owner, int turn){
+        for(int i = 0; i < rows.length; i++){
+            recordTile(rows[i], cols[i], owner, turn);
         }
     }
 
+    /**
+     * Records who placed the tile on one square and in which turn
+     *
+     * @param row The row index.
+     * @param col The column index.
+     * @param owner index of the player, 0 to 127
+     * @param turn the turn of the game the tile was placed in, 0 to 32767
+     */
+    public void recordTile(int row, int col, int owner, int turn){
+        owners[row * getSize() + col] = (byte) owner;
+        turnsPlaced[row * getSize() + col] = (short) turn;
+    }
+
+    /**
+     * Checks if the tile on a square is a blank, which scores 0 whatever letter it shows
+     *
+     * @param row The row index.
+     * @param col The column index.
+     * @return true for a blank, false for a letter tile or an empty square
+     */
+    public boolean isBlankAt(int row, int col){
+        return (blankRows[row] & (1L << col)) != 0;
+    }
+
+    /**
+     * The player who placed the tile on a square
+     *
+     * @param row The row index.
+     * @param col The column index.
+     * @return the player's index, NO_OWNER for an empty square or a tile placed without recordMove
+     */
+    public int getOwnerAt(int row, int col){
+        return owners[row * getSize() + col];
+    }
+
+    /**
+     * The turn the tile on a square was placed in
+     *
+     * @param row The row index.
+     * @param col The column index.
+     * @return the turn, NO_TURN for an empty square or a tile placed without recordMove
+     */
+    public int getTurnPlacedAt(int row, int col){
+        return turnsPlaced[row * getSize() + col];
+    }
+
     /**
      * Calculates turn score based on the words created.
      *
@@ -398,15 +626,19 @@ public class Board  implements Serializable{
     public int getTurnScore(int[] rows, int[] cols){
         int score = 0;
 
-        // Sum up all word scores
-        for (WordScore ws : validWordsWithScores) {
+        // Sum up all word scores, validateWords found each word once
+        int[] ids = new int[validWordsWithScores.size()];
+        for (int i = 0; i < ids.length; i++) {
+            WordScore ws = validWordsWithScores.get(i);
             score += ws.score;
+            ids[i] = ws.wordId;
         }
+        lastWordIds = ids;
 
         // Apply word multipliers to the total
         int totalWordMultiplier = 1;
         for(int i = 0; i < rows.length; i++){
-            totalWordMultiplier *= tileWordMultiplier[rows[i]][cols[i]];
+            totalWordMultiplier *= layout.wordMultiplier(rows[i], cols[i]);
         }
         score *= totalWordMultiplier;
 
@@ -414,6 +646,16 @@ public class Board  implements Serializable{
         return score;
     }
 
+    /**
+     * Ids of the words made by the last placement that was scored, use the dictionary's wordOf()
+     * to spell them out
+     *
+     * @return the word ids, one per word formed (main word and cross words)
+     */
+    public int[] getLastWordIds(){
+        return lastWordIds;
+    }
+
 /**
  * Returns the letter at the specified cell.
  *
@@ -422,7 +664,7 @@ public class Board  implements Serializable{
  * @return The letter at the specified cell or a blank space (' ') if out of bounds.
  */
     public char getLetterAt(int row, int col){
-        if (row >= 0 && row < SIZE && col >= 0 && col < SIZE){
+        if (row >= 0 && row < getSize() && col >= 0 && col < getSize()){
             return scrabbleBoard[row][col];
         }
         System.out.println("Row or column out of bounds: (" + row + ", " + col + ")");
@@ -437,37 +679,77 @@ public class Board  implements Serializable{
      * @param tile The tile (character) to place on the board.
      */
     public void setLetterAt(int row, int col, char tile){
-        if (row >= 0 && row < SIZE && col >= 0 && col < SIZE){
-            scrabbleBoard[row][col] = tile;
+        setLetterAt(row, col, tile, false);
+    }
+
+    /**
+     * Sets a letter at the specified position on the board, saying if it is a blank tile.
+     * Setting ' ' clears the square and what was recorded about it.
+     *
+     * @param row  The row index on the board.
+     * @param col  The column index on the board.
+     * @param tile The tile (character) to place on the board.
+     * @param blank true if the tile is a blank standing for the letter
+     */
+    public void setLetterAt(int row, int col, char tile, boolean blank){
+        if (row >= 0 && row < getSize() && col >= 0 && col < getSize()){
+            if (tile != ' ' && layout.isBlocked(row, col)){
+                System.out.println("Square is blocked: (" + row + ", " + col + ")");
+                return;
+            }
+            putLetter(row, col, tile);
+            clearSquare(row, col);
+            if (blank && tile != ' '){
+                blankRows[row] |= 1L << col;
+            }
         } else {
             System.out.println("Row or column out of bounds: (" + row + ", " + col + ")");
         }
     }
 
     /**
-     * Sets the multipliers
+     * Sets the multipliers, through the shared layout with the same squares
      * @param letterMultipliers the multipliers for the letter
      * @param wordMultipliers the multipliers for the whole word
+     * @throws IllegalArgumentException if the grids are not the size of the board
      */
     public void setTileMultipliers(int[][] letterMultipliers, int[][] wordMultipliers){
-        this.tileWordMultiplier = wordMultipliers;
-        this.tileLetterMultiplier = letterMultipliers;
+        boolean[][] blocked = new boolean[getSize()][getSize()];
+        for (int row = 0; row < getSize(); row++){
+            for (int col = 0; col < getSize(); col++){
+                blocked[row][col] = layout.isBlocked(row, col);   //the multipliers change, the shape stays
+            }
+        }
+        PremiumLayout newLayout = PremiumLayout.of(letterMultipliers, wordMultipliers, blocked);
+        if (newLayout.getSize() != getSize()){
+            throw new IllegalArgumentException("Layout is " + newLayout.getSize() + "x" + newLayout.getSize()
+                    + " but the board is " + getSize() + "x" + getSize());
+        }
+        this.layout = newLayout;
     }
 
     /**
      * Returns the letter multipliers
-     * @return the letter multipliers
+     * @return a copy of the letter multipliers
      */
     public int[][] getTileLetterMultiplier(){
-        return tileLetterMultiplier;
+        return layout.getLetterMultipliers();
     }
 
     /**
      * Returns the word multipliers
-     * @return the word multipliers
+     * @return a copy of the word multipliers
      */
     public int[][] getTileWordMultiplier(){
-        return tileWordMultiplier;
+        return layout.getWordMultipliers();
+    }
+
+    /**
+     * Returns the premium square layout of the board
+     * @return the shared layout
+     */
+    public PremiumLayout getLayout(){
+        return layout;
     }
 
     /**
@@ -1,107 +1,81 @@
-import org.w3c.dom.*;
-import javax.xml.parsers.*;
+import javax.xml.stream.*;
 import java.io.*;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * This class represents the board premium square layout. This is used as multipliers for the players score from
  * placing a word. XML format is used for the files. Takes XML files and TXT files with XML content.
+ * The squares end up in a shared PremiumLayout that the boards use directly.
+ *
+ * Files are read with a streaming (StAX) reader, and anything that is not a valid layout is
+ * reported as a BoardLayoutException with the line and column. Parsed files are cached by path
+ * and modification time, so loading the same file again does not read it.
  *
  */
 public class BoardLayout {
-    private static final int SIZE = 15; // Board size is constant
-    private int[][] tileLetterMultiplier; // For letter multipliers
-    private int[][] tileWordMultiplier;   // For word multipliers
+    private static final int DEFAULT_SIZE = 15; // Board size when the file does not give one
+    private static final String[] EXTENSIONS = {"", ".xml", ".txt"};
+    private static final XMLInputFactory XML = xmlFactory();
+    private static final ConcurrentHashMap<String, Compiled> COMPILED = new ConcurrentHashMap<>();
+
+    private PremiumLayout layout;       // The shared multipliers
 
     /**
-     * Initialize the multipliers
+     * A parsed layout file and the time stamp it had
      */
-    public BoardLayout() {
-        this.tileLetterMultiplier = letterMultiplierOriginal(); // Use default letter multipliers
-        this.tileWordMultiplier = wordMultiplierOriginal();    // Use default word multipliers
+    private static final class Compiled {
+        final Path path;
+        final FileTime modified;
+        final PremiumLayout layout;
+
+        Compiled(Path path, FileTime modified, PremiumLayout layout) {
+            this.path = path;
+            this.modified = modified;
+            this.layout = layout;
+        }
     }
 
     /**
-     * Initializes letter multipliers
-     *
-     * @return letter multipliers
+     * Layout files are plain data, so DTDs and external entities are turned off
      */
-    private int[][] initTileLetterMultiplier() {
-        tileLetterMultiplier = new int[SIZE][SIZE];
-        for (int i = 0; i < SIZE; i++) {
-            for (int j = 0; j < SIZE; j++) {
-                tileLetterMultiplier[i][j] = 1;
-            }
-        }
-        return tileLetterMultiplier;
+    private static XMLInputFactory xmlFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
     }
 
     /**
-     * Initializes word multipliers
+     * Initialize the multipliers
+     */
+    public BoardLayout() {
+        this.layout = PremiumLayout.STANDARD; // Use default multipliers
+    }
+
+    /**
+     * Initializes a multiplier grid with every square plain
      *
-     * @return word multipliers
+     * @param size number of rows and columns
+     * @return multipliers of 1
      */
-    private int[][] initTileWordMultiplier() {
-        int[][] tileWordMultiplier = new int[SIZE][SIZE];
-        for (int i = 0; i < SIZE; i++) {
-            for (int j = 0; j < SIZE; j++) {
-                tileWordMultiplier[i][j] = 1;
-            }
+    private static int[][] initMultipliers(int size) {
+        int[][] multipliers = new int[size][size];
+        for (int i = 0; i < size; i++) {
+            Arrays.fill(multipliers[i], 1);
         }
-        return tileWordMultiplier;
+        return multipliers;
     }
 
-
     /**
      * Initializes default letter multipliers
      *
      * @return letter multipliers
      */
     public int[][] letterMultiplierOriginal() {
-
-        int[][] tileLetterMultiplier;
-        tileLetterMultiplier = initTileLetterMultiplier();
-
-        // Two Point Letter Multipliers - LIGHT BLUE ON THE BOARD GUI
-        tileLetterMultiplier[0][3] = 2;
-        tileLetterMultiplier[0][11] = 2;
-        tileLetterMultiplier[2][6] = 2;
-        tileLetterMultiplier[2][8] = 2;
-        tileLetterMultiplier[3][0] = 2;
-        tileLetterMultiplier[3][7] = 2;
-        tileLetterMultiplier[3][14] = 2;
-        tileLetterMultiplier[6][2] = 2;
-        tileLetterMultiplier[6][6] = 2;
-        tileLetterMultiplier[6][8] = 2;
-        tileLetterMultiplier[6][12] = 2;
-        tileLetterMultiplier[7][3] = 2;
-        tileLetterMultiplier[7][11] = 2;
-        tileLetterMultiplier[8][2] = 2;
-        tileLetterMultiplier[8][6] = 2;
-        tileLetterMultiplier[8][8] = 2;
-        tileLetterMultiplier[8][12] = 2;
-        tileLetterMultiplier[11][0] = 2;
-        tileLetterMultiplier[11][7] = 2;
-        tileLetterMultiplier[11][14] = 2;
-        tileLetterMultiplier[12][6] = 2;
-        tileLetterMultiplier[12][8] = 2;
-        tileLetterMultiplier[14][3] = 2;
-        tileLetterMultiplier[14][11] = 2;
-
-        //Three Point Letter Multipliers - DARK BLUE ON THE GUI
-        tileLetterMultiplier[1][5] = 3;
-        tileLetterMultiplier[1][9] = 3;
-        tileLetterMultiplier[5][1] = 3;
-        tileLetterMultiplier[5][5] = 3;
-        tileLetterMultiplier[5][9] = 3;
-        tileLetterMultiplier[5][13] = 3;
-        tileLetterMultiplier[9][1] = 3;
-        tileLetterMultiplier[9][5] = 3;
-        tileLetterMultiplier[9][9] = 3;
-        tileLetterMultiplier[9][13] = 3;
-        tileLetterMultiplier[13][5] = 3;
-        tileLetterMultiplier[13][9] = 3;
-
-        return tileLetterMultiplier;
+        return PremiumLayout.STANDARD.getLetterMultipliers();
     }
 
     /**
@@ -110,40 +84,7 @@ public class BoardLayout {
      * @return word multipliers
      */
     public int[][] wordMultiplierOriginal() {
-
-        int[][] tileWordMultiplier;
-        tileWordMultiplier = initTileWordMultiplier();
-
-        //Two Point Word Multipliers - PINK ON THE BOARD GUI
-        tileWordMultiplier[1][1] = 2;
-        tileWordMultiplier[1][13] = 2;
-        tileWordMultiplier[2][2] = 2;
-        tileWordMultiplier[2][12] = 2;
-        tileWordMultiplier[3][3] = 2;
-        tileWordMultiplier[3][11] = 2;
-        tileWordMultiplier[4][4] = 2;
-        tileWordMultiplier[4][10] = 2;
-        tileWordMultiplier[7][7] = 2;
-        tileWordMultiplier[10][4] = 2;
-        tileWordMultiplier[10][10] = 2;
-        tileWordMultiplier[11][3] = 2;
-        tileWordMultiplier[11][11] = 2;
-        tileWordMultiplier[12][2] = 2;
-        tileWordMultiplier[12][12] = 2;
-        tileWordMultiplier[13][1] = 2;
-        tileWordMultiplier[13][13] = 2;
-
-        //Three Point Word Multipliers - RED ON THE BOARD GUI
-        tileWordMultiplier[0][0] = 3;
-        tileWordMultiplier[0][7] = 3;
-        tileWordMultiplier[0][14] = 3;
-        tileWordMultiplier[7][0] = 3;
-        tileWordMultiplier[7][14] = 3;
-        tileWordMultiplier[14][0] = 3;
-        tileWordMultiplier[14][7] = 3;
-        tileWordMultiplier[14][14] = 3;
-
-        return tileWordMultiplier;
+        return PremiumLayout.STANDARD.getWordMultipliers();
     }
 
     /**
@@ -155,90 +96,212 @@ public class BoardLayout {
      *      <multiplier type="letter" x="0" y="3" value="2"/>
      *      ...
      *      <multiplier type="word" x="0" y="0" value="3"/>
+     *      <blocked x="0" y="0" rows="4" cols="4"/>
      * </board>
      *
+     * Blocked elements are optional and take squares off the board, rows and cols make them a
+     * rectangle (the example blocks the 4x4 top left corner). If the file can't be found or is
+     * not a valid layout the error is printed and the current layout is kept.
+     *
      * @param filepath the file location to retrieve the custom layout
      */
     public void loadCustomLayout(String filepath){
-        try{
-            File file = findLayoutFile(filepath);
+        try {
+            layout = compile(filepath);
+        } catch (FileNotFoundException e) {
+            System.err.println("Error: Could not find layout file with path: " + filepath);
+            System.err.println("Tried extensions: .xml, .txt");
+        } catch (BoardLayoutException e) {
+            System.err.println("Error: Invalid layout file " + e.getMessage());
+        } catch (IOException e) {
+            System.out.println("Error loading custom layout: " + e.getMessage());
+        }
+    }
 
-            if (file == null) {
-                System.err.println("Error: Could not find layout file with path: " + filepath);
-                System.err.println("Tried extensions: .xml, .txt");
-                return;
+    /**
+     * Gets the layout in a layout file. Files are parsed once: the result is cached by path and
+     * the file's modification time, so asking again only checks the time stamp, and a file that
+     * was edited since is parsed again.
+     *
+     * @param filepath the file, with or without the .xml or .txt extension
+     * @return the shared layout
+     * @throws FileNotFoundException if there is no such file with any of the extensions
+     * @throws BoardLayoutException if the file is not a valid layout
+     * @throws IOException if the file can't be read
+     */
+    public static PremiumLayout compile(String filepath) throws IOException, BoardLayoutException {
+        Compiled cached = COMPILED.get(filepath);
+        if (cached != null) {
+            try {
+                if (Files.getLastModifiedTime(cached.path).equals(cached.modified)) {
+                    return cached.layout;
+                }
+            } catch (NoSuchFileException e) {
+                //moved or deleted, look for it again below
             }
+        }
 
-            int[][] letterMultipliers = initTileLetterMultiplier();
-            int[][] wordMultipliers = initTileWordMultiplier();
-
-            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-            DocumentBuilder builder = factory.newDocumentBuilder();
-            Document document = builder.parse(file);
-            NodeList multipliers = document.getElementsByTagName("multiplier");
-
-            for (int i = 0; i < multipliers.getLength(); i++) {
-                Node node = multipliers.item(i);
-                if (node.getNodeType() == Node.ELEMENT_NODE) {
-                    Element element = (Element) node;
-                    String type = element.getAttribute("type");
-                    try {
-                        int x = Integer.parseInt(element.getAttribute("x"));
-                        int y = Integer.parseInt(element.getAttribute("y"));
-                        int value = Integer.parseInt(element.getAttribute("value"));
+        Path path = findLayoutFile(filepath);
+        if (path == null) {
+            COMPILED.remove(filepath);
+            throw new FileNotFoundException(filepath);
+        }
+        //time stamp taken before reading, so an edit made while parsing is seen next time
+        FileTime modified = Files.getLastModifiedTime(path);
+        PremiumLayout parsed;
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(path))) {
+            parsed = parse(in, path.toString());
+        }
+        COMPILED.put(filepath, new Compiled(path, modified, parsed));
+        return parsed;
+    }
 
-                        // Validate coordinates
-                        if (x >= 0 && x < SIZE && y >= 0 && y < SIZE) {
-                            if ("letter".equals(type)) {
-                                letterMultipliers[x][y] = value;
-                            } else if ("word".equals(type)) {
-                                wordMultipliers[x][y] = value;
-                            } else {
-                                System.err.println("Warning: Unknown multiplier type '" + type +
-                                        "' at (" + x + ", " + y + "). Skipping.");
-                            }
+    /**
+     * Reads a layout with a streaming XML reader. Squares that are not listed stay plain. The
+     * board is 15x15 unless the board element gives another odd size, e.g. <board size="21">.
+     *
+     * @param in the XML
+     * @param name name of the file, for the error messages
+     * @return the shared layout
+     * @throws BoardLayoutException if the XML is broken or not a valid layout
+     */
+    static PremiumLayout parse(InputStream in, String name) throws BoardLayoutException {
+        int[][] letterMultipliers = null;
+        int[][] wordMultipliers = null;
+        boolean[][] blocked = null;
+        XMLStreamReader reader = null;
+        try {
+            reader = XML.createXMLStreamReader(in);
+            int depth = 0;
+            boolean sawBoard = false;
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    String element = reader.getLocalName();
+                    if (depth == 0) {
+                        if (!"board".equals(element)) {
+                            throw error(reader, name, "expected <board> but found <" + element + ">");
+                        }
+                        int size = reader.getAttributeValue(null, "size") == null ? DEFAULT_SIZE
+                                : readInt(reader, name, "size", PremiumLayout.MIN_SIZE, PremiumLayout.MAX_SIZE);
+                        if (size % 2 == 0) {
+                            throw error(reader, name, "size=" + size + " has no centre square, it must be odd");
                         }
-                    } catch (NumberFormatException e){
-                        System.err.println("Warning: Invalid number format in multiplier element. Skipping.");
+                        letterMultipliers = initMultipliers(size);
+                        wordMultipliers = initMultipliers(size);
+                        blocked = new boolean[size][size];
+                        sawBoard = true;
+                    } else if (depth == 1 && "multiplier".equals(element)) {
+                        readMultiplier(reader, name, letterMultipliers, wordMultipliers);
+                    } else if (depth == 1 && "blocked".equals(element)) {
+                        readBlocked(reader, name, blocked);
+                    } else {
+                        throw error(reader, name, "unexpected element <" + element + ">");
                     }
+                    depth++;
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    depth--;
                 }
             }
+            if (!sawBoard) {
+                throw new BoardLayoutException(name, -1, -1, "no <board> element");
+            }
+        } catch (XMLStreamException e) {
+            Location location = e.getLocation();
+            String problem = e.getMessage();
+            //the message repeats the location on its first lines, keep only the last line
+            if (problem != null && problem.lastIndexOf('\n') >= 0) {
+                problem = problem.substring(problem.lastIndexOf('\n') + 1);
+            }
+            throw new BoardLayoutException(name, location == null ? -1 : location.getLineNumber(),
+                    location == null ? -1 : location.getColumnNumber(), "malformed XML: " + problem);
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException e) {
+                    //nothing left to clean up
+                }
+            }
+        }
+        try {
+            return PremiumLayout.of(letterMultipliers, wordMultipliers, blocked);
+        } catch (IllegalArgumentException e) {
+            throw new BoardLayoutException(name, -1, -1, e.getMessage());
+        }
+    }
 
-            tileLetterMultiplier = letterMultipliers;
-            tileWordMultiplier = wordMultipliers;
+    /**
+     * Checks the attributes of one multiplier element and puts it in the grids
+     */
+    private static void readMultiplier(XMLStreamReader reader, String name,
+                                       int[][] letterMultipliers, int[][] wordMultipliers) throws BoardLayoutException {
+        String type = reader.getAttributeValue(null, "type");
+        int[][] grid;
+        if ("letter".equals(type)) {
+            grid = letterMultipliers;
+        } else if ("word".equals(type)) {
+            grid = wordMultipliers;
+        } else {
+            throw error(reader, name, type == null ? "multiplier has no type"
+                    : "unknown multiplier type '" + type + "', expected letter or word");
+        }
+        int x = readInt(reader, name, "x", 0, grid.length - 1);
+        int y = readInt(reader, name, "y", 0, grid.length - 1);
+        grid[x][y] = readInt(reader, name, "value", 1, Byte.MAX_VALUE);
+    }
 
-        } catch (Exception e){
-            System.out.println("Error loading custom layout: " + e.getMessage());
-            e.printStackTrace();
+    /**
+     * Marks the squares of a blocked element. x and y are the first square, rows and cols
+     * (1 if left out) make it a rectangle of blocked squares.
+     */
+    private static void readBlocked(XMLStreamReader reader, String name, boolean[][] blocked) throws BoardLayoutException {
+        int x = readInt(reader, name, "x", 0, blocked.length - 1);
+        int y = readInt(reader, name, "y", 0, blocked.length - 1);
+        int rows = reader.getAttributeValue(null, "rows") == null ? 1 : readInt(reader, name, "rows", 1, blocked.length - x);
+        int cols = reader.getAttributeValue(null, "cols") == null ? 1 : readInt(reader, name, "cols", 1, blocked.length - y);
+        for (int row = x; row < x + rows; row++) {
+            Arrays.fill(blocked[row], y, y + cols, true);
         }
     }
 
+    private static int readInt(XMLStreamReader reader, String name, String attribute, int min, int max)
+            throws BoardLayoutException {
+        String text = reader.getAttributeValue(null, attribute);
+        if (text == null) {
+            throw error(reader, name, reader.getLocalName() + " has no " + attribute);
+        }
+        int value;
+        try {
+            value = Integer.parseInt(text.trim());
+        } catch (NumberFormatException e) {
+            throw error(reader, name, attribute + "=\"" + text + "\" is not a number");
+        }
+        if (value < min || value > max) {
+            throw error(reader, name, attribute + "=" + value + " outside " + min + "-" + max);
+        }
+        return value;
+    }
+
+    private static BoardLayoutException error(XMLStreamReader reader, String name, String problem) {
+        Location location = reader.getLocation();
+        return new BoardLayoutException(name, location.getLineNumber(), location.getColumnNumber(), problem);
+    }
+
     /**
      * Finds a layout file with the given filepath, trying common extensions.
      * Tries in order: exact path, .xml, .txt
      *
      * @param filepath the base filepath without extension
-     * @return the File object if found, null otherwise
+     * @return the path of the file if found, null otherwise
      */
-    private File findLayoutFile(String filepath) {
-        // Try exact path first (in case user included extension)
-        File file = new File(filepath);
-        if (file.exists() && file.isFile()) {
-            return file;
-        }
-
-        // Try with .xml extension
-        file = new File(filepath + ".xml");
-        if (file.exists() && file.isFile()) {
-            return file;
-        }
-
-        // Try with .txt extension
-        file = new File(filepath + ".txt");
-        if (file.exists() && file.isFile()) {
-            return file;
+    private static Path findLayoutFile(String filepath) {
+        for (String extension : EXTENSIONS) {
+            Path path = Paths.get(filepath + extension);
+            if (Files.isRegularFile(path)) {
+                return path;
+            }
         }
-
         // File not found with any extension
         return null;
     }
@@ -246,19 +309,28 @@ public class BoardLayout {
     /**
      * Returns the letter multipliers
      *
-     * @return letter multipliers
+     * @return a copy of the letter multipliers
      */
     public int[][] getLetterMultipliers() {
-        return tileLetterMultiplier;
+        return layout.getLetterMultipliers();
     }
 
     /**
      * Returns the word multipliers
      *
-     * @return word multipliers
+     * @return a copy of the word multipliers
      */
     public int[][] getWordMultipliers() {
-        return tileWordMultiplier;
+        return layout.getWordMultipliers();
+    }
+
+    /**
+     * Returns the shared layout to create boards with
+     *
+     * @return the premium squares
+     */
+    public PremiumLayout getPremiumLayout() {
+        return layout;
     }
 
 }
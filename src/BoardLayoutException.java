@@ -0,0 +1,28 @@
+/**
+ * Thrown when a board layout file is not a valid layout: it is not well formed XML, has an
+ * unknown element, or a multiplier with a missing or out of range attribute. The message says
+ * what is wrong and where, so the file can be fixed.
+ */
+public class BoardLayoutException extends Exception {
+    private static final long serialVersionUID = 1L;
+    private final String file;
+    private final int line;
+    private final int column;
+
+    /**
+     * @param file the layout file
+     * @param line line of the problem, -1 if not known
+     * @param column column of the problem, -1 if not known
+     * @param problem what is wrong
+     */
+    public BoardLayoutException(String file, int line, int column, String problem) {
+        super(file + (line > 0 ? " line " + line + ", column " + column : "") + ": " + problem);
+        this.file = file;
+        this.line = line;
+        this.column = column;
+    }
+
+    public String getFile() { return file; }
+    public int getLine() { return line; }
+    public int getColumn() { return column; }
+}
@@ -0,0 +1,103 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+/**
+ * JUnit tests for the BoardLayout class.
+ *
+ * Tests that the shipped layout files parse, that a parsed file is reused until it changes,
+ * and that a broken file is reported with where the problem is.
+ *
+ */
+class BoardLayoutTest {
+
+    private File layoutFile(List<String> lines) throws IOException {
+        File file = File.createTempFile("layout", ".xml");
+        file.deleteOnExit();
+        Files.write(file.toPath(), lines);
+        return file;
+    }
+
+    @Test
+    void testShippedLayoutIsCached() throws Exception {
+        PremiumLayout beginner = BoardLayout.compile("../Custom Board Layout Files/beginner-scrabble-board");
+        assertEquals(15, beginner.getSize());
+        assertNotSame(PremiumLayout.STANDARD, beginner);
+        assertSame(beginner, BoardLayout.compile("../Custom Board Layout Files/beginner-scrabble-board"));
+
+        BoardLayout layout = new BoardLayout();
+        layout.loadCustomLayout("../Custom Board Layout Files/beginner-scrabble-board");
+        assertSame(beginner, layout.getPremiumLayout());
+    }
+
+    @Test
+    void testEditedFileIsParsedAgain() throws Exception {
+        File file = layoutFile(List.of("<board>", "  <multiplier type=\"word\" x=\"0\" y=\"0\" value=\"3\"/>", "</board>"));
+        PremiumLayout first = BoardLayout.compile(file.getPath());
+        assertEquals(3, first.wordMultiplier(0, 0));
+        assertEquals(1, first.wordMultiplier(7, 7));
+
+        Files.write(file.toPath(), List.of("<board>", "  <multiplier type=\"letter\" x=\"7\" y=\"7\" value=\"4\"/>", "</board>"));
+        Files.setLastModifiedTime(file.toPath(), FileTime.fromMillis(file.lastModified() + 5000));
+        PremiumLayout second = BoardLayout.compile(file.getPath());
+        assertEquals(1, second.wordMultiplier(0, 0));
+        assertEquals(4, second.letterMultiplier(7, 7));
+    }
+
+    @Test
+    void testCrossShapedLayout() throws Exception {
+        PremiumLayout cross = BoardLayout.compile("../Custom Board Layout Files/cross-scrabble-board");
+        assertTrue(cross.hasBlockedSquares());
+        assertTrue(cross.isBlocked(0, 0));
+        assertTrue(cross.isBlocked(3, 14));
+        assertFalse(cross.isBlocked(4, 0));
+        assertFalse(cross.isBlocked(7, 7));
+        assertTrue(cross.isAnyBlocked(3, 0, 15, true));
+        assertFalse(cross.isAnyBlocked(3, 4, 7, true));
+        assertTrue(cross.isAnyBlocked(0, 3, 5, false));
+        assertFalse(cross.isAnyBlocked(0, 4, 15, false));
+        assertEquals(3, cross.wordMultiplier(0, 7));
+        assertFalse(PremiumLayout.STANDARD.hasBlockedSquares());
+
+        File centre = layoutFile(List.of("<board><blocked x=\"6\" y=\"6\" rows=\"3\" cols=\"3\"/></board>"));
+        assertThrows(BoardLayoutException.class, () -> BoardLayout.compile(centre.getPath()));
+    }
+
+    @Test
+    void testBoardSizeFromFile() throws Exception {
+        File file = layoutFile(List.of("<board size=\"21\">", "  <multiplier type=\"word\" x=\"20\" y=\"20\" value=\"4\"/>", "</board>"));
+        PremiumLayout layout = BoardLayout.compile(file.getPath());
+        assertEquals(21, layout.getSize());
+        assertEquals(10, layout.getCenter());
+        assertEquals(4, layout.wordMultiplier(20, 20));
+
+        File even = layoutFile(List.of("<board size=\"16\"/>"));
+        assertThrows(BoardLayoutException.class, () -> BoardLayout.compile(even.getPath()));
+    }
+
+    @Test
+    void testInvalidFilesReportWhere() throws Exception {
+        File outside = layoutFile(List.of("<board>", "", "  <multiplier type=\"letter\" x=\"15\" y=\"0\" value=\"2\"/>", "</board>"));
+        BoardLayoutException e = assertThrows(BoardLayoutException.class, () -> BoardLayout.compile(outside.getPath()));
+        assertEquals(3, e.getLine());
+        assertTrue(e.getMessage().contains("x=15"));
+
+        File badType = layoutFile(List.of("<board><multiplier type=\"row\" x=\"1\" y=\"1\" value=\"2\"/></board>"));
+        assertThrows(BoardLayoutException.class, () -> BoardLayout.compile(badType.getPath()));
+
+        File broken = layoutFile(List.of("<board>", "<multiplier type=\"word\" x=\"1\"", "</board>"));
+        e = assertThrows(BoardLayoutException.class, () -> BoardLayout.compile(broken.getPath()));
+        assertTrue(e.getLine() > 0);
+
+        assertThrows(java.io.FileNotFoundException.class, () -> BoardLayout.compile(outside.getPath() + "-missing"));
+
+        //a bad file keeps the layout that was there
+        BoardLayout layout = new BoardLayout();
+        layout.loadCustomLayout(outside.getPath());
+        assertSame(PremiumLayout.STANDARD, layout.getPremiumLayout());
+    }
+}
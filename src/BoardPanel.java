@@ -26,6 +26,8 @@ public class BoardPanel extends JPanel{
 
 	private Color[][] originalColors;
 
+	private int size; // rows and columns of the board, 15 or 21 for Super Scrabble
+
 	/**
 	 * Constructor that creates a BoardPanel with the 
 	 * related controller.
@@ -36,14 +38,15 @@ public class BoardPanel extends JPanel{
 		controller = scrabbleController;
 
 		Board board = model.getBoard();
-		setLayout(new GridLayout(Board.SIZE,Board.SIZE));
+		size = board.getSize();
+		setLayout(new GridLayout(size,size));
 
 		tileLetterMultiplier = board.getTileLetterMultiplier();
 		tileWordMultiplier = board.getTileWordMultiplier();
 
-		tileButtonGrid = new JButton[Board.SIZE][Board.SIZE];
-		for(int i = 0; i < Board.SIZE; i++) {
-			for(int j = 0; j < Board.SIZE; j++) {
+		tileButtonGrid = new JButton[size][size];
+		for(int i = 0; i < size; i++) {
+			for(int j = 0; j < size; j++) {
 				tileButtonGrid[i][j] = new JButton(" ");
 				tileButtonGrid[i][j].setActionCommand(i+","+j);
 				tileButtonGrid[i][j].addActionListener(controller);
@@ -56,16 +59,25 @@ public class BoardPanel extends JPanel{
 					tileButtonGrid[i][j].setBackground(Color.PINK);
 				} else if(tileWordMultiplier[i][j] == 3){
 					tileButtonGrid[i][j].setBackground(Color.RED);
+				} else if (tileLetterMultiplier[i][j] >= 4){
+					tileButtonGrid[i][j].setBackground(Color.GREEN);
+				} else if (tileWordMultiplier[i][j] >= 4){
+					tileButtonGrid[i][j].setBackground(Color.ORANGE);
+				}
+				// Blocked squares are not part of the board
+				if (board.getLayout().isBlocked(i, j)) {
+					tileButtonGrid[i][j].setBackground(Color.DARK_GRAY);
+					tileButtonGrid[i][j].setEnabled(false);
 				}
 				add(tileButtonGrid[i][j]);
 			}
 		}
 
-		originalColors = new Color[Board.SIZE][Board.SIZE];
+		originalColors = new Color[size][size];
 
-		for (int r = 0; r < Board.SIZE; r++) 
+		for (int r = 0; r < size; r++) 
 		{
-			for (int c = 0; c < Board.SIZE; c++) 
+			for (int c = 0; c < size; c++) 
 			{
 				originalColors[r][c] = tileButtonGrid[r][c].getBackground();
 			}
@@ -93,9 +105,9 @@ public class BoardPanel extends JPanel{
 		JButton[][] grid = this.getTileButtonGrid();
 
 
-		for (int r = 0; r < Board.SIZE; r++) 
+		for (int r = 0; r < size; r++) 
 		{
-			for (int c = 0; c < Board.SIZE; c++) 
+			for (int c = 0; c < size; c++) 
 			{
 				char letter = board.getLetterAt(r, c);
 
@@ -177,8 +189,8 @@ public class BoardPanel extends JPanel{
 	 * disabling all the buttons.
 	 */
 	public void disableBoard() {
-		for(int i = 0; i < Board.SIZE; i++) {
-			for(int j = 0; j < Board.SIZE; j++) {
+		for(int i = 0; i < size; i++) {
+			for(int j = 0; j < size; j++) {
 				tileButtonGrid[i][j].setEnabled(false);
 			}
 		}
@@ -197,11 +209,11 @@ public class BoardPanel extends JPanel{
 	/**
 	 * Return the board size
 	 * 
-	 * @return constant board size
+	 * @return board size
 	 */
 	public int getBoardSize()
 	{
-		return Board.SIZE;
+		return size;
 	}
 
 	/**
@@ -227,8 +239,8 @@ public class BoardPanel extends JPanel{
 	 * Clears the background colors and borders of all the buttons and restores them to their original state.
 	 */
 	public void clearButtonColors() {
-		for (int i = 0; i < Board.SIZE; i++) {
-			for (int j = 0; j < Board.SIZE; j++) {
+		for (int i = 0; i < size; i++) {
+			for (int j = 0; j < size; j++) {
 				tileButtonGrid[i][j].setBackground(originalColors[i][j]);
 
 				tileButtonGrid[i][j].setOpaque(false);
@@ -0,0 +1,148 @@
+import java.util.Arrays;
+
+/**
+ * BoardSnapshot is a version of the letters on a board that never changes, for anything that
+ * needs a stable view while the game goes on (the AI, saving, spectators, undo). Any number of
+ * threads can read old snapshots without locks, since nothing in one is written after it is made.
+ *
+ * Snapshots share their rows: a new version copies only the rows a move touched and points to
+ * the same row arrays as the one before it for the rest, so making one costs the touched rows
+ * plus the array of row references, not the whole board. The blank bits are one long per row
+ * and are copied with it.
+ *
+ * Board.snapshot() gives the snapshot of a board, with the rows changed since the last one.
+ */
+public final class BoardSnapshot {
+    private final PremiumLayout layout;
+    private final char[][] rows;        //row arrays, shared with other snapshots and never written
+    private final long[] blankRows;     //bit col of blankRows[row] is set if the tile there is a blank
+    private final long version;
+
+    private BoardSnapshot(PremiumLayout layout, char[][] rows, long[] blankRows, long version) {
+        this.layout = layout;
+        this.rows = rows;
+        this.blankRows = blankRows;
+        this.version = version;
+    }
+
+    /**
+     * An empty board
+     *
+     * @param layout the premium squares, which also give the size
+     * @return version 0, every square ' '
+     */
+    public static BoardSnapshot empty(PremiumLayout layout) {
+        int size = layout.getSize();
+        char[] emptyRow = new char[size];
+        Arrays.fill(emptyRow, ' ');
+        char[][] rows = new char[size][];
+        for (int row = 0; row < size; row++) {
+            rows[row] = emptyRow;   //one array is enough since it is never written
+        }
+        return new BoardSnapshot(layout, rows, new long[size], 0);
+    }
+
+    /**
+     * The next version from the rows of a live board, copying only the changed ones
+     *
+     * @param previous the last snapshot of the board, null for none
+     * @param letters the board's letters
+     * @param blanks the board's blank bits
+     * @param changedRows bit row set for each row changed since previous
+     * @param layout the board's layout
+     * @return the new version, or previous if nothing changed
+     */
+    static BoardSnapshot next(BoardSnapshot previous, char[][] letters, long[] blanks, long changedRows, PremiumLayout layout) {
+        if (previous == null || previous.rows.length != letters.length) {
+            previous = empty(layout);
+            changedRows = -1L;
+        }
+        if (changedRows == 0 && previous.layout == layout) return previous;
+        char[][] rows = previous.rows.clone();
+        for (int row = 0; row < rows.length; row++) {
+            if ((changedRows & (1L << row)) != 0) rows[row] = letters[row].clone();
+        }
+        return new BoardSnapshot(layout, rows, blanks.clone(), previous.version + 1);
+    }
+
+    /**
+     * The next version with some squares set, e.g. the tiles of a move. Only the rows of those
+     * squares are copied.
+     *
+     * @param rowsPlaced row of each square
+     * @param colsPlaced column of each square
+     * @param letters letter for each square, ' ' to clear it
+     * @param blanks true for a blank tile, null for none
+     * @return the new version
+     * @throws IllegalArgumentException if a letter goes on a blocked square
+     */
+    public BoardSnapshot with(int[] rowsPlaced, int[] colsPlaced, char[] letters, boolean[] blanks) {
+        char[][] newRows = rows.clone();
+        long[] newBlanks = blankRows.clone();
+        boolean[] copied = new boolean[rows.length];
+        for (int i = 0; i < rowsPlaced.length; i++) {
+            int row = rowsPlaced[i];
+            int col = colsPlaced[i];
+            if (letters[i] != ' ' && layout.isBlocked(row, col)) {
+                throw new IllegalArgumentException("Square is blocked: (" + row + ", " + col + ")");
+            }
+            if (!copied[row]) {
+                newRows[row] = rows[row].clone();
+                copied[row] = true;
+            }
+            newRows[row][col] = letters[i];
+            newBlanks[row] &= ~(1L << col);
+            if (blanks != null && blanks[i] && letters[i] != ' ') newBlanks[row] |= 1L << col;
+        }
+        return new BoardSnapshot(layout, newRows, newBlanks, version + 1);
+    }
+
+    /**
+     * Makes a live board with the letters of this version
+     *
+     * @param dictionary the dictionary of the board
+     * @return a new board, changing it does not change the snapshot
+     */
+    public Board toBoard(WordDictionary dictionary) {
+        Board board = new Board(dictionary, layout);
+        for (int row = 0; row < rows.length; row++) {
+            for (int col = 0; col < rows.length; col++) {
+                if (rows[row][col] != ' ') board.setLetterAt(row, col, rows[row][col], isBlankAt(row, col));
+            }
+        }
+        return board;
+    }
+
+    public char getLetterAt(int row, int col) {
+        return rows[row][col];
+    }
+
+    public boolean isBlankAt(int row, int col) {
+        return (blankRows[row] & (1L << col)) != 0;
+    }
+
+    /**
+     * A copy of one row of letters
+     *
+     * @param row the row
+     * @return its letters, ' ' for empty squares
+     */
+    public char[] getRow(int row) {
+        return rows[row].clone();
+    }
+
+    /**
+     * Checks if this version and another share the array of a row, i.e. neither copied it
+     */
+    boolean sharesRow(BoardSnapshot other, int row) {
+        return rows[row] == other.rows[row];
+    }
+
+    public int getSize() { return rows.length; }
+    public PremiumLayout getLayout() { return layout; }
+
+    /**
+     * Counts the versions since the empty board the snapshot started from
+     */
+    public long getVersion() { return version; }
+}
@@ -13,6 +13,7 @@ import java.util.*;
  * - Extracting words horizontally and vertically
  * - Checking adjacency of placed tiles
  * - Calculating turn score
+ * - Snapshots that keep their letters while the board changes
  *
  *
  */
@@ -71,4 +72,146 @@ class BoardTest {
         Tile[] newTiles = {Tile.getTile('S')};
         assertTrue(board.checkAdjacency(newRows, newCols));
     }
+
+    @Test
+    void testLastWordIds() {
+        int[] rows = {7, 7, 7, 7};
+        int[] cols = {7, 8, 9, 10};
+        Tile[] tiles = {Tile.getTile('T'), Tile.getTile('E'),
+                Tile.getTile('S'), Tile.getTile('T')};
+        board.placeTilesAndValidate(rows, cols, tiles);
+
+        int[] ids = board.getLastWordIds();
+        assertEquals(1, ids.length);
+        assertEquals("TEST", board.getWordDictionary().wordOf(ids[0]));
+    }
+
+    @Test
+    void testLayoutsAreShared() {
+        Board other = new Board(board.getWordDictionary());
+        assertSame(board.getLayout(), other.getLayout());
+        assertSame(PremiumLayout.STANDARD, PremiumLayout.of(board.getTileLetterMultiplier(), board.getTileWordMultiplier()));
+        assertSame(PremiumLayout.STANDARD, new BoardLayout().getPremiumLayout());
+
+        int[][] letters = board.getTileLetterMultiplier();
+        letters[7][7] = 3;
+        PremiumLayout custom = PremiumLayout.of(letters, board.getTileWordMultiplier());
+        assertNotSame(PremiumLayout.STANDARD, custom);
+        assertEquals(1, board.getLayout().letterMultiplier(7, 7));   //changing the copy left the shared layout alone
+        assertEquals(3, custom.letterMultiplier(7, 7));
+        assertEquals(2, custom.wordMultiplier(7, 7));
+    }
+
+    @Test
+    void testSuperScrabbleBoard() {
+        Board big = new Board(board.getWordDictionary(), PremiumLayout.SUPER);
+        assertEquals(21, big.getSize());
+        assertEquals(10, PremiumLayout.SUPER.getCenter());
+        assertEquals(4, PremiumLayout.SUPER.wordMultiplier(20, 0));
+        assertEquals(PremiumLayout.SUPER.letterMultiplier(2, 5), PremiumLayout.SUPER.letterMultiplier(18, 15));
+        assertEquals(200, new TileBag(Alphabet.SUPER_ENGLISH).size());
+
+        //the first word has to cover (10, 10), not (7, 7)
+        Tile[] tiles = {Tile.getTile('C'), Tile.getTile('A'), Tile.getTile('T')};
+        assertEquals(0, big.placeTilesAndValidate(new int[] {7, 7, 7}, new int[] {6, 7, 8}, tiles));
+        assertTrue(big.placeTilesAndValidate(new int[] {10, 10, 10}, new int[] {9, 10, 11}, tiles) > 0);
+        assertEquals('T', big.getLetterAt(10, 11));
+        assertEquals(' ', big.getLetterAt(20, 20));
+    }
+
+    @Test
+    void testBlockedSquares() {
+        boolean[][] blocked = new boolean[15][15];
+        blocked[7][10] = true;
+        Board shaped = new Board(board.getWordDictionary(),
+                PremiumLayout.of(board.getTileLetterMultiplier(), board.getTileWordMultiplier(), blocked));
+        Tile[] tiles = {Tile.getTile('T'), Tile.getTile('E'), Tile.getTile('S'), Tile.getTile('T')};
+
+        assertEquals(0, shaped.placeTilesAndValidate(new int[] {7, 7, 7, 7}, new int[] {7, 8, 9, 10}, tiles));
+        assertEquals(' ', shaped.getLetterAt(7, 9));
+        assertTrue(shaped.placeTilesAndValidate(new int[] {7, 7, 7, 7}, new int[] {4, 5, 6, 7}, tiles) > 0);
+        shaped.setLetterAt(7, 10, 'S');
+        assertEquals(' ', shaped.getLetterAt(7, 10));
+    }
+
+    @Test
+    void testBlankScoresNothingAndMovesAreRecorded() {
+        Tile blank = Tile.createBlank();
+        blank.setAssignedLetter('E');
+        Tile[] withBlank = {Tile.getTile('T'), blank, Tile.getTile('S'), Tile.getTile('T')};
+        int[] rows = {7, 7, 7, 7};
+        int[] cols = {7, 8, 9, 10};
+
+        //the same word with a real E scores more, the blank E adds nothing
+        Board other = new Board(board.getWordDictionary());
+        int withE = other.placeTilesAndValidate(rows, cols,
+                new Tile[] {Tile.getTile('T'), Tile.getTile('E'), Tile.getTile('S'), Tile.getTile('T')});
+        int score = board.placeTilesAndValidate(rows, cols, withBlank);
+        assertTrue(score > 0 && score < withE);
+        assertEquals('E', board.getLetterAt(7, 8));
+        assertTrue(board.isBlankAt(7, 8));
+        assertFalse(board.isBlankAt(7, 7));
+        assertEquals(Board.NO_OWNER, board.getOwnerAt(7, 7));
+
+        board.recordMove(rows, cols, 1, 4);
+        assertEquals(1, board.getOwnerAt(7, 10));
+        assertEquals(4, board.getTurnPlacedAt(7, 8));
+        assertEquals(Board.NO_TURN, board.getTurnPlacedAt(8, 8));
+
+        board.removeTiles(rows, cols);
+        assertFalse(board.isBlankAt(7, 8));
+        assertEquals(Board.NO_OWNER, board.getOwnerAt(7, 10));
+        assertEquals(Board.NO_TURN, board.getTurnPlacedAt(7, 8));
+    }
+
+    @Test
+    void testRunIndexAndMainWordScoredOnce() {
+        Tile[] tiles = {Tile.getTile('T'), Tile.getTile('E'), Tile.getTile('S'), Tile.getTile('T')};
+        //T + E + S + T = 4, doubled by the centre square, counted once for the whole word
+        assertEquals(8, board.placeTilesAndValidate(new int[] {7, 7, 7, 7}, new int[] {7, 8, 9, 10}, tiles));
+
+        assertEquals(7, board.getRunStart(7, 9, true));
+        assertEquals(11, board.getRunEnd(7, 9, true));
+        assertEquals(7, board.getRunStart(7, 9, false));
+        assertEquals(8, board.getRunEnd(7, 9, false));
+        assertEquals(11, board.getRunEnd(7, 11, true));   //empty square
+
+        board.removeTiles(new int[] {7, 7}, new int[] {9, 10});
+        assertEquals(9, board.getRunEnd(7, 7, true));
+        board.setLetterAt(7, 9, 'X');
+        assertEquals(10, board.getRunEnd(7, 7, true));
+    }
+
+    @Test
+    void testSnapshotsShareUnchangedRows() {
+        BoardSnapshot empty = board.snapshot();
+        assertSame(empty, board.snapshot());   //nothing changed
+
+        Tile[] tiles = {Tile.getTile('T'), Tile.getTile('E'), Tile.createBlank(), Tile.getTile('T')};
+        tiles[2].setAssignedLetter('S');
+        board.placeTilesAndValidate(new int[] {7, 7, 7, 7}, new int[] {7, 8, 9, 10}, tiles);
+        BoardSnapshot first = board.snapshot();
+        assertEquals('S', first.getLetterAt(7, 9));
+        assertTrue(first.isBlankAt(7, 9));
+        assertEquals(' ', empty.getLetterAt(7, 9));
+        assertFalse(first.sharesRow(empty, 7));
+        assertTrue(first.sharesRow(empty, 6));
+
+        board.removeTiles(new int[] {7, 7}, new int[] {9, 10});
+        board.setLetterAt(8, 8, 'A');
+        BoardSnapshot second = board.snapshot();
+        assertEquals('S', first.getLetterAt(7, 9));   //the old version is kept
+        assertEquals(' ', second.getLetterAt(7, 9));
+        assertEquals('A', second.getLetterAt(8, 8));
+        assertTrue(second.sharesRow(first, 0));
+        assertTrue(second.getVersion() > first.getVersion());
+
+        BoardSnapshot played = second.with(new int[] {8}, new int[] {9}, new char[] {'T'}, null);
+        assertTrue(played.sharesRow(second, 7));
+        assertFalse(played.sharesRow(second, 8));
+        assertEquals(' ', second.getLetterAt(8, 9));
+        Board copy = played.toBoard(board.getWordDictionary());
+        assertEquals('T', copy.getLetterAt(8, 9));
+        assertEquals('E', copy.getLetterAt(7, 8));
+    }
 }
@@ -0,0 +1,127 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * DictionaryBenchmark compares the ways WordDictionary can store its words: heap footprint after
+ * loading and the average time of an isValidWord lookup. It also times loading the word list.
+ * Run it from the src folder:
+ *
+ *      java DictionaryBenchmark [word list file]
+ *
+ * Footprints are measured as the change in used heap around the load, so they are rough. The
+ * off heap dictionary keeps its trie outside the heap, so only its small objects show up. The
+ * LOUDS row also prints the exact size of its succinct trie and the bits per node of its shape.
+ */
+public class DictionaryBenchmark {
+    private static final int LOOKUPS = 2_000_000;
+
+    public static void main(String[] args) {
+        String filename = args.length > 0 ? args[0] : "ValidWords.txt";
+        List<String> queries = buildQueries(new WordDictionary(filename).getWords());
+
+        System.out.println("Words file: " + filename + ", lookups per run: " + LOOKUPS);
+        run("HashSet", () -> new WordDictionary(filename, false), 0, queries);
+        run("Front coded", () -> new WordDictionary(filename, true), 0, queries);
+        run("Off heap", () -> offHeap(filename), 0, queries);
+        run("LOUDS", () -> succinct(filename), 0, queries);
+        run("Bloom+Hash", () -> new WordDictionary(filename, false), 0.01, queries);
+        run("Bloom+Front", () -> new WordDictionary(filename, true), 0.01, queries);
+        loadTimes(filename);
+    }
+
+    /**
+     * Times a few loads of the word list. The first ones include JIT warm up.
+     */
+    private static void loadTimes(String filename) {
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            WordDictionary dictionary = new WordDictionary(filename);
+            long elapsed = System.nanoTime() - start;
+            System.out.println("Load " + (i + 1) + ": " + elapsed / 1_000_000 + " ms, " + dictionary.getLoadReport());
+        }
+    }
+
+    /**
+     * Loads the dictionary in one storage mode and prints its footprint and lookup time. A false
+     * positive rate above 0 puts a Bloom filter in front of the lookups.
+     */
+    private static void run(String name, Supplier<WordDictionary> loader, double falsePositiveRate, List<String> queries) {
+        long before = usedHeap();
+        WordDictionary dictionary = loader.get();
+        if (falsePositiveRate > 0) {
+            dictionary.enableFastReject(falsePositiveRate);
+        }
+        long footprint = usedHeap() - before;
+
+        //warm up so the JIT has compiled the lookup before timing it
+        int found = lookups(dictionary, queries);
+        long start = System.nanoTime();
+        found += lookups(dictionary, queries);
+        long elapsed = System.nanoTime() - start;
+
+        System.out.printf("%-12s words=%d heap=%,d KB lookup=%.1f ns (found %d)%n", name,
+                dictionary.getWords().size(), footprint / 1024, (double) elapsed / LOOKUPS, found);
+        if (dictionary.getTrie() instanceof LoudsWordTrie) {
+            LoudsWordTrie louds = (LoudsWordTrie) dictionary.getTrie();
+            System.out.printf("%-12s trie=%,d KB nodes=%d shape=%.2f bits/node total=%.1f bits/node%n", "",
+                    louds.getBytes() / 1024, louds.getNodeCount(), louds.getShapeBitsPerNode(),
+                    louds.getBytes() * 8.0 / louds.getNodeCount());
+        }
+        if (dictionary.getFastReject() != null) {
+            System.out.printf("%-12s filter=%,d KB checks=%d rejects=%d false positives=%d%n", "",
+                    dictionary.getFastReject().getBytes() / 1024, dictionary.getFilterChecks(),
+                    dictionary.getFilterRejects(), dictionary.getFilterFalsePositives());
+        }
+    }
+
+    private static WordDictionary offHeap(String filename) {
+        try {
+            return WordDictionary.offHeap(filename);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static WordDictionary succinct(String filename) {
+        try {
+            return WordDictionary.succinct(filename);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static int lookups(WordDictionary dictionary, List<String> queries) {
+        int found = 0;
+        for (int i = 0; i < LOOKUPS; i++) {
+            if (dictionary.isValidWord(queries.get(i % queries.size()))) found++;
+        }
+        return found;
+    }
+
+    /**
+     * Half real words, half the same words with one letter changed (mostly not words)
+     */
+    private static List<String> buildQueries(Set<String> words) {
+        Random random = new Random(42);
+        List<String> queries = new ArrayList<>();
+        for (String word : words) {
+            queries.add(word);
+            if (word.isEmpty()) continue;
+            char[] changed = word.toCharArray();
+            changed[random.nextInt(changed.length)] = (char) ('A' + random.nextInt(26));
+            queries.add(new String(changed));
+        }
+        Collections.shuffle(queries, random);
+        return queries;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,291 @@
+import java.io.ByteArrayOutputStream;
+import java.util.*;
+
+/**
+ * FrontCodedWordSet is a read only, compact set of words. The words are kept sorted in one byte
+ * array, split into blocks of BLOCK_SIZE words. The first word of a block is stored in full and
+ * every other word only stores how many letters it shares with the word before it plus the
+ * letters that differ. An index of block start offsets lets contains() binary search on the first
+ * word of each block and then read through one block.
+ *
+ * Each letter takes one byte, so words may only use characters up to 0xFF and be at most 255
+ * letters long.
+ */
+public class FrontCodedWordSet extends AbstractSet<String> {
+    public static final int BLOCK_SIZE = 16;
+
+    private final byte[] data;          //the encoded blocks, one after the other
+    private final int[] blockOffsets;   //where each block starts in data
+    private final int size;
+    private final int longestWord;
+
+    /**
+     * Builds the set from a collection of words. Duplicates are removed.
+     *
+     * @param words the words to store
+     * @throws IllegalArgumentException if a word is longer than 255 letters or uses a character above 0xFF
+     */
+    public FrontCodedWordSet(Collection<String> words) {
+        String[] sorted = words.toArray(new String[0]);
+        Arrays.sort(sorted);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        List<Integer> offsets = new ArrayList<>();
+        String previous = null;
+        int count = 0;
+        int longest = 0;
+
+        for (String word : sorted) {
+            if (word.equals(previous)) continue;
+            checkWord(word);
+
+            if (count % BLOCK_SIZE == 0) {
+                offsets.add(out.size());
+                out.write(word.length());
+                writeLetters(out, word, 0);
+            } else {
+                int shared = sharedPrefix(previous, word);
+                out.write(shared);
+                out.write(word.length() - shared);
+                writeLetters(out, word, shared);
+            }
+            longest = Math.max(longest, word.length());
+            previous = word;
+            count++;
+        }
+
+        data = out.toByteArray();
+        blockOffsets = new int[offsets.size()];
+        for (int i = 0; i < blockOffsets.length; i++) {
+            blockOffsets[i] = offsets.get(i);
+        }
+        size = count;
+        longestWord = longest;
+    }
+
+    /**
+     * Checks if a word is in the set
+     *
+     * @param o the word
+     * @return true if the word is in the set
+     */
+    @Override
+    public boolean contains(Object o) {
+        if (!(o instanceof CharSequence)) return false;
+        CharSequence word = (CharSequence) o;
+        int length = word.length();
+        if (length > longestWord) return false;
+
+        char[] letters = new char[length];
+        for (int i = 0; i < length; i++) {
+            letters[i] = word.charAt(i);
+        }
+        return contains(letters, 0, length, 1);
+    }
+
+    /**
+     * Checks if the word in a slice of a char array is in the set, without copying it out
+     *
+     * @param letters the array holding the word
+     * @param start index of the first letter
+     * @param length number of letters in the word
+     * @param stride distance between two letters of the word in the array
+     * @return true if the word is in the set
+     */
+    public boolean contains(char[] letters, int start, int length, int stride) {
+        return indexOf(letters, start, length, stride) >= 0;
+    }
+
+    /**
+     * Position of a word in sorted order, the same number the WordTrie of these words gives as
+     * its id. Works like contains(), counting the words passed in the last block.
+     *
+     * @param letters the array holding the word
+     * @param start index of the first letter
+     * @param length number of letters in the word
+     * @param stride distance between two letters of the word in the array
+     * @return the index of the word from 0 to size() - 1, or -1 if it is not in the set
+     */
+    public int indexOf(char[] letters, int start, int length, int stride) {
+        if (length > longestWord || blockOffsets.length == 0) return -1;
+
+        //find the last block whose first word is not after the word
+        int low = 0;
+        int high = blockOffsets.length - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            int offset = blockOffsets[mid];
+            int cmp = compare(offset + 1, data[offset] & 0xFF, letters, start, length, stride);
+            if (cmp == 0) return mid * BLOCK_SIZE;
+            if (cmp < 0) low = mid; else high = mid - 1;
+        }
+
+        //walk the block keeping track of how many letters the current word shares with the search word
+        int block = low;
+        int offset = blockOffsets[block];
+        int end = block + 1 < blockOffsets.length ? blockOffsets[block + 1] : data.length;
+        int wordLength = data[offset] & 0xFF;
+        int from = 0;                   //first letter of the current word stored at letterOffset
+        int letterOffset = offset + 1;
+        int matched = matchLength(letterOffset, 0, wordLength, letters, start, length, stride);
+        offset = letterOffset + wordLength;
+        int index = block * BLOCK_SIZE;   //index of the current word
+
+        while (true) {
+            if (matched == length && wordLength == length) return index;
+            if (matched >= from && matched < wordLength && (matched == length
+                    || (data[letterOffset + matched - from] & 0xFF) > letters[start + matched * stride])) {
+                return -1;   //the current word is already past the search word
+            }
+            if (offset >= end) return -1;
+
+            int shared = data[offset] & 0xFF;
+            int suffix = data[offset + 1] & 0xFF;
+            letterOffset = offset + 2;
+            offset = letterOffset + suffix;
+            from = shared;
+            wordLength = shared + suffix;
+            index++;
+
+            //sharing fewer letters than matched means this word went past the search word, sharing
+            //more means it still sorts before it exactly like the word before
+            if (shared < matched) return -1;
+            if (shared == matched) {
+                matched = matchLength(letterOffset, shared, wordLength, letters, start, length, stride);
+            }
+        }
+    }
+
+    /**
+     * The word at a position in sorted order, rebuilt from the start of its block
+     *
+     * @param index 0 to size() - 1, e.g. from indexOf()
+     * @return the word
+     * @throws IndexOutOfBoundsException if there is no word at the index
+     */
+    public String get(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("No word " + index + " in " + size);
+        char[] word = new char[longestWord];
+        int offset = blockOffsets[index / BLOCK_SIZE];
+        int length = data[offset++] & 0xFF;
+        for (int i = 0; i < length; i++) {
+            word[i] = (char) (data[offset++] & 0xFF);
+        }
+        for (int i = index / BLOCK_SIZE * BLOCK_SIZE; i < index; i++) {
+            int shared = data[offset++] & 0xFF;
+            int suffix = data[offset++] & 0xFF;
+            for (int j = 0; j < suffix; j++) {
+                word[shared + j] = (char) (data[offset++] & 0xFF);
+            }
+            length = shared + suffix;
+        }
+        return new String(word, 0, length);
+    }
+
+    /**
+     * Number of words in the set
+     *
+     * @return the number of words
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Number of bytes used by the encoded words and the block index, not counting object headers
+     *
+     * @return approximate memory footprint in bytes
+     */
+    public long getEncodedBytes() {
+        return data.length + (long) blockOffsets.length * Integer.BYTES;
+    }
+
+    /**
+     * Goes through the words in sorted order, rebuilding each word from the one before it
+     *
+     * @return an iterator over the words
+     */
+    @Override
+    public Iterator<String> iterator() {
+        return new Iterator<String>() {
+            private int offset = 0;
+            private int index = 0;
+            private final char[] word = new char[Math.max(longestWord, 1)];
+
+            @Override
+            public boolean hasNext() {
+                return index < size;
+            }
+
+            @Override
+            public String next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                int shared = 0;
+                int suffix;
+                if (index % BLOCK_SIZE == 0) {
+                    suffix = data[offset++] & 0xFF;
+                } else {
+                    shared = data[offset++] & 0xFF;
+                    suffix = data[offset++] & 0xFF;
+                }
+                for (int i = 0; i < suffix; i++) {
+                    word[shared + i] = (char) (data[offset++] & 0xFF);
+                }
+                index++;
+                return new String(word, 0, shared + suffix);
+            }
+        };
+    }
+
+    /**
+     * Compares the stored letters at an offset with the search word, like String.compareTo
+     */
+    private int compare(int offset, int wordLength, char[] letters, int start, int length, int stride) {
+        int common = Math.min(wordLength, length);
+        for (int i = 0; i < common; i++) {
+            int diff = (data[offset + i] & 0xFF) - letters[start + i * stride];
+            if (diff != 0) return diff;
+        }
+        return wordLength - length;
+    }
+
+    /**
+     * Extends a match with the search word over the stored letters of one word. The letters from
+     * position "from" to "to" start at offset.
+     *
+     * @return how many leading letters of the stored word match the search word
+     */
+    private int matchLength(int offset, int from, int to, char[] letters, int start, int length, int stride) {
+        int matched = from;
+        while (matched < to && matched < length
+                && (data[offset + matched - from] & 0xFF) == letters[start + matched * stride]) {
+            matched++;
+        }
+        return matched;
+    }
+
+    private static void checkWord(String word) {
+        if (word.length() > 255) {
+            throw new IllegalArgumentException("Word is longer than 255 letters: " + word);
+        }
+        for (int i = 0; i < word.length(); i++) {
+            if (word.charAt(i) > 0xFF) {
+                throw new IllegalArgumentException("Unsupported character in word: " + word);
+            }
+        }
+    }
+
+    private static int sharedPrefix(String a, String b) {
+        int max = Math.min(Math.min(a.length(), b.length()), 255);
+        int i = 0;
+        while (i < max && a.charAt(i) == b.charAt(i)) i++;
+        return i;
+    }
+
+    private static void writeLetters(ByteArrayOutputStream out, String word, int from) {
+        for (int i = from; i < word.length(); i++) {
+            out.write(word.charAt(i));
+        }
+    }
+}
@@ -25,7 +25,7 @@ public class Game
      * turn it is.
      */
     public Game() throws IOException {
-        this.board = new Board(new WordDictionary("ValidWords.txt"));
+        this.board = new Board(LexiconService.getDefault().pin());
         this.players = new ArrayList<>();
         this.currentPlayerIndex = 0;
         this.tileBag = new TileBag();
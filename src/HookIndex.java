@@ -0,0 +1,128 @@
+/**
+ * HookIndex holds, for every word of a dictionary, the letters that can be put in front of it or
+ * after it to make another word (its front and back hooks). CAT has the back hook S because CATS
+ * is a word, and the front hook S because SCAT is. Each set is a bit mask of letter codes (bit 0
+ * for A in English) kept in an int array indexed by word id, so the hooks of a word on the board are found with one array
+ * read instead of trying every letter through the dictionary.
+ */
+public class HookIndex {
+    private final int[] frontHooks;
+    private final int[] backHooks;
+
+    private HookIndex(int wordCount) {
+        frontHooks = new int[wordCount];
+        backHooks = new int[wordCount];
+    }
+
+    /**
+     * Builds the hook sets of every word in the selected lexicons of a trie. A hook only counts if
+     * both the word and the longer word are in the lexicons (and the subset, if there is one).
+     *
+     * @param trie the words
+     * @param lexiconMask the lexicons to use, WordTrie.ALL_LEXICONS for all of them
+     * @param subset the word ids to use, or null for all of them
+     * @return the index, indexed by the trie's word ids
+     */
+    public static HookIndex build(WordAutomaton trie, int lexiconMask, WordSubset subset) {
+        HookIndex index = new HookIndex(trie.getWordCount());
+        int[] word = new int[Math.max(trie.getLongestWord(), 1)];   //letter codes of the current path
+        index.visit(trie, lexiconMask, subset, WordTrie.ROOT, word, 0);
+        return index;
+    }
+
+    private static boolean accepts(WordAutomaton trie, int lexiconMask, WordSubset subset, int node) {
+        return trie.isTerminal(node, lexiconMask) && (subset == null || subset.contains(trie.firstWord(node)));
+    }
+
+    /**
+     * Goes through every word in sorted order. At a word, the children that end a word are its back
+     * hooks; and if the word without its first letter is also a word, that first letter is a front
+     * hook of the shorter word.
+     */
+    private void visit(WordAutomaton trie, int lexiconMask, WordSubset subset, int node, int[] word, int depth) {
+        if (accepts(trie, lexiconMask, subset, node)) {
+            int id = trie.wordId(node);
+            int hooks = 0;
+            for (int mask = trie.childMask(node); mask != 0; mask &= mask - 1) {
+                int letter = Integer.numberOfTrailingZeros(mask);
+                if (accepts(trie, lexiconMask, subset, trie.child(node, letter))) {
+                    hooks |= 1 << letter;
+                }
+            }
+            backHooks[id] = hooks;
+
+            if (depth > 1) {
+                int suffix = WordTrie.ROOT;
+                for (int i = 1; i < depth && suffix != WordTrie.NONE; i++) {
+                    suffix = trie.child(suffix, word[i]);
+                }
+                if (suffix != WordTrie.NONE && accepts(trie, lexiconMask, subset, suffix)) {
+                    frontHooks[trie.wordId(suffix)] |= 1 << word[0];
+                }
+            }
+        }
+
+        for (int mask = trie.childMask(node); mask != 0; mask &= mask - 1) {
+            int letter = Integer.numberOfTrailingZeros(mask);
+            int child = trie.child(node, letter);
+            if (trie.hasLexicon(child, lexiconMask)) {
+                word[depth] = letter;
+                visit(trie, lexiconMask, subset, child, word, depth + 1);
+            }
+        }
+    }
+
+    /**
+     * Letters that make a word when put in front of the word
+     *
+     * @param wordId the word id
+     * @return bit mask, bit i set for letter code i
+     */
+    public int getFrontHooks(int wordId) {
+        return frontHooks[wordId];
+    }
+
+    /**
+     * Letters that make a word when added after the word
+     *
+     * @param wordId the word id
+     * @return bit mask, bit i set for letter code i
+     */
+    public int getBackHooks(int wordId) {
+        return backHooks[wordId];
+    }
+
+    /**
+     * Number of bytes used by the two tables
+     *
+     * @return footprint in bytes, not counting object headers
+     */
+    public long getBytes() {
+        return 2L * frontHooks.length * Integer.BYTES;
+    }
+
+    /**
+     * Turns a hook mask of an English dictionary into its letters, for hints
+     *
+     * @param hooks bit mask of letter codes
+     * @return the letters in alphabetical order
+     */
+    public static String letters(int hooks) {
+        return letters(hooks, Alphabet.ENGLISH);
+    }
+
+    /**
+     * Turns a hook mask into the symbols of its letters
+     *
+     * @param hooks bit mask of letter codes
+     * @param alphabet the alphabet of the dictionary
+     * @return the symbols in code order
+     */
+    public static String letters(int hooks, Alphabet alphabet) {
+        StringBuilder letters = new StringBuilder();
+        for (int mask = hooks; mask != 0; mask &= mask - 1) {
+            letters.append(alphabet.symbol(Integer.numberOfTrailingZeros(mask)));
+        }
+        return letters.toString();
+    }
+}
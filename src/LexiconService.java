@@ -0,0 +1,178 @@
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * LexiconService hands out the current version of the word list to new games and can swap in a
+ * new version while games are running. A new version is loaded in the background and published
+ * by replacing one reference, so nothing waits on a lock: a game pins the dictionary it was given
+ * (Board keeps the reference) and keeps using it until it ends, while games started after the
+ * swap get the new one. Old versions are dropped by the garbage collector once no game uses them.
+ *
+ * Reloads run one at a time on their own thread, so a later reload always reads the file later,
+ * and a read is never published over one of a newer file.
+ */
+public class LexiconService {
+    public static final String DEFAULT_FILE = "ValidWords.txt";
+
+    private static LexiconService defaultService;
+
+    private final String filename;
+    private final boolean compact;
+    private final AtomicReference<Version> current;
+    private final ExecutorService loader = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "lexicon-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private ScheduledExecutorService watcher;
+    private long seenModified;   //file stamp at the watcher's last check, a reload waits until it stops changing
+    private long seenLength = -1;
+
+    /**
+     * One published version of the word list
+     */
+    public static class Version {
+        private final int number;
+        private final WordDictionary dictionary;
+        private final long fileModified;   //last modified time of the file when it was read
+
+        Version(int number, WordDictionary dictionary, long fileModified) {
+            this.number = number;
+            this.dictionary = dictionary;
+            this.fileModified = fileModified;
+        }
+
+        public int getNumber() { return number; }
+        public WordDictionary getDictionary() { return dictionary; }
+        public long getFileModified() { return fileModified; }
+    }
+
+    /**
+     * Creates the service and loads the first version of the word list right away. Like the
+     * WordDictionary constructor, a file that cannot be read gives an empty dictionary.
+     *
+     * @param filename the word list, one word per line
+     * @param compact true to store the words in a FrontCodedWordSet
+     */
+    public LexiconService(String filename, boolean compact) {
+        this.filename = filename;
+        this.compact = compact;
+        long modified = new File(filename).lastModified();
+        current = new AtomicReference<>(new Version(1, new WordDictionary(filename, compact), modified));
+    }
+
+    /**
+     * Shared service for ValidWords.txt, created on first use
+     *
+     * @return the default service
+     */
+    public static synchronized LexiconService getDefault() {
+        if (defaultService == null) {
+            defaultService = new LexiconService(DEFAULT_FILE, false);
+        }
+        return defaultService;
+    }
+
+    /**
+     * The dictionary a new game should use. The caller keeps the returned reference for the whole
+     * game; a later reload does not change it.
+     *
+     * @return the dictionary of the current version
+     */
+    public WordDictionary pin() {
+        return current.get().getDictionary();
+    }
+
+    /**
+     * Getter of the current version
+     * @return the latest published version
+     */
+    public Version getCurrent() {
+        return current.get();
+    }
+
+    /**
+     * Loads the word list file again on the loader thread and publishes it when it is done.
+     * If the file cannot be read the current version stays in place, and so does a version read
+     * from a newer file than this read.
+     *
+     * @return completes with the new version (the current one if it is newer), or exceptionally
+     *         with the IOException
+     */
+    public CompletableFuture<Version> reload() {
+        return CompletableFuture.supplyAsync(() -> {
+            long modified = new File(filename).lastModified();
+            try {
+                return publish(WordDictionary.load(filename, compact), modified);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, loader);
+    }
+
+    /**
+     * Publishes a dictionary built somewhere else as the next version, for example one made with
+     * WordDictionary.merge.
+     *
+     * @param dictionary the new dictionary
+     * @return the new version
+     */
+    public Version publish(WordDictionary dictionary) {
+        return publish(dictionary, current.get().getFileModified());
+    }
+
+    private Version publish(WordDictionary dictionary, long modified) {
+        //version numbers are given out at publish time, and a read of an older file never replaces a newer one
+        return current.updateAndGet(old -> modified < old.getFileModified() ? old
+                : new Version(old.getNumber() + 1, dictionary, modified));
+    }
+
+    /**
+     * Checks the file every period and reloads it when it is newer than the current version. The
+     * modified time and size must be the same at two checks in a row, so a file that is still
+     * being written is not loaded half way.
+     *
+     * @param periodMillis time between two checks
+     */
+    public synchronized void startWatching(long periodMillis) {
+        if (watcher != null) return;
+        watcher = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "lexicon-watcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        watcher.scheduleWithFixedDelay(() -> {
+            File file = new File(filename);
+            long modified = file.lastModified();
+            long length = file.length();
+            boolean settled = modified == seenModified && length == seenLength;
+            seenModified = modified;
+            seenLength = length;
+            if (modified > current.get().getFileModified() && settled) {
+                try {
+                    reload().join();
+                    System.out.println("Reloaded word list " + filename + ", version " + current.get().getNumber());
+                } catch (CompletionException e) {
+                    System.out.println("Could not reload word list " + filename + ": " + e.getCause().getMessage());
+                }
+            }
+        }, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops checking the file for changes
+     */
+    public synchronized void stopWatching() {
+        if (watcher != null) {
+            watcher.shutdownNow();
+            watcher = null;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.CompletionException;
+
+/**
+ * JUnit tests for the LexiconService class.
+ *
+ * Tests that reloading the word list publishes a new version without changing the dictionary
+ * a running game already has, and that reloads are published in the order they were asked for.
+ *
+ */
+class LexiconServiceTest {
+
+    @Test
+    void testReloadKeepsPinnedVersion() throws IOException {
+        File file = File.createTempFile("words", ".txt");
+        file.deleteOnExit();
+        Files.write(file.toPath(), List.of("CAT", "DOG"));
+
+        LexiconService service = new LexiconService(file.getPath(), false);
+        WordDictionary runningGame = service.pin();
+        assertEquals(1, service.getCurrent().getNumber());
+
+        Files.write(file.toPath(), List.of("CAT", "ZAX"));
+        LexiconService.Version version = service.reload().join();
+
+        assertEquals(2, version.getNumber());
+        assertSame(version.getDictionary(), service.pin());
+        assertTrue(service.pin().isValidWord("ZAX"));
+        assertFalse(service.pin().isValidWord("DOG"));
+        assertTrue(runningGame.isValidWord("DOG"));
+        assertFalse(runningGame.isValidWord("ZAX"));
+    }
+
+    @Test
+    void testFailedReloadKeepsCurrentVersion() throws IOException {
+        File file = File.createTempFile("words", ".txt");
+        Files.write(file.toPath(), List.of("CAT"));
+        LexiconService service = new LexiconService(file.getPath(), false);
+        WordDictionary before = service.pin();
+
+        assertTrue(file.delete());
+        assertThrows(CompletionException.class, () -> service.reload().join());
+        assertEquals(1, service.getCurrent().getNumber());
+        assertSame(before, service.pin());
+    }
+
+    @Test
+    void testReloadsPublishInOrder() throws IOException {
+        File file = File.createTempFile("words", ".txt");
+        file.deleteOnExit();
+        Files.write(file.toPath(), List.of("CAT"));
+        LexiconService service = new LexiconService(file.getPath(), false);
+
+        Files.write(file.toPath(), List.of("CAT", "DOG"));
+        LexiconService.Version first = service.reload().join();
+        //an older stamp than the current version would not be published over it
+        assertTrue(file.setLastModified(first.getFileModified() - 60000));
+        LexiconService.Version second = service.reload().join();
+
+        assertEquals(2, first.getNumber());
+        assertSame(first, second);
+        assertSame(first, service.getCurrent());
+        assertTrue(service.pin().isValidWord("DOG"));
+    }
+}
@@ -0,0 +1,351 @@
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+
+/**
+ * LexiconStats holds facts about the words of a dictionary that simulations, leave evaluation and
+ * teaching tools ask for over and over: how many words there are of each length, how often each
+ * letter is used, how many words each set of letters (anagram class) makes, and the chance of
+ * drawing seven tiles that make a bingo from a pool.
+ *
+ * Everything is worked out once from the dictionary and can be saved next to the word list as a
+ * sidecar file (the word list name plus ".stats"), so later runs read the numbers back instead of
+ * going through the words again. Counts are array reads and the anagram count is one hash lookup
+ * of the sorted letters. The bingo chance adds up the precomputed seven letter classes (with up to
+ * two blanks) against the pool, so it never walks the dictionary.
+ */
+public class LexiconStats {
+    public static final int RACK_SIZE = 7;
+    public static final int MAX_BLANKS = 2;    //blank draws the bingo tables cover
+    public static final String SIDECAR_SUFFIX = ".stats";
+    private static final int MAGIC = 0x4C535453;   //"LSTS"
+    private static final int FORMAT = 2;
+
+    private final Alphabet alphabet;
+    private final long fingerprint;         //WordDictionary.getFingerprint() of the words counted
+    private final int wordCount;
+    private final int[] lengthCounts;       //words of each length
+    private final long[] letterCounts;      //times each letter code appears over all words
+    private final int[] wordsWithLetter;    //words containing each letter code at least once
+    private final Map<String, Integer> anagramClasses;   //sorted letters of a word -> words with those letters
+    private final String[][] bingoDraws;    //[b]: sorted RACK_SIZE - b letters that make a bingo with b blanks
+
+    private LexiconStats(Alphabet alphabet, long fingerprint, int wordCount, int[] lengthCounts, long[] letterCounts,
+                         int[] wordsWithLetter, Map<String, Integer> anagramClasses, String[][] bingoDraws) {
+        this.alphabet = alphabet;
+        this.fingerprint = fingerprint;
+        this.wordCount = wordCount;
+        this.lengthCounts = lengthCounts;
+        this.letterCounts = letterCounts;
+        this.wordsWithLetter = wordsWithLetter;
+        this.anagramClasses = anagramClasses;
+        this.bingoDraws = bingoDraws;
+    }
+
+    /**
+     * Works out the statistics of a dictionary by going through all its words once
+     *
+     * @param dictionary the dictionary
+     * @return the statistics
+     */
+    public static LexiconStats compute(WordDictionary dictionary) {
+        Alphabet alphabet = dictionary.getAlphabet();
+        int[] lengthCounts = new int[16];   //grows to the longest word, so a compact dictionary builds no trie
+        int longest = 0;
+        long[] letterCounts = new long[alphabet.size()];
+        int[] wordsWithLetter = new int[alphabet.size()];
+        Map<String, Integer> anagramClasses = new HashMap<>();
+        int wordCount = 0;
+
+        for (String word : dictionary.getWords()) {
+            wordCount++;
+            if (word.length() >= lengthCounts.length) {
+                lengthCounts = Arrays.copyOf(lengthCounts, Math.max(word.length() + 1, lengthCounts.length * 2));
+            }
+            lengthCounts[word.length()]++;
+            longest = Math.max(longest, word.length());
+            int seen = 0;
+            for (int i = 0; i < word.length(); i++) {
+                int code = alphabet.code(word.charAt(i));
+                letterCounts[code]++;
+                if ((seen & (1 << code)) == 0) wordsWithLetter[code]++;
+                seen |= 1 << code;
+            }
+            anagramClasses.merge(alphagram(word), 1, Integer::sum);
+        }
+        lengthCounts = Arrays.copyOf(lengthCounts, longest + 1);
+
+        //the letters of every seven letter class, then the same with one and two letters left to blanks
+        String[][] bingoDraws = new String[MAX_BLANKS + 1][];
+        Set<String> draws = new TreeSet<>();
+        for (String letters : anagramClasses.keySet()) {
+            if (letters.length() == RACK_SIZE) draws.add(letters);
+        }
+        bingoDraws[0] = draws.toArray(new String[0]);
+        for (int blanks = 1; blanks <= MAX_BLANKS; blanks++) {
+            Set<String> shorter = new TreeSet<>();
+            for (String letters : bingoDraws[blanks - 1]) {
+                for (int i = 0; i < letters.length(); i++) {
+                    if (i > 0 && letters.charAt(i) == letters.charAt(i - 1)) continue;
+                    shorter.add(letters.substring(0, i) + letters.substring(i + 1));
+                }
+            }
+            bingoDraws[blanks] = shorter.toArray(new String[0]);
+        }
+        return new LexiconStats(alphabet, dictionary.getFingerprint(), wordCount, lengthCounts, letterCounts,
+                wordsWithLetter, anagramClasses, bingoDraws);
+    }
+
+    /**
+     * Gets the statistics of a dictionary from the sidecar file of its word list. The sidecar is
+     * used if it was saved for the same words (same alphabet and fingerprint), otherwise the
+     * statistics are worked out again and the sidecar rewritten. A single lexicon or restricted
+     * view of the list is worked out without touching the sidecar, which is for the whole list.
+     * A sidecar that cannot be written is reported on the console and the statistics are still
+     * returned.
+     *
+     * @param dictionary the dictionary loaded from the word list
+     * @param wordListFile the word list file
+     * @return the statistics
+     */
+    public static LexiconStats forWordList(WordDictionary dictionary, String wordListFile) {
+        if (dictionary.isView()) {
+            return compute(dictionary);
+        }
+        Path sidecar = Paths.get(wordListFile + SIDECAR_SUFFIX);
+        try {
+            if (Files.exists(sidecar)) {
+                LexiconStats saved = load(sidecar, dictionary.getAlphabet());
+                if (saved.getFingerprint() == dictionary.getFingerprint()) {
+                    return saved;
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("Could not read " + sidecar + ", working the statistics out again: " + e.getMessage());
+        }
+
+        LexiconStats stats = compute(dictionary);
+        try {
+            stats.save(sidecar);
+        } catch (IOException e) {
+            System.out.println("Could not save the lexicon statistics to " + sidecar);
+        }
+        return stats;
+    }
+
+    /**
+     * Writes the statistics to a file
+     *
+     * @param path the file, replaced if it exists
+     * @throws IOException if the file cannot be written
+     */
+    public void save(Path path) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT);
+            out.writeInt(alphabet.signature());
+            out.writeLong(fingerprint);
+            out.writeInt(wordCount);
+            out.writeInt(lengthCounts.length);
+            for (int count : lengthCounts) out.writeInt(count);
+            out.writeInt(letterCounts.length);
+            for (int code = 0; code < letterCounts.length; code++) {
+                out.writeLong(letterCounts[code]);
+                out.writeInt(wordsWithLetter[code]);
+            }
+            out.writeInt(anagramClasses.size());
+            for (Map.Entry<String, Integer> entry : anagramClasses.entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeInt(entry.getValue());
+            }
+            for (String[] draws : bingoDraws) {
+                out.writeInt(draws.length);
+                for (String letters : draws) out.writeUTF(letters);
+            }
+        }
+    }
+
+    /**
+     * Reads statistics saved by save()
+     *
+     * @param path the file
+     * @param alphabet the alphabet of the dictionary
+     * @return the statistics
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if the file is not a statistics file of that alphabet
+     */
+    public static LexiconStats load(Path path, Alphabet alphabet) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT) {
+                throw new IllegalArgumentException("Not a lexicon statistics file: " + path);
+            }
+            if (in.readInt() != alphabet.signature()) {
+                throw new IllegalArgumentException("Lexicon statistics were not saved with the " + alphabet.getName() + " alphabet");
+            }
+            long fingerprint = in.readLong();
+            int wordCount = in.readInt();
+            int[] lengthCounts = new int[in.readInt()];
+            for (int i = 0; i < lengthCounts.length; i++) lengthCounts[i] = in.readInt();
+            int letters = in.readInt();
+            if (letters != alphabet.size()) {
+                throw new IllegalArgumentException("Lexicon statistics have " + letters + " letters, the alphabet " + alphabet.size());
+            }
+            long[] letterCounts = new long[letters];
+            int[] wordsWithLetter = new int[letters];
+            for (int code = 0; code < letters; code++) {
+                letterCounts[code] = in.readLong();
+                wordsWithLetter[code] = in.readInt();
+            }
+            int classes = in.readInt();
+            Map<String, Integer> anagramClasses = new HashMap<>(classes * 4 / 3 + 1);
+            for (int i = 0; i < classes; i++) {
+                anagramClasses.put(in.readUTF(), in.readInt());
+            }
+            String[][] bingoDraws = new String[MAX_BLANKS + 1][];
+            for (int blanks = 0; blanks <= MAX_BLANKS; blanks++) {
+                bingoDraws[blanks] = new String[in.readInt()];
+                for (int i = 0; i < bingoDraws[blanks].length; i++) bingoDraws[blanks][i] = in.readUTF();
+            }
+            return new LexiconStats(alphabet, fingerprint, wordCount, lengthCounts, letterCounts, wordsWithLetter,
+                    anagramClasses, bingoDraws);
+        }
+    }
+
+    /**
+     * The letters of a word sorted by their char values (not by alphabet code, so digraph symbols
+     * such as the Spanish CH sort after Z), the key of its anagram class. Any fixed order gives
+     * the same classes, and this is the order the sidecar files are written in.
+     *
+     * @param word the word, as symbols
+     * @return the sorted symbols
+     */
+    public static String alphagram(CharSequence word) {
+        char[] letters = word.toString().toUpperCase().toCharArray();
+        Arrays.sort(letters);
+        return new String(letters);
+    }
+
+    /**
+     * Fingerprint of the words the statistics were worked out from, see WordDictionary.getFingerprint()
+     *
+     * @return the fingerprint
+     */
+    public long getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * Number of words in the dictionary
+     *
+     * @return the word count
+     */
+    public int getWordCount() {
+        return wordCount;
+    }
+
+    /**
+     * Number of words of a length
+     *
+     * @param length the word length
+     * @return the count, 0 for lengths no word has
+     */
+    public int getWordCount(int length) {
+        return length >= 0 && length < lengthCounts.length ? lengthCounts[length] : 0;
+    }
+
+    /**
+     * Number of times a letter appears over all the words
+     *
+     * @param letter the letter
+     * @return the count, 0 for a char that is not a letter
+     */
+    public long getLetterCount(char letter) {
+        int code = alphabet.code(letter);
+        return code == Alphabet.NONE ? 0 : letterCounts[code];
+    }
+
+    /**
+     * Share of all the letters of all the words that are this letter
+     *
+     * @param letter the letter
+     * @return the frequency from 0 to 1
+     */
+    public double getLetterFrequency(char letter) {
+        long total = 0;
+        for (long count : letterCounts) total += count;
+        return total == 0 ? 0 : (double) getLetterCount(letter) / total;
+    }
+
+    /**
+     * Number of words that use a letter at least once
+     *
+     * @param letter the letter
+     * @return the count
+     */
+    public int getWordsWithLetter(char letter) {
+        int code = alphabet.code(letter);
+        return code == Alphabet.NONE ? 0 : wordsWithLetter[code];
+    }
+
+    /**
+     * Number of words that use exactly the given letters, e.g. 2 for ACT (ACT and CAT)
+     *
+     * @param letters the letters in any order, no blanks
+     * @return the size of their anagram class
+     */
+    public int getAnagramCount(CharSequence letters) {
+        return anagramClasses.getOrDefault(alphagram(letters), 0);
+    }
+
+    /**
+     * Number of different anagram classes, i.e. of sorted letter sets that make a word
+     *
+     * @return the class count
+     */
+    public int getAnagramClassCount() {
+        return anagramClasses.size();
+    }
+
+    /**
+     * Chance that seven tiles drawn at random from a pool make a seven letter word, with blanks
+     * used as any letter. Draws with more than MAX_BLANKS blanks are not counted.
+     *
+     * @param pool tile counts by letter code with the blank count at WordDictionary.BLANK_INDEX,
+     *             see WordDictionary.rackCounts() of the same dictionary
+     * @return the probability from 0 to 1
+     */
+    public double bingoProbability(int[] pool) {
+        int blanks = pool[WordDictionary.BLANK_INDEX];
+        int total = blanks;
+        for (int code = 0; code < alphabet.size(); code++) total += pool[code];
+        if (total < RACK_SIZE) return 0;
+
+        double ways = 0;
+        int[] needed = new int[alphabet.size()];
+        for (int b = 0; b <= Math.min(blanks, MAX_BLANKS); b++) {
+            double classWays = 0;
+            for (String letters : bingoDraws[b]) {
+                Arrays.fill(needed, 0);
+                for (int i = 0; i < letters.length(); i++) needed[alphabet.code(letters.charAt(i))]++;
+                double product = 1;
+                for (int code = 0; code < needed.length && product > 0; code++) {
+                    if (needed[code] > 0) product *= choose(pool[code], needed[code]);
+                }
+                classWays += product;
+            }
+            ways += choose(blanks, b) * classWays;
+        }
+        return ways / choose(total, RACK_SIZE);
+    }
+
+    private static double choose(int n, int k) {
+        if (k < 0 || k > n) return 0;
+        double result = 1;
+        for (int i = 1; i <= k; i++) {
+            result = result * (n - k + i) / i;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,83 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.*;
+
+/**
+ * JUnit tests for the LexiconStats class.
+ *
+ * Tests the counts against a small word list, the bingo chance on pools where the answer is
+ * known, and that the sidecar file gives back the same numbers until the words change.
+ *
+ */
+class LexiconStatsTest {
+
+    private WordDictionary load(List<String> words) throws IOException {
+        File file = File.createTempFile("words", ".txt");
+        file.deleteOnExit();
+        new File(file.getPath() + LexiconStats.SIDECAR_SUFFIX).deleteOnExit();
+        Files.write(file.toPath(), words);
+        return WordDictionary.load(file.getPath(), false);
+    }
+
+    @Test
+    void testCountsAndBingoChance() throws IOException {
+        WordDictionary dictionary = load(List.of("ACT", "CAT", "CATS", "RETAINS", "STAINER", "AT"));
+        LexiconStats stats = LexiconStats.compute(dictionary);
+
+        assertEquals(6, stats.getWordCount());
+        assertEquals(2, stats.getWordCount(3));
+        assertEquals(2, stats.getWordCount(7));
+        assertEquals(0, stats.getWordCount(12));
+        assertEquals(6, stats.getWordsWithLetter('A'));
+        assertEquals(3, stats.getLetterCount('S'));
+        assertEquals(2, stats.getAnagramCount("tca"));
+        assertEquals(2, stats.getAnagramCount("NASTIER"));
+        assertEquals(0, stats.getAnagramCount("XYZ"));
+
+        assertEquals(1.0, stats.bingoProbability(dictionary.rackCounts("RETAINS")), 1e-9);
+        assertEquals(1.0, stats.bingoProbability(dictionary.rackCounts("RET?INS")), 1e-9);
+        assertEquals(0.0, stats.bingoProbability(dictionary.rackCounts("RETAINX")), 1e-9);
+        //8 tiles, only the 7 without the X make the word: 1 of C(8,7) = 8 draws
+        assertEquals(1.0 / 8, stats.bingoProbability(dictionary.rackCounts("RETAINSX")), 1e-9);
+    }
+
+    @Test
+    void testSidecarRoundTrip() throws IOException {
+        File file = File.createTempFile("words", ".txt");
+        file.deleteOnExit();
+        File sidecar = new File(file.getPath() + LexiconStats.SIDECAR_SUFFIX);
+        sidecar.deleteOnExit();
+        Files.copy(new File("ValidWords.txt").toPath(), file.toPath(), java.nio.file.StandardCopyOption.REPLACE_EXISTING);
+        WordDictionary dictionary = WordDictionary.load(file.getPath(), false);
+
+        LexiconStats computed = LexiconStats.forWordList(dictionary, file.getPath());
+        assertTrue(sidecar.exists());
+        LexiconStats saved = LexiconStats.load(sidecar.toPath(), Alphabet.ENGLISH);
+
+        assertEquals(computed.getWordCount(), saved.getWordCount());
+        assertEquals(computed.getAnagramClassCount(), saved.getAnagramClassCount());
+        for (int length = 1; length < 20; length++) {
+            assertEquals(computed.getWordCount(length), saved.getWordCount(length));
+        }
+        assertEquals(computed.getLetterFrequency('E'), saved.getLetterFrequency('E'), 1e-12);
+        assertEquals(computed.getAnagramCount("ACT"), saved.getAnagramCount("CAT"));
+        int[] fullBag = dictionary.rackCounts("AAAAAAAAABBCCDDDDEEEEEEEEEEEEFFGGGHHIIIIIIIIIJKLLLLMMNNNNNNOOOOOOOOPPQRRRRRRSSSSTTTTTTUUUUVVWWXYYZ??");
+        double chance = computed.bingoProbability(fullBag);
+        assertTrue(chance > 0 && chance < 1);
+        assertEquals(chance, saved.bingoProbability(fullBag), 1e-12);
+
+        //same number of words and an older modified time, but another word: the fingerprint tells
+        List<String> edited = new ArrayList<>(Files.readAllLines(file.toPath()));
+        edited.set(0, "zzzzzzzzzzzzzzzzzzzz");
+        Files.write(file.toPath(), edited);
+        assertTrue(file.setLastModified(sidecar.lastModified() - 60000));
+        WordDictionary editedDictionary = WordDictionary.load(file.getPath(), false);
+        LexiconStats fresh = LexiconStats.forWordList(editedDictionary, file.getPath());
+        assertEquals(computed.getWordCount(), fresh.getWordCount());
+        assertEquals(1, fresh.getWordCount(20));
+        assertEquals(editedDictionary.getFingerprint(), LexiconStats.load(sidecar.toPath(), Alphabet.ENGLISH).getFingerprint());
+    }
+}
@@ -0,0 +1,251 @@
+/**
+ * LoudsWordTrie is a succinct copy of a WordTrie for processes that hold one big lexicon and want
+ * it as small as possible. The shape of the trie is stored as a LOUDS bit string (level order
+ * unary degree sequence): the nodes are numbered in breadth first order, and each node writes one
+ * 1 bit per child followed by a 0 bit. That is 2 bits per node for the whole shape, and with rank
+ * and select on the bits (see SuccinctBits) the children and parent of a node are found without
+ * any pointers:
+ *
+ *      children of node v:  the 1 bits between the (v-1)-th and the v-th 0 bit
+ *      first child of v:    1 + the number of 1 bits before them
+ *      parent of node u:    the number of 0 bits before the (u-1)-th 1 bit
+ *
+ * Next to the shape each node keeps its letter code in a byte and a terminal bit. Word ids (the
+ * sorted order of WordTrie) do not follow from breadth first numbering, so the id of every word
+ * and the node of every id are kept in two bit packed tables of just enough bits per entry.
+ *
+ * The trie only holds one lexicon. It has no per node word lengths, so canEndIn() only checks the
+ * longest word: pattern searches work but prune less than with WordTrie.
+ */
+public class LoudsWordTrie implements WordAutomaton {
+    private final SuccinctBits shape;      //LOUDS bits, 2 * nodes - 1 of them
+    private final byte[] labels;           //letter code of the edge into each node, unused for the root
+    private final SuccinctBits terminals;  //bit set for every node where a word ends
+    private final long[] wordIds;          //word id of each terminal node, by terminal rank
+    private final long[] wordNodes;        //node of each word id
+    private final int idBits;
+    private final int nodeBits;
+    private final int nodeCount;
+    private final int wordCount;
+    private final int longestWord;
+    private final Alphabet alphabet;
+
+    /**
+     * Copies a trie into the succinct form
+     *
+     * @param trie the trie to copy, with a single lexicon
+     * @return the succinct copy
+     * @throws IllegalArgumentException if the trie has words of more than one lexicon
+     */
+    public static LoudsWordTrie copyOf(WordTrie trie) {
+        if ((trie.subtreeLexicons(WordTrie.ROOT) & ~1) != 0) {
+            throw new IllegalArgumentException("A LOUDS trie only holds a single lexicon");
+        }
+        return new LoudsWordTrie(trie);
+    }
+
+    private LoudsWordTrie(WordTrie trie) {
+        nodeCount = trie.getNodeCount();
+        wordCount = trie.getWordCount();
+        longestWord = trie.getLongestWord();
+        alphabet = trie.getAlphabet();
+        idBits = bitsFor(wordCount);
+        nodeBits = bitsFor(nodeCount);
+
+        long[] shapeBits = new long[(2 * nodeCount + 63) / 64];
+        long[] terminalBits = new long[(nodeCount + 63) / 64];
+        labels = new byte[nodeCount];
+        wordIds = new long[longsFor(wordCount, idBits)];
+        wordNodes = new long[longsFor(wordCount, nodeBits)];
+
+        //breadth first: queue[i] is the WordTrie node that becomes node i
+        int[] queue = new int[nodeCount];
+        int tail = 1;
+        int position = 0;
+        int terminal = 0;
+        for (int node = 0; node < nodeCount; node++) {
+            int source = queue[node];
+            for (int mask = trie.childMask(source); mask != 0; mask &= mask - 1) {
+                int letter = Integer.numberOfTrailingZeros(mask);
+                labels[tail] = (byte) letter;
+                queue[tail++] = trie.child(source, letter);
+                shapeBits[position >>> 6] |= 1L << position;
+                position++;
+            }
+            position++;   //the 0 that ends the node
+
+            if (trie.isTerminal(source)) {
+                terminalBits[node >>> 6] |= 1L << node;
+                int id = trie.wordId(source);
+                put(wordIds, idBits, terminal++, id);
+                put(wordNodes, nodeBits, id, node);
+            }
+        }
+        shape = new SuccinctBits(shapeBits, position);
+        terminals = new SuccinctBits(terminalBits, nodeCount);
+    }
+
+    private static int bitsFor(int count) {
+        return Math.max(1, 32 - Integer.numberOfLeadingZeros(Math.max(count - 1, 0)));
+    }
+
+    private static int longsFor(int count, int bitsPerValue) {
+        return (int) (((long) count * bitsPerValue + 63) / 64) + 1;   //one spare long so reads never cross the end
+    }
+
+    private static void put(long[] packed, int bitsPerValue, int index, int value) {
+        long bit = (long) index * bitsPerValue;
+        int word = (int) (bit >>> 6);
+        int shift = (int) (bit & 63);
+        packed[word] |= (long) value << shift;
+        if (shift + bitsPerValue > 64) {
+            packed[word + 1] |= (long) value >>> (64 - shift);
+        }
+    }
+
+    private static int get(long[] packed, int bitsPerValue, int index) {
+        long bit = (long) index * bitsPerValue;
+        int word = (int) (bit >>> 6);
+        int shift = (int) (bit & 63);
+        long value = packed[word] >>> shift;
+        if (shift + bitsPerValue > 64) {
+            value |= packed[word + 1] << (64 - shift);
+        }
+        return (int) (value & ((1L << bitsPerValue) - 1));
+    }
+
+    /**
+     * Position of the first child bit of a node, the bits run up to the node's 0
+     */
+    private int childrenStart(int node) {
+        return node == WordTrie.ROOT ? 0 : shape.select0(node - 1) + 1;
+    }
+
+    @Override
+    public Alphabet getAlphabet() {
+        return alphabet;
+    }
+
+    @Override
+    public int child(int node, int letter) {
+        int start = childrenStart(node);
+        int first = shape.rank1(start) + 1;
+        //the 1 bits of a node run up to its 0, and the children's labels are in letter order
+        for (int child = first; shape.get(start + child - first); child++) {
+            int label = labels[child];
+            if (label == letter) return child;
+            if (label > letter) break;
+        }
+        return WordTrie.NONE;
+    }
+
+    @Override
+    public int childMask(int node) {
+        int start = childrenStart(node);
+        int first = shape.rank1(start) + 1;
+        int mask = 0;
+        for (int child = first; shape.get(start + child - first); child++) {
+            mask |= 1 << labels[child];
+        }
+        return mask;
+    }
+
+    /**
+     * Parent of a node, the inverse of child()
+     *
+     * @param node any node but the root
+     * @return the parent node
+     */
+    public int parent(int node) {
+        return shape.rank0(shape.select1(node - 1));
+    }
+
+    @Override
+    public boolean canEndIn(int node, int remaining) {
+        return remaining <= longestWord;
+    }
+
+    @Override
+    public boolean isTerminal(int node) {
+        return terminals.get(node);
+    }
+
+    @Override
+    public boolean isTerminal(int node, int lexiconMask) {
+        return (lexiconMask & 1) != 0 && terminals.get(node);
+    }
+
+    @Override
+    public int getLexicons(int node) {
+        return terminals.get(node) ? 1 : 0;
+    }
+
+    @Override
+    public boolean hasLexicon(int node, int lexiconMask) {
+        return (lexiconMask & 1) != 0;   //every branch of a trie leads to a word
+    }
+
+    /**
+     * The first word of a branch is found by always taking the first child until a word ends
+     */
+    @Override
+    public int firstWord(int node) {
+        while (!terminals.get(node)) {
+            node = shape.rank1(childrenStart(node)) + 1;
+        }
+        return get(wordIds, idBits, terminals.rank1(node));
+    }
+
+    @Override
+    public int wordId(int node) {
+        return terminals.get(node) ? get(wordIds, idBits, terminals.rank1(node)) : WordTrie.NONE;
+    }
+
+    /**
+     * Spells out a word by climbing from its node to the root
+     */
+    @Override
+    public String wordOf(int id) {
+        if (id < 0 || id >= wordCount) {
+            throw new IllegalArgumentException("No word with id " + id);
+        }
+        StringBuilder word = new StringBuilder();
+        for (int node = get(wordNodes, nodeBits, id); node != WordTrie.ROOT; node = parent(node)) {
+            word.append(alphabet.symbol(labels[node]));
+        }
+        return word.reverse().toString();
+    }
+
+    @Override
+    public int getWordCount() {
+        return wordCount;
+    }
+
+    @Override
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    @Override
+    public int getLongestWord() {
+        return longestWord;
+    }
+
+    /**
+     * Memory used by the shape, labels, terminal bits and id tables
+     *
+     * @return footprint in bytes, not counting object headers
+     */
+    public long getBytes() {
+        return shape.getBytes() + labels.length + terminals.getBytes() + wordIds.length * 8L + wordNodes.length * 8L;
+    }
+
+    /**
+     * Bits of the shape per node, without labels and ids
+     *
+     * @return about 2
+     */
+    public double getShapeBitsPerNode() {
+        return shape.getBytes() * 8.0 / nodeCount;
+    }
+}
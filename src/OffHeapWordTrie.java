@@ -0,0 +1,239 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * OffHeapWordTrie holds the nodes of a WordTrie outside the Java heap, in a direct or
+ * memory mapped ByteBuffer. A large word list then costs the heap (and the garbage collector) only
+ * this small object, which matters when one server keeps several big lexicons loaded.
+ *
+ * The buffer is laid out as a header followed by one record of six ints per node, in the node
+ * order of WordTrie:
+ *
+ *      header: magic, format, node count, word count, longest word, lexicon count, alphabet signature, 0
+ *      node:   child mask, first child, suffix lengths, lexicons, subtree lexicons, first word
+ *
+ * The same bytes are written to and mapped from an automaton file, so a saved dictionary opens
+ * without reading or parsing the word list. Every read goes through the buffer's absolute getInt,
+ * which checks its bounds, and the header is checked against the buffer size when it is opened,
+ * so a damaged file gives an exception rather than a wrong answer outside the data.
+ */
+public class OffHeapWordTrie implements WordAutomaton {
+    private static final int MAGIC = 0x57545249;   //"WTRI"
+    private static final int FORMAT = 2;
+    private static final int HEADER_BYTES = 32;
+    private static final int NODE_INTS = 6;
+    private static final int NODE_BYTES = NODE_INTS * Integer.BYTES;
+
+    //int offsets inside a node record
+    private static final int CHILD_MASK = 0;
+    private static final int FIRST_CHILD = 4;
+    private static final int SUFFIX_LENGTHS = 8;
+    private static final int LEXICONS = 12;
+    private static final int SUBTREE_LEXICONS = 16;
+    private static final int FIRST_WORD = 20;
+
+    private final ByteBuffer nodes;
+    private final int nodeCount;
+    private final int wordCount;
+    private final int longestWord;
+    private final int lexiconCount;
+    private final Alphabet alphabet;
+
+    private OffHeapWordTrie(ByteBuffer buffer, Alphabet alphabet) {
+        this.alphabet = alphabet;
+        nodes = buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (nodes.capacity() < HEADER_BYTES || nodes.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not a word automaton");
+        }
+        if (nodes.getInt(4) != FORMAT) {
+            throw new IllegalArgumentException("Unsupported word automaton format " + nodes.getInt(4));
+        }
+        nodeCount = nodes.getInt(8);
+        wordCount = nodes.getInt(12);
+        longestWord = nodes.getInt(16);
+        lexiconCount = nodes.getInt(20);
+        if (nodeCount < 1 || (long) nodeCount * NODE_BYTES + HEADER_BYTES != nodes.capacity()) {
+            throw new IllegalArgumentException("Word automaton size does not match its node count");
+        }
+        if (nodes.getInt(24) != alphabet.signature()) {
+            throw new IllegalArgumentException("Word automaton was not saved with the " + alphabet.getName() + " alphabet");
+        }
+    }
+
+    /**
+     * Copies a trie into a direct buffer outside the heap. The heap trie can be dropped after.
+     *
+     * @param trie the trie to copy
+     * @param lexiconCount number of word lists merged into the trie
+     * @return the off heap copy
+     */
+    public static OffHeapWordTrie copyOf(WordTrie trie, int lexiconCount) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(size(trie)).order(ByteOrder.LITTLE_ENDIAN);
+        write(trie, lexiconCount, buffer);
+        return new OffHeapWordTrie(buffer, trie.getAlphabet());
+    }
+
+    /**
+     * Writes a trie to an automaton file that map() can open
+     *
+     * @param trie the trie to save
+     * @param lexiconCount number of word lists merged into the trie
+     * @param path the file to write, replaced if it exists
+     * @throws IOException if the file cannot be written
+     */
+    public static void save(WordTrie trie, int lexiconCount, Path path) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(size(trie)).order(ByteOrder.LITTLE_ENDIAN);
+        write(trie, lexiconCount, buffer);
+        buffer.flip();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * Maps an automaton file read only into memory. The operating system pages it in as it is
+     * used and can share the pages between processes that map the same file.
+     *
+     * @param path a file written by save()
+     * @return the mapped trie
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if the file is not a word automaton or is damaged
+     */
+    public static OffHeapWordTrie map(Path path) throws IOException {
+        return map(path, Alphabet.ENGLISH);
+    }
+
+    /**
+     * Maps an automaton file of another language
+     *
+     * @param path a file written by save()
+     * @param alphabet the alphabet the trie was built with
+     * @return the mapped trie
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if the file is not a word automaton of that alphabet or is damaged
+     */
+    public static OffHeapWordTrie map(Path path, Alphabet alphabet) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Word automaton file is too large: " + path);
+            }
+            return new OffHeapWordTrie(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), alphabet);
+        }
+    }
+
+    private static int size(WordTrie trie) {
+        long bytes = (long) trie.getNodeCount() * NODE_BYTES + HEADER_BYTES;
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Trie is too large for one buffer: " + trie.getNodeCount() + " nodes");
+        }
+        return (int) bytes;
+    }
+
+    private static void write(WordTrie trie, int lexiconCount, ByteBuffer buffer) {
+        buffer.putInt(MAGIC).putInt(FORMAT).putInt(trie.getNodeCount()).putInt(trie.getWordCount())
+                .putInt(trie.getLongestWord()).putInt(lexiconCount).putInt(trie.getAlphabet().signature()).putInt(0);
+        for (int node = 0; node < trie.getNodeCount(); node++) {
+            buffer.putInt(trie.childMask(node));
+            buffer.putInt(trie.firstChild(node));
+            buffer.putInt(trie.suffixLengths(node));
+            buffer.putInt(trie.getLexicons(node));
+            buffer.putInt(trie.subtreeLexicons(node));
+            buffer.putInt(trie.firstWord(node));
+        }
+    }
+
+    private int read(int node, int field) {
+        if (node < 0 || node >= nodeCount) {
+            throw new IndexOutOfBoundsException("Node " + node + " outside the automaton (" + nodeCount + " nodes)");
+        }
+        return nodes.getInt(HEADER_BYTES + node * NODE_BYTES + field);
+    }
+
+    @Override
+    public Alphabet getAlphabet() {
+        return alphabet;
+    }
+
+    @Override
+    public int child(int node, int letter) {
+        int mask = read(node, CHILD_MASK);
+        int bit = 1 << letter;
+        if ((mask & bit) == 0) return WordTrie.NONE;
+        return read(node, FIRST_CHILD) + Integer.bitCount(mask & (bit - 1));
+    }
+
+    @Override
+    public int childMask(int node) {
+        return read(node, CHILD_MASK);
+    }
+
+    @Override
+    public boolean canEndIn(int node, int remaining) {
+        return (read(node, SUFFIX_LENGTHS) & (1 << Math.min(remaining, 31))) != 0;
+    }
+
+    @Override
+    public boolean isTerminal(int node) {
+        return read(node, LEXICONS) != 0;
+    }
+
+    @Override
+    public boolean isTerminal(int node, int lexiconMask) {
+        return (read(node, LEXICONS) & lexiconMask) != 0;
+    }
+
+    @Override
+    public int getLexicons(int node) {
+        return read(node, LEXICONS);
+    }
+
+    @Override
+    public boolean hasLexicon(int node, int lexiconMask) {
+        return (read(node, SUBTREE_LEXICONS) & lexiconMask) != 0;
+    }
+
+    @Override
+    public int firstWord(int node) {
+        return read(node, FIRST_WORD);
+    }
+
+    @Override
+    public int getWordCount() {
+        return wordCount;
+    }
+
+    @Override
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    @Override
+    public int getLongestWord() {
+        return longestWord;
+    }
+
+    /**
+     * Number of word lists merged into the trie, saved with it
+     *
+     * @return the lexicon count
+     */
+    public int getLexiconCount() {
+        return lexiconCount;
+    }
+
+    /**
+     * Size of the automaton outside the heap
+     *
+     * @return number of bytes in the buffer
+     */
+    public long getBytes() {
+        return nodes.capacity();
+    }
+}
@@ -1,4 +1,6 @@
 import java.util.*;
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import javax.swing.JButton;
 
@@ -14,11 +16,14 @@ public class Player implements Serializable
 {
     final private String name;
     private int score;
-    private List<String> wordsThisTurn;
+    //dictionary ids of the words made this turn, checked against the word list on load. Not named
+    //wordsThisTurn, which held the words as Strings in older saves
+    private int[] wordIdsThisTurn;
     private Tile[] availableTiles;
     int passCounter;
 
     private static final int HAND_SIZE = 7;
+    private static final long serialVersionUID = 7693721410241007303L;
 
     /**
      * Constructs a new Player with the specified name.
@@ -29,7 +34,7 @@ public class Player implements Serializable
     {
         this.name = name;
         this.score = 0;
-        this.wordsThisTurn = new ArrayList<>();
+        this.wordIdsThisTurn = new int[0];
         this.availableTiles = new Tile[HAND_SIZE];
         this.passCounter = 0;
     }
@@ -127,6 +132,31 @@ public class Player implements Serializable
      * @return the score of the player
      **/
     public int getScore() {return score;}
+
+    /**
+     * Returns the dictionary ids of the words the player made this turn
+     *
+     * @return the word ids, empty if no word has been placed this turn
+     **/
+    public int[] getWordsThisTurn() {return wordIdsThisTurn;}
+
+    /**
+     * Records the words the player made this turn
+     *
+     * @param wordIds dictionary ids of the words, from Board.getLastWordIds()
+     **/
+    public void setWordsThisTurn(int[] wordIds) {wordIdsThisTurn = wordIds;}
+
+    /**
+     * Games saved before word ids have no ids, the words of their last turn are not kept
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        if (wordIdsThisTurn == null) {
+            wordIdsThisTurn = new int[0];
+        }
+    }
+
     /**
      * Adds points to the player's cumulative score
      *
@@ -341,7 +371,7 @@ public class Player implements Serializable
      **/
 
     public int placeWordOnBoard(Board board,Scanner scanner, TileBag tileBag){
-        wordsThisTurn.clear();
+        wordIdsThisTurn = new int[0];
 
         System.out.println(name + ", enter your move (format: WORD ROWS COLS): ");
         //EXAMPLE INPUT: "(WORD) A,E,F,G (ROWS) 3,3,3,3 (COLS) 2,5,6,7"
@@ -399,7 +429,7 @@ public class Player implements Serializable
 
         if(turnScore > 0)
         {
-            wordsThisTurn.add(word);
+            wordIdsThisTurn = board.getLastWordIds();
             addScore(turnScore);
 
             System.out.println("Word placed! Score for this turn: " + turnScore);
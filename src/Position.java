@@ -0,0 +1,424 @@
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Position is a compact, canonical code for a game position: the letters on the board, which of
+ * them are blanks, the players' racks and scores, whose turn it is and how many tiles are left in
+ * the bag. Two positions that are the same game state have the same bytes, so positions can be
+ * stored, hashed, compared and deduplicated as they are. The premium squares and the players'
+ * names are not part of it.
+ *
+ * Everything is packed into bits, in this order:
+ *      6 bits          board size
+ *      w bits each     every square, row by row: 0 for empty, letter code + 1
+ *      1 bit each      for each square with a letter, 1 if it is a blank
+ *      3 bits          number of players, then 3 bits for whose turn it is
+ *      per player      RACK_SIZE tiles of w bits (0 none, code + 1, or size + 1 for a blank),
+ *                      sorted so the order of the rack does not matter, then a 16 bit score
+ *      10 bits         tiles left in the bag
+ * w is the bits needed for size() + 2 values of the alphabet, 5 for English. A 15x15 English
+ * position with two players takes about 165 bytes, however full the board is.
+ *
+ * On a layout that looks the same turned or flipped, up to 8 positions are really one. canonical()
+ * picks the one with the smallest bytes, so caches and opening books keyed by it find all of them;
+ * canonicalTransform() says how the board was turned, to map moves back with Symmetry.
+ */
+public final class Position implements Comparable<Position> {
+    public static final int RACK_SIZE = 7;
+    public static final int MAX_PLAYERS = 7;
+    private static final int SIZE_BITS = 6;
+    private static final int PLAYER_BITS = 3;
+    private static final int SCORE_BITS = 16;
+    private static final int BAG_BITS = 10;
+
+    private final Alphabet alphabet;
+    private final int size;
+    private final byte[] squares;      //code + 1 of the letter on each square [row * size + col], 0 if empty
+    private final long[] blankRows;    //bit col set if the tile there is a blank
+    private final int[][] racks;       //sorted rack symbols of each player, see rackSymbol()
+    private final int[] scores;
+    private final int currentPlayer;
+    private final int bagCount;
+    private final int bitsPerSymbol;
+    private final byte[] bytes;        //the canonical code
+
+    private Position(Alphabet alphabet, int size, byte[] squares, long[] blankRows, int[][] racks,
+                     int[] scores, int currentPlayer, int bagCount) {
+        if (racks.length > MAX_PLAYERS) throw new IllegalArgumentException("At most " + MAX_PLAYERS + " players");
+        if (currentPlayer < 0 || currentPlayer >= Math.max(1, racks.length)) {
+            throw new IllegalArgumentException("Player " + currentPlayer + " cannot have the turn with " + racks.length + " players");
+        }
+        if (size < PremiumLayout.MIN_SIZE || size > PremiumLayout.MAX_SIZE || size % 2 == 0) {
+            throw new IllegalArgumentException("Board size " + size + " is not an odd size from "
+                    + PremiumLayout.MIN_SIZE + " to " + PremiumLayout.MAX_SIZE);
+        }
+        this.alphabet = alphabet;
+        this.size = size;
+        this.squares = squares;
+        this.blankRows = blankRows;
+        this.racks = racks;
+        this.scores = scores;
+        this.currentPlayer = currentPlayer;
+        this.bagCount = Math.min(bagCount, (1 << BAG_BITS) - 1);
+        this.bitsPerSymbol = bitsPerSymbol(alphabet);
+        for (int[] rack : racks) {
+            Arrays.sort(rack);   //empty slots (0) first, then letters by code, blanks last
+        }
+        this.bytes = encode();
+    }
+
+    private static int bitsPerSymbol(Alphabet alphabet) {
+        return 32 - Integer.numberOfLeadingZeros(alphabet.size() + 1);
+    }
+
+    /**
+     * The position of a board with no players, racks or bag
+     *
+     * @param board the board
+     * @return its position, in the alphabet of the board's dictionary
+     */
+    public static Position of(Board board) {
+        return of(board, new Player[0], 0, 0);
+    }
+
+    /**
+     * The position of a game
+     *
+     * @param board the board
+     * @param players the players, at most MAX_PLAYERS
+     * @param currentPlayer index of the player whose turn it is
+     * @param bagCount tiles left in the bag
+     * @return the position, in the alphabet of the board's dictionary
+     * @throws IllegalArgumentException if currentPlayer is not one of the players
+     */
+    public static Position of(Board board, Player[] players, int currentPlayer, int bagCount) {
+        Alphabet alphabet = board.getWordDictionary().getAlphabet();
+        int size = board.getSize();
+        byte[] squares = new byte[size * size];
+        long[] blankRows = new long[size];
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                char letter = board.getLetterAt(row, col);
+                if (letter == ' ') continue;
+                int code = alphabet.code(letter);
+                if (code == Alphabet.NONE) {
+                    throw new IllegalArgumentException("'" + letter + "' at (" + row + ", " + col + ") is not a letter of " + alphabet);
+                }
+                squares[row * size + col] = (byte) (code + 1);
+                if (board.isBlankAt(row, col)) blankRows[row] |= 1L << col;
+            }
+        }
+        int[][] racks = new int[players.length][];
+        int[] scores = new int[players.length];
+        for (int i = 0; i < players.length; i++) {
+            racks[i] = new int[RACK_SIZE];
+            Tile[] tiles = players[i].getAvailableTiles();
+            for (int slot = 0; slot < Math.min(RACK_SIZE, tiles.length); slot++) {
+                racks[i][slot] = rackSymbol(tiles[slot], alphabet);
+            }
+            scores[i] = Math.max(0, Math.min(players[i].getScore(), (1 << SCORE_BITS) - 1));
+        }
+        return new Position(alphabet, size, squares, blankRows, racks, scores, currentPlayer, bagCount);
+    }
+
+    /**
+     * 0 for an empty rack slot, code + 1 for a letter and size + 1 for a blank
+     */
+    private static int rackSymbol(Tile tile, Alphabet alphabet) {
+        if (tile == null) return 0;
+        if (tile.isBlank()) return alphabet.size() + 1;
+        int code = alphabet.code(tile.getEffectiveLetter());
+        if (code == Alphabet.NONE) throw new IllegalArgumentException("Tile " + tile + " is not in " + alphabet);
+        return code + 1;
+    }
+
+    private byte[] encode() {
+        int bits = SIZE_BITS + squares.length * bitsPerSymbol + PLAYER_BITS * 2
+                + racks.length * (RACK_SIZE * bitsPerSymbol + SCORE_BITS) + BAG_BITS;
+        for (byte square : squares) {
+            if (square != 0) bits++;
+        }
+        Bits out = new Bits(new byte[(bits + 7) / 8]);
+        out.write(size, SIZE_BITS);
+        for (byte square : squares) {
+            out.write(square, bitsPerSymbol);
+        }
+        for (int i = 0; i < squares.length; i++) {
+            if (squares[i] != 0) out.write(isBlank(i / size, i % size) ? 1 : 0, 1);
+        }
+        out.write(racks.length, PLAYER_BITS);
+        out.write(currentPlayer, PLAYER_BITS);
+        for (int player = 0; player < racks.length; player++) {
+            for (int symbol : racks[player]) {
+                out.write(symbol, bitsPerSymbol);
+            }
+            out.write(scores[player], SCORE_BITS);
+        }
+        out.write(bagCount, BAG_BITS);
+        return out.bytes;
+    }
+
+    /**
+     * Reads a position back from its bytes
+     *
+     * @param bytes the code from toBytes()
+     * @param alphabet the alphabet it was made in
+     * @return the position
+     * @throws IllegalArgumentException if the bytes are not a position
+     */
+    public static Position fromBytes(byte[] bytes, Alphabet alphabet) {
+        try {
+            Bits in = new Bits(bytes);
+            int width = bitsPerSymbol(alphabet);
+            int size = in.read(SIZE_BITS);
+            if (size < PremiumLayout.MIN_SIZE || size % 2 == 0) throw new IllegalArgumentException("Board size " + size);
+            byte[] squares = new byte[size * size];
+            for (int i = 0; i < squares.length; i++) {
+                int symbol = in.read(width);
+                if (symbol > alphabet.size()) throw new IllegalArgumentException("No letter " + symbol + " on square " + i);
+                squares[i] = (byte) symbol;
+            }
+            long[] blankRows = new long[size];
+            for (int i = 0; i < squares.length; i++) {
+                if (squares[i] != 0 && in.read(1) == 1) blankRows[i / size] |= 1L << (i % size);
+            }
+            int players = in.read(PLAYER_BITS);
+            int currentPlayer = in.read(PLAYER_BITS);
+            int[][] racks = new int[players][RACK_SIZE];
+            int[] scores = new int[players];
+            for (int player = 0; player < players; player++) {
+                for (int slot = 0; slot < RACK_SIZE; slot++) {
+                    racks[player][slot] = in.read(width);
+                    if (racks[player][slot] > alphabet.size() + 1) throw new IllegalArgumentException("No tile " + racks[player][slot]);
+                }
+                scores[player] = in.read(SCORE_BITS);
+            }
+            Position position = new Position(alphabet, size, squares, blankRows, racks, scores, currentPlayer, in.read(BAG_BITS));
+            if (!Arrays.equals(position.bytes, bytes)) throw new IllegalArgumentException("Not a canonical position");
+            return position;
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Position is cut short");
+        }
+    }
+
+    /**
+     * Reads a position of an English game from its text form
+     *
+     * @param text the code from toString()
+     * @return the position
+     * @throws IllegalArgumentException if the text is not a position
+     */
+    public static Position parse(String text) {
+        return parse(text, Alphabet.ENGLISH);
+    }
+
+    /**
+     * Reads a position from its text form
+     *
+     * @param text the code from toString()
+     * @param alphabet the alphabet of the game, see WordDictionary.getAlphabet()
+     * @return the position
+     * @throws IllegalArgumentException if the text is not a position
+     */
+    public static Position parse(String text, Alphabet alphabet) {
+        return fromBytes(Base64.getUrlDecoder().decode(text), alphabet);
+    }
+
+    /**
+     * Makes a board with the letters and blanks of the position
+     *
+     * @param dictionary the dictionary of the board
+     * @param layout the premium squares, of the same size as the position
+     * @return the new board
+     * @throws IllegalArgumentException if the layout is another size or blocks a square with a letter
+     */
+    public Board toBoard(WordDictionary dictionary, PremiumLayout layout) {
+        if (layout.getSize() != size) {
+            throw new IllegalArgumentException("Position is " + size + "x" + size + " but the layout is " + layout.getSize());
+        }
+        Board board = new Board(dictionary, layout);
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                char letter = getLetterAt(row, col);
+                if (letter == ' ') continue;
+                if (layout.isBlocked(row, col)) {
+                    throw new IllegalArgumentException("Letter on blocked square (" + row + ", " + col + ")");
+                }
+                board.setLetterAt(row, col, letter, isBlank(row, col));
+            }
+        }
+        return board;
+    }
+
+    /**
+     * The same position with the board turned or flipped. Racks, scores and the bag stay the same.
+     *
+     * @param transform 0 to 7, see Symmetry
+     * @return the image of the position
+     */
+    public Position transform(int transform) {
+        if (transform == Symmetry.IDENTITY) return this;
+        byte[] moved = new byte[squares.length];
+        long[] movedBlanks = new long[size];
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                int r = Symmetry.row(transform, size, row, col);
+                int c = Symmetry.col(transform, size, row, col);
+                moved[r * size + c] = squares[row * size + col];
+                if (isBlank(row, col)) movedBlanks[r] |= 1L << c;
+            }
+        }
+        int[][] rackCopies = new int[racks.length][];
+        for (int i = 0; i < racks.length; i++) {
+            rackCopies[i] = racks[i].clone();
+        }
+        return new Position(alphabet, size, moved, movedBlanks, rackCopies, scores.clone(), currentPlayer, bagCount);
+    }
+
+    /**
+     * Finds the transform that gives the smallest bytes among the symmetries of the layout. The
+     * first one wins a tie, so a position that is the same under a turn gets the lower transform.
+     *
+     * @param layout the layout the position is played on, of the same size
+     * @return 0 to 7, 0 if the layout has no symmetry
+     */
+    public int canonicalTransform(PremiumLayout layout) {
+        if (layout.getSize() != size) {
+            throw new IllegalArgumentException("Position is " + size + "x" + size + " but the layout is " + layout.getSize());
+        }
+        int best = Symmetry.IDENTITY;
+        Position smallest = this;
+        for (int transform = 1; transform < Symmetry.COUNT; transform++) {
+            if (!layout.isSymmetric(transform)) continue;
+            Position image = transform(transform);
+            if (image.compareTo(smallest) < 0) {
+                smallest = image;
+                best = transform;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * The smallest image of the position under the symmetries of the layout. Positions that are
+     * turns or flips of each other on that layout get the same canonical position.
+     *
+     * @param layout the layout the position is played on
+     * @return the canonical position, this one if the layout has no symmetry
+     */
+    public Position canonical(PremiumLayout layout) {
+        return transform(canonicalTransform(layout));
+    }
+
+    /**
+     * The rack of a player as tiles, blanks without a letter
+     *
+     * @param player index of the player
+     * @return RACK_SIZE slots, null for an empty slot
+     */
+    public Tile[] getRack(int player) {
+        Tile[] rack = new Tile[RACK_SIZE];
+        int slot = 0;
+        for (int symbol : racks[player]) {
+            if (symbol == 0) continue;
+            rack[slot++] = symbol == alphabet.size() + 1 ? Tile.createBlank() : alphabet.tile(symbol - 1);
+        }
+        return rack;
+    }
+
+    /**
+     * Counts the tiles of each kind that are on the board and in the racks
+     *
+     * @return a count per letter code, blanks at index alphabet size
+     */
+    public int[] getTilesInPlay() {
+        int[] counts = new int[alphabet.size() + 1];
+        for (int i = 0; i < squares.length; i++) {
+            if (squares[i] == 0) continue;
+            counts[isBlank(i / size, i % size) ? alphabet.size() : squares[i] - 1]++;
+        }
+        for (int[] rack : racks) {
+            for (int symbol : rack) {
+                if (symbol != 0) counts[symbol - 1]++;
+            }
+        }
+        return counts;
+    }
+
+    public char getLetterAt(int row, int col) {
+        int symbol = squares[row * size + col];
+        return symbol == 0 ? ' ' : alphabet.symbol(symbol - 1);
+    }
+
+    public boolean isBlank(int row, int col) {
+        return (blankRows[row] & (1L << col)) != 0;
+    }
+
+    public int getSize() { return size; }
+    public int getPlayerCount() { return racks.length; }
+    public int getScore(int player) { return scores[player]; }
+    public int getCurrentPlayer() { return currentPlayer; }
+    public int getBagCount() { return bagCount; }
+    public Alphabet getAlphabet() { return alphabet; }
+
+    /**
+     * The canonical code
+     *
+     * @return a copy of the bytes
+     */
+    public byte[] toBytes() {
+        return bytes.clone();
+    }
+
+    /**
+     * The code as URL safe Base64 text, for files and messages
+     */
+    @Override
+    public String toString() {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Position && Arrays.equals(bytes, ((Position) o).bytes);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(bytes);
+    }
+
+    /**
+     * Orders positions by their bytes, so sorting puts equal positions next to each other
+     */
+    @Override
+    public int compareTo(Position other) {
+        return Arrays.compareUnsigned(bytes, other.bytes);
+    }
+
+    /**
+     * Reads and writes numbers of a few bits, highest bit first
+     */
+    private static final class Bits {
+        final byte[] bytes;
+        int position;
+
+        Bits(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        void write(int value, int bits) {
+            for (int bit = bits - 1; bit >= 0; bit--, position++) {
+                if (((value >>> bit) & 1) != 0) bytes[position >>> 3] |= (byte) (0x80 >>> (position & 7));
+            }
+        }
+
+        int read(int bits) {
+            int value = 0;
+            for (int i = 0; i < bits; i++, position++) {
+                value = (value << 1) | ((bytes[position >>> 3] >>> (7 - (position & 7))) & 1);
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,199 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+/**
+ * JUnit tests for the Position class.
+ *
+ * Tests that a position survives the round trip through bytes and text, that the same game
+ * state always gives the same code, that turned and flipped boards share a canonical position,
+ * and that a game can be put back in a saved position, in its own alphabet.
+ *
+ */
+class PositionTest {
+
+    @Test
+    void testBoardRoundTripAndCanonicalForm() {
+        WordDictionary dictionary = new WordDictionary("ValidWords.txt");
+        Board board = new Board(dictionary);
+        board.setLetterAt(7, 7, 'C');
+        board.setLetterAt(7, 8, 'A', true);
+        board.setLetterAt(7, 9, 'T');
+
+        Player one = new Player("One");
+        Player two = new Player("Two");
+        one.setAvailableTiles(new Tile[] {Tile.getTile('Q'), Tile.getTile('E'), Tile.createBlank(), null, null, null, null});
+        two.setAvailableTiles(new Tile[] {Tile.getTile('Z'), Tile.getTile('A'), Tile.getTile('R'), Tile.getTile('S'),
+                                          Tile.getTile('T'), Tile.getTile('O'), Tile.getTile('N')});
+        two.setScore(123);
+        Position position = Position.of(board, new Player[] {one, two}, 1, 80);
+
+        assertTrue(position.toBytes().length < 200, "position is " + position.toBytes().length + " bytes");
+        Position parsed = Position.parse(position.toString());
+        assertEquals(position, parsed);
+        assertEquals(0, position.compareTo(parsed));
+        assertEquals(1, parsed.getCurrentPlayer());
+        assertEquals(123, parsed.getScore(1));
+        assertEquals(80, parsed.getBagCount());
+
+        Board copy = parsed.toBoard(dictionary, PremiumLayout.STANDARD);
+        assertEquals('A', copy.getLetterAt(7, 8));
+        assertTrue(copy.isBlankAt(7, 8));
+        assertFalse(copy.isBlankAt(7, 7));
+        assertEquals(' ', copy.getLetterAt(0, 0));
+        assertEquals(position, Position.of(copy, new Player[] {one, two}, 1, 80));
+
+        //the order of a rack does not change the code
+        one.setAvailableTiles(new Tile[] {null, Tile.createBlank(), null, Tile.getTile('E'), null, Tile.getTile('Q'), null});
+        assertEquals(position, Position.of(board, new Player[] {one, two}, 1, 80));
+        int blanks = 0;
+        for (Tile tile : parsed.getRack(0)) {
+            if (tile != null && tile.isBlank()) blanks++;
+        }
+        assertEquals(1, blanks);
+
+        board.setLetterAt(7, 8, 'A');   //a real A is another position
+        assertNotEquals(position, Position.of(board, new Player[] {one, two}, 1, 80));
+        assertThrows(IllegalArgumentException.class, () -> Position.fromBytes(new byte[3], Alphabet.ENGLISH));
+    }
+
+    @Test
+    void testGameRoundTrip() {
+        ScrabbleModel model = new ScrabbleModel();
+        model.addPlayer("Alice");
+        model.addPlayer("Bob");
+        model.getPlayers().get(1).setScore(42);
+        Position saved = model.getPosition();
+
+        ScrabbleModel other = new ScrabbleModel();
+        other.addPlayer("Carol");
+        other.addPlayer("Dave");
+        other.setPosition(saved);
+        assertEquals(saved, other.getPosition());
+        assertEquals(42, other.getPlayers().get(1).getScore());
+        assertEquals(102 - 14, other.getPosition().getBagCount());
+
+        //letters that did not come out of the bag do not add up
+        model.getBoard().setLetterAt(7, 7, 'H');
+        Position extra = model.getPosition();
+        other.getPlayers().get(0).setScore(77);
+        Position before = other.getPosition();
+        assertThrows(IllegalArgumentException.class, () -> other.setPosition(extra));
+        assertEquals(before, other.getPosition());   //and the game is left as it was
+        assertEquals(77, other.getPlayers().get(0).getScore());
+
+        ScrabbleModel three = new ScrabbleModel();
+        three.addPlayer("A");
+        three.addPlayer("B");
+        three.addPlayer("C");
+        assertThrows(IllegalArgumentException.class, () -> three.setPosition(saved));
+    }
+
+    @Test
+    void testSymmetricPositionsShareCanonicalForm() {
+        WordDictionary dictionary = new WordDictionary("ValidWords.txt");
+        Board across = new Board(dictionary);
+        across.setLetterAt(7, 5, 'C');
+        across.setLetterAt(7, 6, 'A', true);
+        across.setLetterAt(7, 7, 'T');
+        Board down = new Board(dictionary);
+        down.setLetterAt(9, 7, 'C');
+        down.setLetterAt(8, 7, 'A', true);
+        down.setLetterAt(7, 7, 'T');
+
+        for (int transform = 0; transform < Symmetry.COUNT; transform++) {
+            assertTrue(PremiumLayout.STANDARD.isSymmetric(transform));
+            assertEquals(transform, Symmetry.inverse(Symmetry.inverse(transform)));
+            int row = Symmetry.row(transform, 15, 2, 9);
+            int col = Symmetry.col(transform, 15, 2, 9);
+            int back = Symmetry.inverse(transform);
+            assertEquals(2, Symmetry.row(back, 15, row, col));
+            assertEquals(9, Symmetry.col(back, 15, row, col));
+        }
+
+        Position one = Position.of(across);
+        Position other = Position.of(down);
+        assertNotEquals(one, other);
+        Position canonical = one.canonical(PremiumLayout.STANDARD);
+        assertEquals(canonical, other.canonical(PremiumLayout.STANDARD));
+        assertEquals(canonical, canonical.canonical(PremiumLayout.STANDARD));
+        assertEquals(one, canonical.transform(Symmetry.inverse(one.canonicalTransform(PremiumLayout.STANDARD))));
+
+        //a move found on the canonical board maps back onto the real one
+        int transform = other.canonicalTransform(PremiumLayout.STANDARD);
+        AI.PlaceWord move = new AI.PlaceWord(new int[] {10}, new int[] {7}, new Tile[] {Tile.getTile('S')}, 6, "TACS".toCharArray());
+        AI.PlaceWord onCanonical = Symmetry.apply(transform, 15, move);
+        AI.PlaceWord back = Symmetry.apply(Symmetry.inverse(transform), 15, onCanonical);
+        assertEquals(10, back.rows[0]);
+        assertEquals(7, back.cols[0]);
+        assertEquals(' ', canonical.getLetterAt(onCanonical.rows[0], onCanonical.cols[0]));
+
+        //a layout that is only the same flipped left to right keeps the other images apart
+        int[][] letter = PremiumLayout.STANDARD.getLetterMultipliers();
+        int[][] word = PremiumLayout.STANDARD.getWordMultipliers();
+        letter[0][7] = 3;
+        letter[14][7] = 1;
+        PremiumLayout lopsided = PremiumLayout.of(letter, word);
+        assertTrue(lopsided.isSymmetric(Symmetry.IDENTITY));
+        assertTrue(lopsided.isSymmetric(2));
+        assertFalse(lopsided.isSymmetric(1));
+        assertFalse(lopsided.isSymmetric(4));
+        assertNotEquals(one.canonical(lopsided), other.canonical(lopsided));
+    }
+
+    @Test
+    void testInvalidPositionsAreRejected() {
+        Board board = new Board(new WordDictionary("ValidWords.txt"));
+        Player[] players = {new Player("One"), new Player("Two")};
+        assertThrows(IllegalArgumentException.class, () -> Position.of(board, players, 2, 0));
+        assertThrows(IllegalArgumentException.class, () -> Position.of(board, new Player[0], 1, 0));
+
+        //the same bits with player 5 to move, after the size, the empty squares and the player count
+        byte[] bytes = Position.of(board, players, 1, 0).toBytes();
+        int turnBit = 6 + 15 * 15 * 5 + 3;
+        for (int bit = 0; bit < 3; bit++) {
+            int mask = 0x80 >>> ((turnBit + bit) & 7);
+            if (((5 >> (2 - bit)) & 1) != 0) bytes[(turnBit + bit) >>> 3] |= (byte) mask;
+            else bytes[(turnBit + bit) >>> 3] &= (byte) ~mask;
+        }
+        byte[] turnFive = bytes;
+        assertThrows(IllegalArgumentException.class, () -> Position.fromBytes(turnFive, Alphabet.ENGLISH));
+
+        //an even board size
+        byte[] even = Position.of(board).toBytes();
+        even[0] = (byte) ((14 << 2) | (even[0] & 3));
+        assertThrows(IllegalArgumentException.class, () -> Position.fromBytes(even, Alphabet.ENGLISH));
+    }
+
+    @Test
+    void testSpanishGameRoundTrip() throws IOException {
+        File words = File.createTempFile("palabras", ".txt");
+        words.deleteOnExit();
+        Files.write(words.toPath(), List.of("chico", "calle", "perro"), StandardCharsets.UTF_8);
+        LexiconService service = LexiconService.getDefault();
+        LexiconService.Version before = service.getCurrent();
+        service.publish(WordDictionary.load(words.getPath(), false, Alphabet.SPANISH));
+        try {
+            //the bag and tiles come from the game's dictionary, not from a process wide alphabet
+            ScrabbleModel model = new ScrabbleModel();
+            model.addPlayer("Alice");
+            model.addPlayer("Bob");
+            Position saved = model.getPosition();
+            assertEquals(100 - 14, saved.getBagCount());
+
+            ScrabbleModel other = new ScrabbleModel();
+            other.addPlayer("Carol");
+            other.addPlayer("Dave");
+            other.setPosition(Position.parse(saved.toString(), Alphabet.SPANISH));
+            assertEquals(saved, other.getPosition());
+        } finally {
+            service.publish(before.getDictionary());
+        }
+        Alphabet spanish = Alphabet.SPANISH;
+        assertEquals("CH", Tile.getTile(spanish.toSymbols("CH").charAt(0), spanish).toString());
+    }
+}
@@ -0,0 +1,363 @@
+import java.io.Serializable;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * PremiumLayout is the pattern of premium squares on a board: the letter and word multiplier of
+ * every square. Layouts never change once made, so every Board using the same pattern shares one
+ * instance and making a board does not copy or fill any multiplier grid.
+ *
+ * The multipliers are kept in two flat byte arrays, square (row, col) at index row * size + col.
+ * Layouts are interned: of() returns the existing instance when one with the same multipliers
+ * was made before, so two games with the same custom layout file share it too.
+ *
+ * The layout also decides the size of the board: STANDARD is 15x15 and SUPER is the 21x21 Super
+ * Scrabble board, which adds quadruple letter and word squares. The centre square is the middle
+ * one, so sizes are odd.
+ *
+ * A layout can block squares, for boards that are not square such as a cross. No tile can go on
+ * a blocked square and words stop at it. Blocked squares are kept as bit masks, one long per row
+ * (bit col) and one per column (bit row), so checking a whole run of squares is a shift and an
+ * AND instead of a loop.
+ *
+ * Each layout knows which of the 8 turns and flips of the board (see Symmetry) leave it the same;
+ * the standard and Super boards have all 8.
+ */
+public final class PremiumLayout implements Serializable {
+    private static final long serialVersionUID = 1L;
+    //weak both ways, so a layout no board or file cache uses any more, e.g. an old version of an
+    //edited layout file, can be collected; STANDARD and SUPER stay since the fields hold them
+    private static final Map<PremiumLayout, WeakReference<PremiumLayout>> INTERNED = new WeakHashMap<>();
+
+    //premium squares of the standard 15x15 board, as {row, col}
+    private static final int[][] DOUBLE_LETTER = {
+            {0, 3}, {0, 11}, {2, 6}, {2, 8}, {3, 0}, {3, 7}, {3, 14}, {6, 2}, {6, 6}, {6, 8}, {6, 12}, {7, 3},
+            {7, 11}, {8, 2}, {8, 6}, {8, 8}, {8, 12}, {11, 0}, {11, 7}, {11, 14}, {12, 6}, {12, 8}, {14, 3}, {14, 11}};
+    private static final int[][] TRIPLE_LETTER = {
+            {1, 5}, {1, 9}, {5, 1}, {5, 5}, {5, 9}, {5, 13}, {9, 1}, {9, 5}, {9, 9}, {9, 13}, {13, 5}, {13, 9}};
+    private static final int[][] DOUBLE_WORD = {
+            {1, 1}, {1, 13}, {2, 2}, {2, 12}, {3, 3}, {3, 11}, {4, 4}, {4, 10}, {7, 7}, {10, 4}, {10, 10},
+            {11, 3}, {11, 11}, {12, 2}, {12, 12}, {13, 1}, {13, 13}};
+    private static final int[][] TRIPLE_WORD = {
+            {0, 0}, {0, 7}, {0, 14}, {7, 0}, {7, 14}, {14, 0}, {14, 7}, {14, 14}};
+
+    //a quarter of the 21x21 Super Scrabble style board, rows and columns 0-10 with the centre at
+    //the bottom right; the rest is its mirror image. d/t/q are 2/3/4 times letter, D/T/Q word
+    private static final String[] SUPER_QUARTER = {
+            "Q..d...T..d",
+            ".D..t...D..",
+            "..D..q...D.",
+            "d..T..d...D",
+            ".t..D...t..",
+            "..q..D...d.",
+            "...d..D...d",
+            "T......D...",
+            ".D..t...d..",
+            "..D..d...d.",
+            "d..D..d...D"};
+
+    public static final int MIN_SIZE = 3;
+    public static final int MAX_SIZE = 63;     //a row of squares still fits in the bits of a long
+
+    public static final PremiumLayout STANDARD = standard();
+    public static final PremiumLayout SUPER = superScrabble();
+
+    private final int size;
+    private final byte[] letterMultipliers;
+    private final byte[] wordMultipliers;
+    private final long[] blockedRows;     //bit col of blockedRows[row] is set if the square is blocked
+    private final long[] blockedCols;     //the same bits by column, bit row of blockedCols[col]
+    private final int hash;
+    private final transient int symmetries;   //bit t set if transform t maps the layout onto itself
+
+    private PremiumLayout(int size, byte[] letterMultipliers, byte[] wordMultipliers, long[] blockedRows) {
+        this.size = size;
+        this.letterMultipliers = letterMultipliers;
+        this.wordMultipliers = wordMultipliers;
+        this.blockedRows = blockedRows;
+        this.blockedCols = new long[size];
+        for (int row = 0; row < size; row++) {
+            for (long bits = blockedRows[row]; bits != 0; bits &= bits - 1) {
+                blockedCols[Long.numberOfTrailingZeros(bits)] |= 1L << row;
+            }
+        }
+        this.hash = 31 * (31 * (31 * size + Arrays.hashCode(letterMultipliers)) + Arrays.hashCode(wordMultipliers))
+                + Arrays.hashCode(blockedRows);
+        this.symmetries = findSymmetries();
+    }
+
+    private int findSymmetries() {
+        int found = 0;
+        for (int transform = 0; transform < Symmetry.COUNT; transform++) {
+            if (mapsOntoItself(transform)) found |= 1 << transform;
+        }
+        return found;
+    }
+
+    private boolean mapsOntoItself(int transform) {
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                int r = Symmetry.row(transform, size, row, col);
+                int c = Symmetry.col(transform, size, row, col);
+                if (letterMultipliers[row * size + col] != letterMultipliers[r * size + c]
+                        || wordMultipliers[row * size + col] != wordMultipliers[r * size + c]
+                        || isBlocked(row, col) != isBlocked(r, c)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static PremiumLayout standard() {
+        int size = 15;
+        byte[] letter = new byte[size * size];
+        byte[] word = new byte[size * size];
+        Arrays.fill(letter, (byte) 1);
+        Arrays.fill(word, (byte) 1);
+        for (int[] square : DOUBLE_LETTER) letter[square[0] * size + square[1]] = 2;
+        for (int[] square : TRIPLE_LETTER) letter[square[0] * size + square[1]] = 3;
+        for (int[] square : DOUBLE_WORD) word[square[0] * size + square[1]] = 2;
+        for (int[] square : TRIPLE_WORD) word[square[0] * size + square[1]] = 3;
+        return intern(new PremiumLayout(size, letter, word, new long[size]));
+    }
+
+    private static PremiumLayout superScrabble() {
+        int size = 2 * SUPER_QUARTER.length - 1;
+        int[][] letter = new int[size][size];
+        int[][] word = new int[size][size];
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                char square = SUPER_QUARTER[Math.min(row, size - 1 - row)].charAt(Math.min(col, size - 1 - col));
+                int multiplier = "..dtq".indexOf(Character.toLowerCase(square));
+                letter[row][col] = Character.isLowerCase(square) ? multiplier : 1;
+                word[row][col] = Character.isUpperCase(square) ? multiplier : 1;
+            }
+        }
+        return of(letter, word);
+    }
+
+    /**
+     * Gets the shared layout with the given multipliers. The grids are copied, so the caller may
+     * keep changing them.
+     *
+     * @param letterMultipliers letter multiplier of each square, [row][col]
+     * @param wordMultipliers word multiplier of each square, [row][col]
+     * @return the interned layout
+     * @throws IllegalArgumentException if the grids are not square and the same size, the size is
+     *         even or outside MIN_SIZE to MAX_SIZE, or a multiplier is outside 1 to 127
+     */
+    public static PremiumLayout of(int[][] letterMultipliers, int[][] wordMultipliers) {
+        return of(letterMultipliers, wordMultipliers, null);
+    }
+
+    /**
+     * Gets the shared layout with the given multipliers and blocked squares
+     *
+     * @param letterMultipliers letter multiplier of each square, [row][col]
+     * @param wordMultipliers word multiplier of each square, [row][col]
+     * @param blocked true for each square no tile can go on, [row][col], null for none
+     * @return the interned layout
+     * @throws IllegalArgumentException if the grids do not match, the size is wrong, a multiplier
+     *         is outside 1 to 127 or the centre square is blocked
+     */
+    public static PremiumLayout of(int[][] letterMultipliers, int[][] wordMultipliers, boolean[][] blocked) {
+        int size = letterMultipliers.length;
+        if (wordMultipliers.length != size) {
+            throw new IllegalArgumentException("Letter and word multiplier grids differ in size");
+        }
+        if (size < MIN_SIZE || size > MAX_SIZE || size % 2 == 0) {
+            throw new IllegalArgumentException("Board size " + size + " must be odd and " + MIN_SIZE + "-" + MAX_SIZE);
+        }
+        byte[] letter = new byte[size * size];
+        byte[] word = new byte[size * size];
+        for (int row = 0; row < size; row++) {
+            if (letterMultipliers[row].length != size || wordMultipliers[row].length != size) {
+                throw new IllegalArgumentException("Multiplier grids must be " + size + " by " + size);
+            }
+            for (int col = 0; col < size; col++) {
+                letter[row * size + col] = toByte(letterMultipliers[row][col]);
+                word[row * size + col] = toByte(wordMultipliers[row][col]);
+            }
+        }
+        long[] blockedRows = new long[size];
+        if (blocked != null) {
+            if (blocked.length != size) {
+                throw new IllegalArgumentException("Blocked squares grid must be " + size + " by " + size);
+            }
+            for (int row = 0; row < size; row++) {
+                if (blocked[row].length != size) {
+                    throw new IllegalArgumentException("Blocked squares grid must be " + size + " by " + size);
+                }
+                for (int col = 0; col < size; col++) {
+                    if (blocked[row][col]) blockedRows[row] |= 1L << col;
+                }
+            }
+            if (blocked[size / 2][size / 2]) {
+                throw new IllegalArgumentException("The centre square can't be blocked");
+            }
+        }
+        return intern(new PremiumLayout(size, letter, word, blockedRows));
+    }
+
+    private static byte toByte(int multiplier) {
+        if (multiplier < 1 || multiplier > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("Multiplier " + multiplier + " outside 1-" + Byte.MAX_VALUE);
+        }
+        return (byte) multiplier;
+    }
+
+    private static PremiumLayout intern(PremiumLayout layout) {
+        synchronized (INTERNED) {
+            WeakReference<PremiumLayout> shared = INTERNED.get(layout);
+            PremiumLayout existing = shared != null ? shared.get() : null;
+            if (existing != null) return existing;
+            INTERNED.put(layout, new WeakReference<>(layout));
+            return layout;
+        }
+    }
+
+    /**
+     * A saved game gets the shared instance back instead of its own copy. Games saved before
+     * blocked squares existed have no masks, they get a layout with none blocked. The layout is
+     * made again so the symmetries, which are not saved, are worked out.
+     */
+    private Object readResolve() {
+        return intern(new PremiumLayout(size, letterMultipliers, wordMultipliers,
+                blockedRows == null ? new long[size] : blockedRows));
+    }
+
+    /**
+     * Letter multiplier of a square
+     *
+     * @param row the row
+     * @param col the column
+     * @return 1 for a plain square, 2 or more for a letter premium
+     */
+    public int letterMultiplier(int row, int col) {
+        return letterMultipliers[row * size + col];
+    }
+
+    /**
+     * Word multiplier of a square
+     *
+     * @param row the row
+     * @param col the column
+     * @return 1 for a plain square, 2 or more for a word premium
+     */
+    public int wordMultiplier(int row, int col) {
+        return wordMultipliers[row * size + col];
+    }
+
+    /**
+     * Number of rows (and columns) of the board
+     *
+     * @return the board size
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Checks if a square is blocked
+     *
+     * @param row the row
+     * @param col the column
+     * @return true if no tile can go there
+     */
+    public boolean isBlocked(int row, int col) {
+        return (blockedRows[row] & (1L << col)) != 0;
+    }
+
+    /**
+     * Checks if any square of a run is blocked, e.g. the squares a word would cover
+     *
+     * @param row row of the first square
+     * @param col column of the first square
+     * @param length number of squares, to the right or down, at most the board size
+     * @param horizontal true for a run along the row, false down the column
+     * @return true if one of the squares is blocked
+     */
+    public boolean isAnyBlocked(int row, int col, int length, boolean horizontal) {
+        long mask = horizontal ? blockedRows[row] >>> col : blockedCols[col] >>> row;
+        return (mask & ((1L << length) - 1)) != 0;
+    }
+
+    /**
+     * Checks if the layout blocks any square
+     *
+     * @return true for an irregular board
+     */
+    public boolean hasBlockedSquares() {
+        for (long row : blockedRows) {
+            if (row != 0) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Checks if turning or flipping the board leaves every premium and blocked square where it
+     * was, so a position and its image play the same
+     *
+     * @param transform 0 to 7, see Symmetry
+     * @return true if the layout has that symmetry
+     */
+    public boolean isSymmetric(int transform) {
+        return (symmetries & (1 << transform)) != 0;
+    }
+
+    /**
+     * Row and column of the centre square, which the first word must cover
+     *
+     * @return size / 2
+     */
+    public int getCenter() {
+        return size / 2;
+    }
+
+    /**
+     * Copy of the letter multipliers as a grid, for code that wants [row][col] arrays
+     *
+     * @return a new grid
+     */
+    public int[][] getLetterMultipliers() {
+        return toGrid(letterMultipliers);
+    }
+
+    /**
+     * Copy of the word multipliers as a grid
+     *
+     * @return a new grid
+     */
+    public int[][] getWordMultipliers() {
+        return toGrid(wordMultipliers);
+    }
+
+    private int[][] toGrid(byte[] flat) {
+        int[][] grid = new int[size][size];
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                grid[row][col] = flat[row * size + col];
+            }
+        }
+        return grid;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof PremiumLayout)) return false;
+        PremiumLayout other = (PremiumLayout) o;
+        return size == other.size && hash == other.hash
+                && Arrays.equals(letterMultipliers, other.letterMultipliers)
+                && Arrays.equals(wordMultipliers, other.wordMultipliers)
+                && Arrays.equals(blockedRows, other.blockedRows);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+}
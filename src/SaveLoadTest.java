@@ -1,6 +1,8 @@
 import org.junit.jupiter.api.*;
 import static org.junit.jupiter.api.Assertions.*;
 import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
 import java.util.Stack;
 
 /**
@@ -10,6 +12,8 @@ import java.util.Stack;
  * - Player state = make sure after saving and loading the state of the players is correct, points, turn, name, count
  * - Undo Stack = make sure after saving and laoding the undo stack has been saved, correct moves
  * - Board state = make sure after saving anf loading that the board has the correct tiles on it.
+ * - Word ids = kept when the word list is the same, dropped when it changed since the save.
+ * - First release = a game saved by the first release (FirstReleaseSave.ser) still loads.
  *
  */
 
@@ -130,4 +134,63 @@ public class SaveLoadTest {
         assertEquals('H', loadedBoard.getLetterAt(7, 7), "Center should be H");
         assertEquals('I', loadedBoard.getLetterAt(0, 0), "Top Left should be I");
     }
+
+    @Test
+    public void testWordIdsCheckedAgainstWordList() throws Exception {
+        model.addPlayer("Bob");
+        model.game(controller, 1);
+        int catId = model.getBoard().getWordDictionary().wordId("CAT");
+        model.getPlayers().get(0).setWordsThisTurn(new int[] {catId});
+        model.serializeToFile(TEST_FILENAME);
+
+        ScrabbleModel sameList = new ScrabbleModel();
+        sameList.addView(new TestSafeMockView(new ScrabbleController(sameList, null)));
+        sameList.deserializeFromFile(TEST_FILENAME);
+        assertArrayEquals(new int[] {catId}, sameList.getPlayers().get(0).getWordsThisTurn());
+
+        //a reload of the word list that gives CAT another id
+        LexiconService service = LexiconService.getDefault();
+        LexiconService.Version before = service.getCurrent();
+        File words = File.createTempFile("words", ".txt");
+        words.deleteOnExit();
+        Files.write(words.toPath(), List.of("AA", "CAT"));
+        service.publish(WordDictionary.load(words.getPath(), false));
+        try {
+            ScrabbleModel newList = new ScrabbleModel();
+            newList.addView(new TestSafeMockView(new ScrabbleController(newList, null)));
+            newList.deserializeFromFile(TEST_FILENAME);
+            assertEquals(0, newList.getPlayers().get(0).getWordsThisTurn().length, "ids of the old list are dropped");
+        } finally {
+            service.publish(before.getDictionary());
+        }
+    }
+
+    @Test
+    public void testLoadFirstReleaseSave() {
+        //saved by the first release: Bob played TEST for 8 with a blank as the S, the top left square triples letters.
+        //The saved classes keep the serialVersionUIDs of that release so this still reads
+        model.deserializeFromFile("FirstReleaseSave.ser");
+
+        List<Player> players = model.getPlayers();
+        assertEquals(2, players.size());
+        Player bob = players.get(0);
+        assertEquals("Bob", bob.getName());
+        assertEquals(8, bob.getScore());
+        assertEquals(0, bob.getWordsThisTurn().length, "the first release kept words, not ids");
+        assertEquals(7, bob.getAvailableTiles().length);
+        assertTrue(players.get(1) instanceof AI);
+
+        Board board = model.getBoard();
+        assertEquals("TEST", "" + board.getLetterAt(7, 7) + board.getLetterAt(7, 8)
+                + board.getLetterAt(7, 9) + board.getLetterAt(7, 10));
+        assertEquals(3, board.getLayout().letterMultiplier(0, 0), "multipliers become the layout");
+        assertEquals(2, board.getLayout().wordMultiplier(7, 7));
+
+        Stack<ScrabbleModel.MoveState> undo = model.getUndoStack(bob);
+        assertFalse(undo.isEmpty());
+        Tile blank = undo.peek().getTiles()[2];
+        assertTrue(blank.isBlank());
+        assertEquals('S', blank.getAssignedLetter());
+        assertEquals(0, undo.peek().getWordIds().length);
+    }
 }
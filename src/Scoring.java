@@ -7,28 +7,27 @@ import java.util.*;
  * @version 21/10/2025
  */
 public class Scoring {
-    private static final Map<Character, Integer> LETTER_VALUES = new HashMap<>();
-    static{
-        LETTER_VALUES.put('A', 1); LETTER_VALUES.put('B', 3); LETTER_VALUES.put('C', 3);
-        LETTER_VALUES.put('D', 2); LETTER_VALUES.put('E', 1); LETTER_VALUES.put('F', 4);
-        LETTER_VALUES.put('G', 2); LETTER_VALUES.put('H', 4); LETTER_VALUES.put('I', 1);
-        LETTER_VALUES.put('J', 8); LETTER_VALUES.put('K', 5); LETTER_VALUES.put('L', 1);
-        LETTER_VALUES.put('M', 3); LETTER_VALUES.put('N', 1); LETTER_VALUES.put('O', 1);
-        LETTER_VALUES.put('P', 3); LETTER_VALUES.put('Q', 10); LETTER_VALUES.put('R', 1);
-        LETTER_VALUES.put('S', 1); LETTER_VALUES.put('T', 1); LETTER_VALUES.put('U', 1);
-        LETTER_VALUES.put('V', 4); LETTER_VALUES.put('W', 4); LETTER_VALUES.put('X', 8);
-        LETTER_VALUES.put('Y', 4); LETTER_VALUES.put('Z', 10);
-    }
-
     /**
-     * Gets the value of the tile depending on what letter that tile represents
+     * Gets the value of the English tile depending on what letter that tile represents.
      *
      * @param letter
      * @return the value of the inputted letter. If letter is blank, a default value
      * of 0 is returned.
      */
     public static int getLetterValue(char letter){
-        return LETTER_VALUES.getOrDefault(Character.toUpperCase(letter), 0);
+        return getLetterValue(letter, Alphabet.ENGLISH);
+    }
+
+    /**
+     * Gets the value of a letter in an alphabet, read by letter code, see Alphabet.
+     *
+     * @param letter the letter's symbol
+     * @param alphabet the alphabet of the game
+     * @return the value of the letter, 0 for a blank or a char that is not in the alphabet
+     */
+    public static int getLetterValue(char letter, Alphabet alphabet){
+        int code = alphabet.code(letter);
+        return code == Alphabet.NONE ? 0 : alphabet.value(code);
     }
 
     /**
@@ -151,8 +151,8 @@ public class ScrabbleEvent extends EventObject {
         List<Character> lettersList = new ArrayList<>();
 
         char[][] boardChars = board.getCharBoard();
-        for (int r = 0; r < Board.SIZE; r++) {
-            for (int c = 0; c < Board.SIZE; c++) {
+        for (int r = 0; r < board.getSize(); r++) {
+            for (int c = 0; c < board.getSize(); c++) {
                 char letter = boardChars[r][c];
                 if (letter != ' ') {
                     rowsList.add(r);
@@ -29,6 +29,10 @@ public class ScrabbleModel implements Serializable
     private Player currentPlayer;
     private Player lastPlayerWhoMoved;
     private TileBag tileBag;
+    private int turnNumber;          // turns taken so far, recorded with each placed tile
+    private boolean superScrabble;   // 21x21 board with the 200 tile bag
+    private long lexiconFingerprint; // WordDictionary.getFingerprint() of the list the saved word ids come from
+    private transient WordSubset aiVocabulary;   // words the AI players may play, null for all
     private transient List<BoardObserver> boardObservers;
 
 
@@ -43,17 +47,115 @@ public class ScrabbleModel implements Serializable
      */
     public ScrabbleModel()
     {
-        this.board = new Board(new WordDictionary("ValidWords.txt"));
+        this.board = new Board(LexiconService.getDefault().pin());
         this.players = new ArrayList<>();
         this.currentPlayerIndex = 0;
-        this.tileBag = new TileBag();
+        this.tileBag = new TileBag(board.getWordDictionary().getAlphabet());
         currentPlayer = null;
         boardObservers = new ArrayList<>();
     }
 
+    /**
+     * Plays on the premium squares of a layout. The Super Scrabble layout brings its 200 tile bag
+     * and any other layout the normal bag, so a game set to Super Scrabble goes back to the
+     * normal bag. Must be called before the players are added, since they draw from the bag.
+     * @param layout the board layout
+     */
     public void setBoardLayout(BoardLayout layout) {
-        board = new Board(new WordDictionary("ValidWords.txt"));
-        board.setTileMultipliers(layout.getLetterMultipliers(), layout.getWordMultipliers());
+        board = new Board(board.getWordDictionary(), layout.getPremiumLayout());   //same game, keep its word list version
+        boolean superLayout = board.getLayout() == PremiumLayout.SUPER;
+        if (superLayout != superScrabble) {
+            superScrabble = superLayout;
+            tileBag = new TileBag(bagAlphabet());
+        }
+    }
+
+    /**
+     * Letters and counts of a full bag for the game: the 200 tile bag for Super Scrabble,
+     * otherwise the tiles of the dictionary's alphabet
+     */
+    private Alphabet bagAlphabet() {
+        return superScrabble ? Alphabet.SUPER_ENGLISH : board.getWordDictionary().getAlphabet();
+    }
+
+    /**
+     * Limits the words the AI players may play, e.g. to common words for an easy AI. Must be
+     * called before the game starts; it stays in place when a saved game is loaded.
+     * @param vocabulary word ids of the game's dictionary, null for every word
+     */
+    public void setAIVocabulary(WordSubset vocabulary) {
+        aiVocabulary = vocabulary;
+    }
+
+    /**
+     * Switches the game to Super Scrabble: the 21x21 board and a bag of 200 tiles. Must be
+     * called before the players are added, since they draw their tiles from the bag.
+     */
+    public void setSuperScrabble() {
+        board = new Board(board.getWordDictionary(), PremiumLayout.SUPER);
+        tileBag = new TileBag(Alphabet.SUPER_ENGLISH);
+        superScrabble = true;
+    }
+
+    /**
+     * The position of the game: board, racks, scores, whose turn it is and the bag count
+     *
+     * @return the compact canonical position
+     */
+    public Position getPosition() {
+        return Position.of(board, players.toArray(new Player[0]), currentPlayerIndex, tileBag.size());
+    }
+
+    /**
+     * Puts the game in a position. The players must already be in the game and keep their
+     * names; the bag gets the tiles of a full bag that are not on the board or in a rack. The
+     * board keeps its premium squares and undo/redo starts over from the position.
+     *
+     * @param position the position, e.g. from getPosition() or Position.parse()
+     * @throws IllegalArgumentException if the position has another number of players, board size
+     *         or alphabet, or its tiles and bag count do not add up to a full bag; the game is
+     *         then left as it was
+     */
+    public void setPosition(Position position) {
+        //everything is checked before anything changes, so a bad position leaves the game as it was
+        if (position.getPlayerCount() != players.size()) {
+            throw new IllegalArgumentException("Position has " + position.getPlayerCount() + " players, the game has " + players.size());
+        }
+        if (position.getAlphabet().signature() != board.getWordDictionary().getAlphabet().signature()) {
+            throw new IllegalArgumentException("Position is in " + position.getAlphabet().getName()
+                    + ", the game is in " + board.getWordDictionary().getAlphabet().getName());
+        }
+        Board newBoard = position.toBoard(board.getWordDictionary(), board.getLayout());
+        TileBag newBag = new TileBag(bagAlphabet());
+        Alphabet alphabet = position.getAlphabet();
+        int[] inPlay = position.getTilesInPlay();
+        for (int code = 0; code < inPlay.length; code++) {
+            char letter = code == alphabet.size() ? ' ' : alphabet.symbol(code);
+            for (int i = 0; i < inPlay[code]; i++) {
+                if (!newBag.removeTile(letter, code == alphabet.size())) {
+                    throw new IllegalArgumentException("Position has more " + (letter == ' ' ? "blank" : String.valueOf(letter))
+                            + " tiles than the bag");
+                }
+            }
+        }
+        if (newBag.size() != position.getBagCount()) {
+            throw new IllegalArgumentException("Position says " + position.getBagCount() + " tiles in the bag, the rest make " + newBag.size());
+        }
+
+        board = newBoard;
+        tileBag = newBag;
+        for (int i = 0; i < players.size(); i++) {
+            Player player = players.get(i);
+            player.setAvailableTiles(position.getRack(i));
+            player.setScore(position.getScore(i));
+            undoStacks.get(player).clear();
+            redoStacks.get(player).clear();
+            undoStacks.get(player).push(new MoveState(new int[0], new int[0], new Tile[0],
+                    copyRack(player.getAvailableTiles()), player.getScore()));
+        }
+        currentPlayerIndex = position.getCurrentPlayer();
+        currentPlayer = players.isEmpty() ? null : players.get(currentPlayerIndex);
+        rebuildAI();
     }
 
     /**
@@ -65,6 +167,9 @@ public class ScrabbleModel implements Serializable
     private Tile[] tiles;     // tiles placed
     private Tile[] rackSnapshot;  // player's rack after move
     private int scoreSnapshot;    // player's score after move
+    private int[] wordIds = new int[0];  // dictionary ids of the words the move made
+    private int turn;             // turn the move was made in
+    private static final long serialVersionUID = -8472333708779744328L;
 
     public MoveState(int[] rows, int[] cols, Tile[] tiles, Tile[] rackSnapshot, int scoreSnapshot) {
         this.rows = rows;
@@ -74,11 +179,27 @@ public class ScrabbleModel implements Serializable
         this.scoreSnapshot = scoreSnapshot;
     }
 
+    public MoveState(int[] rows, int[] cols, Tile[] tiles, Tile[] rackSnapshot, int scoreSnapshot, int[] wordIds) {
+        this(rows, cols, tiles, rackSnapshot, scoreSnapshot);
+        this.wordIds = wordIds;
+    }
+
     public int[] getRows() { return rows; }
     public int[] getCols() { return cols; }
     public Tile[] getTiles() { return tiles; }
     public Tile[] getRackSnapshot() { return rackSnapshot; }
     public int getScoreSnapshot() { return scoreSnapshot; }
+    public int[] getWordIds() { return wordIds; }
+    void setWordIds(int[] wordIds) { this.wordIds = wordIds; }
+    public int getTurn() { return turn; }
+    void setTurn(int turn) { this.turn = turn; }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        if (wordIds == null) {
+            wordIds = new int[0];   //saved before moves kept their words
+        }
+    }
 }
 
 
@@ -90,19 +211,14 @@ public class ScrabbleModel implements Serializable
 
 
     /**
-     *  Creates a copy of a given board
-     * @param board the current board 
-     * @return copy a copy of the board
+     * A view of the board that does not change as the game goes on, instead of a copy of the
+     * letters. It can be kept and read from any thread; only the rows changed since the last
+     * snapshot are copied.
+     * @return the snapshot of the board as it is now
      */
-    private char[][] copyBoard(char[][] board) 
+    public BoardSnapshot getBoardSnapshot()
     {
-        char[][] copy = new char[board.length][board[0].length];
-
-        for (int i = 0; i < board.length; i++) 
-        {
-            System.arraycopy(board[i], 0, copy[i], 0, board[i].length);
-        }
-        return copy;
+        return board.snapshot();
     }
 
     /**
@@ -193,7 +309,7 @@ public class ScrabbleModel implements Serializable
      */
     public void game(ScrabbleController controller, int numOfPlayers)
     {
-        AI.setUp(board.getWordDictionary()); // set up AI
+        AI.setUp(board.getWordDictionary(), board.getLayout(), aiVocabulary); // set up AI
 
         currentPlayerIndex = 0;   
         currentPlayer = players.get(currentPlayerIndex);
@@ -425,7 +541,12 @@ public class ScrabbleModel implements Serializable
 
         if (score > 0) 
         {
-            
+            board.recordMove(sortedRows, sortedCols, currentPlayerIndex, turnNumber);
+            if (tilesPlaced > 0) {
+                undoStacks.get(currentPlayer).peek().setWordIds(board.getLastWordIds());
+                undoStacks.get(currentPlayer).peek().setTurn(turnNumber);
+            }
+            currentPlayer.setWordsThisTurn(board.getLastWordIds());
             currentPlayer.addScore(score);
             currentPlayer.useTile(tilesUsedFromRack);
             refillRack(currentPlayer);
@@ -473,13 +594,16 @@ public class ScrabbleModel implements Serializable
         if (undo.size() <= 1) {return false;}
 
         MoveState lastMove = undo.pop(); 
-        redo.push(new MoveState(
+        MoveState redoState = new MoveState(
             lastMove.getRows(),
             lastMove.getCols(),
             lastMove.getTiles(),
             copyRack(player.getAvailableTiles()),
-            player.getScore()
-        ));
+            player.getScore(),
+            lastMove.getWordIds()
+        );
+        redoState.setTurn(lastMove.getTurn());
+        redo.push(redoState);
 
         restoreMoveState(player, lastMove);
 
@@ -500,13 +624,16 @@ public class ScrabbleModel implements Serializable
         if (redo.isEmpty()) {return false;}
 
         MoveState move = redo.pop();
-        undo.push(new MoveState(
+        MoveState undoState = new MoveState(
             move.getRows(),
             move.getCols(),
             move.getTiles(),
             copyRack(player.getAvailableTiles()),
-            player.getScore()
-        ));
+            player.getScore(),
+            move.getWordIds()
+        );
+        undoState.setTurn(move.getTurn());
+        undo.push(undoState);
 
         // Reapply the tiles
         Tile[] tiles = move.getTiles();
@@ -517,7 +644,8 @@ public class ScrabbleModel implements Serializable
         {
             if (tiles[i] != null) 
             {
-                board.setLetterAt(rows[i], cols[i], tiles[i].getEffectiveLetter());
+                board.setLetterAt(rows[i], cols[i], tiles[i].getEffectiveLetter(), tiles[i].isBlank());
+                board.recordTile(rows[i], cols[i], players.indexOf(player), move.getTurn());
             }
         }
 
@@ -673,6 +801,7 @@ public class ScrabbleModel implements Serializable
      */
     protected void advanceTurn() 
     {
+        turnNumber++;
         currentPlayerIndex = (currentPlayerIndex + 1) % players.size();
         currentPlayer = players.get(currentPlayerIndex);
         if (currentPlayer instanceof AI) {
@@ -691,6 +820,12 @@ public class ScrabbleModel implements Serializable
             currentAIPlayer.togglePlace();
 
             int score = board.placeTilesAndValidate(move.rows,move.cols,move.tilesNeeded);
+            if (score > 0) {
+                board.recordMove(move.rows, move.cols, currentPlayerIndex, turnNumber);
+                currentPlayer.setWordsThisTurn(board.getLastWordIds());
+            } else {
+                currentPlayer.setWordsThisTurn(new int[0]);   //the tiles were taken back, no words were made
+            }
             currentPlayer.addScore(score);
             currentPlayer.useTile(move.tilesNeeded);
             refillRack(currentPlayer);
@@ -740,6 +875,7 @@ public class ScrabbleModel implements Serializable
      * @param filename the filename to save the game to
      */
     public void serializeToFile(String filename) {
+        lexiconFingerprint = board.getWordDictionary().getFingerprint();
         try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(filename))) {
             out.writeObject(this);
         } catch (IOException e) {
@@ -770,6 +906,8 @@ public class ScrabbleModel implements Serializable
         this.currentPlayer = m.currentPlayer;
         this.lastPlayerWhoMoved = m.lastPlayerWhoMoved;
         this.tileBag = m.tileBag;
+        this.turnNumber = m.turnNumber;
+        this.superScrabble = m.superScrabble;
         this.undoStacks = m.undoStacks;
         this.redoStacks = m.redoStacks;
 
@@ -780,14 +918,55 @@ public class ScrabbleModel implements Serializable
             }
         }
 
-        board.setWordDictionary(new WordDictionary(("src/ValidWords.txt")));
+        WordDictionary dictionary = LexiconService.getDefault().pin();
+        board.setWordDictionary(dictionary);
+        if (m.lexiconFingerprint != dictionary.getFingerprint()) {
+            //the ids were given by another word list and would spell other words with this one
+            System.out.println("Word list changed since the game was saved, the words of past moves are not kept");
+            dropWordIds();
+        }
+        this.lexiconFingerprint = dictionary.getFingerprint();
 
+        rebuildAI();
+        
+        // Refresh the GUI
+        if (this.view != null) {
+            ScrabbleEvent e = new ScrabbleEvent(this, players, board);
+            view.handleScrabbleUpdate(e);
+           this.view.getRackPanel().updateRack(this.currentPlayer.getAvailableTiles());
+        }
+
+        System.out.println("Board uploaded and GUI refreshed");
+    }
+
+    /**
+     * Forgets the word ids of the players' last turns and of the moves in the undo and redo stacks
+     */
+    private void dropWordIds() {
+        for (Player player : players) {
+            player.setWordsThisTurn(new int[0]);
+        }
+        for (Map<Player, Stack<MoveState>> stacks : List.of(undoStacks, redoStacks)) {
+            for (Stack<MoveState> stack : stacks.values()) {
+                for (MoveState move : stack) {
+                    move.setWordIds(new int[0]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Rebuilds the AI's copy of the board and its legal placements from the actual board
+     */
+    private void rebuildAI() {
         AI.legalPlacements.clear();
         AI.board.clear();
+        AI.layout = board.getLayout();
 
         // rebuild AI board from actual Scrabble board
-        for (int r = 0; r < 15; r++) {
-            for (int c = 0; c < 15; c++) {
+        int size = board.getSize();
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
                 char letter = board.getLetterAt(r, c);
                 if (letter != ' ') {
                     AI.board.put(new Point(r, c), letter);
@@ -797,7 +976,8 @@ public class ScrabbleModel implements Serializable
                     for (int[] d : dirs) {
                         int x = r + d[0];
                         int y = c + d[1];
-                        if (x >= 0 && x < 15 && y >= 0 && y < 15 && board.getLetterAt(x, y) == ' ') {
+                        if (x >= 0 && x < size && y >= 0 && y < size && board.getLetterAt(x, y) == ' '
+                                && !board.getLayout().isBlocked(x, y)) {
                             AI.legalPlacements.add(new Point(x, y));
                         }
                     }
@@ -805,16 +985,11 @@ public class ScrabbleModel implements Serializable
             }
         }
 
-        AI.dictionary = new WordDictionary("ValidWords.txt");
-        
-        // Refresh the GUI
-        if (this.view != null) {
-            ScrabbleEvent e = new ScrabbleEvent(this, players, board);
-            view.handleScrabbleUpdate(e);
-           this.view.getRackPanel().updateRack(this.currentPlayer.getAvailableTiles());
+        if (AI.board.isEmpty()) {
+            AI.legalPlacements.add(new Point(board.getLayout().getCenter(), board.getLayout().getCenter()));
         }
-
-        System.out.println("Board uploaded and GUI refreshed");
+        AI.vocabulary = aiVocabulary;
+        AI.useDictionary(board.getWordDictionary());
     }
 
     /**
@@ -852,6 +1027,32 @@ public class ScrabbleModel implements Serializable
      */
     protected Player getCurrentPlayer() {return players.get(currentPlayerIndex);}
 
+    /**
+     * Starts a typed word for the current player at a square, going across or down. The cursor
+     * checks each typed letter against the board line and the player's rack and can list the
+     * words that would complete it.
+     *
+     * @param row row of the square where typing starts
+     * @param col column of the square where typing starts
+     * @param horizontal true to type across the row, false to type down the column
+     * @return the cursor for the typed word
+     */
+    public WordCursor startTypedWord(int row, int col, boolean horizontal)
+    {
+        char[] line = new char[board.getSize()];
+        for (int i = 0; i < line.length; i++)
+        {
+            line[i] = horizontal ? board.getLetterAt(row, i) : board.getLetterAt(i, col);
+        }
+
+        StringBuilder rack = new StringBuilder();
+        for (Tile tile : getCurrentPlayer().getAvailableTiles())
+        {
+            if (tile != null) rack.append(tile.isBlank() ? WordDictionary.OPEN_SQUARE : tile.getEffectiveLetter());
+        }
+        return board.getWordDictionary().cursor(line, horizontal ? col : row, rack);
+    }
+
     protected Board getBoard(){
         return board;
     }
@@ -0,0 +1,181 @@
+/**
+ * SuccinctBits is a fixed bit string with rank and select, the building block of LoudsWordTrie.
+ * rank1(i) counts the 1 bits before position i and select0(k) finds the position of the k-th 0 bit
+ * (counting from 0), both without scanning the whole string.
+ *
+ * The bits are kept in a long array. Every block of 512 bits (8 longs) also stores the number of
+ * 1 bits before it, so a rank is one table read plus at most 8 popcounts, an extra 32 bits per 512
+ * (about 6%). For select, the block of every 512th 1 bit and 0 bit is sampled, so the binary
+ * search over the block counts only runs between two samples before one block is scanned.
+ */
+public final class SuccinctBits {
+    private static final int BLOCK_BITS = 512;
+    private static final int LONGS_PER_BLOCK = BLOCK_BITS / 64;
+
+    private final long[] bits;
+    private final int length;
+    private final int[] blockRanks;   //number of 1 bits before each block, plus the total at the end
+    private final int[] oneSamples;   //block holding 1 bit number i * BLOCK_BITS
+    private final int[] zeroSamples;  //block holding 0 bit number i * BLOCK_BITS
+
+    /**
+     * Wraps a bit string. Bit i is bit (i % 64) of bits[i / 64].
+     *
+     * @param bits the bits, not copied, must not be changed afterwards
+     * @param length the number of bits used
+     */
+    public SuccinctBits(long[] bits, int length) {
+        if ((long) bits.length * 64 < length) {
+            throw new IllegalArgumentException("Only " + bits.length * 64L + " bits for a length of " + length);
+        }
+        this.bits = bits;
+        this.length = length;
+        int blocks = (length + BLOCK_BITS - 1) / BLOCK_BITS;
+        blockRanks = new int[blocks + 1];
+        for (int block = 0; block < blocks; block++) {
+            int count = 0;
+            for (int i = block * LONGS_PER_BLOCK; i < Math.min(bits.length, (block + 1) * LONGS_PER_BLOCK); i++) {
+                count += Long.bitCount(bits[i]);
+            }
+            blockRanks[block + 1] = blockRanks[block] + count;
+        }
+        oneSamples = samples(true);
+        zeroSamples = samples(false);
+    }
+
+    /**
+     * For every BLOCK_BITS-th 1 (or 0) bit, the block it is in
+     */
+    private int[] samples(boolean ones) {
+        int total = ones ? ones() : length - ones();
+        int[] samples = new int[total / BLOCK_BITS + 1];
+        int block = 0;
+        for (int i = 0; i < samples.length; i++) {
+            while (block + 1 < blockRanks.length - 1 && countBefore(block + 1, ones) <= i * BLOCK_BITS) block++;
+            samples[i] = block;
+        }
+        return samples;
+    }
+
+    /**
+     * Number of 1 (or 0) bits before a block
+     */
+    private int countBefore(int block, boolean ones) {
+        return ones ? blockRanks[block] : block * BLOCK_BITS - blockRanks[block];
+    }
+
+    /**
+     * Reads one bit
+     *
+     * @param position the bit position
+     * @return true if the bit is 1
+     */
+    public boolean get(int position) {
+        return (bits[position >>> 6] & (1L << position)) != 0;
+    }
+
+    /**
+     * Counts the 1 bits before a position
+     *
+     * @param position 0 to length()
+     * @return number of 1 bits in positions 0 to position - 1
+     */
+    public int rank1(int position) {
+        int block = position / BLOCK_BITS;
+        int rank = blockRanks[block];
+        int word = block * LONGS_PER_BLOCK;
+        int lastWord = position >>> 6;
+        for (; word < lastWord; word++) {
+            rank += Long.bitCount(bits[word]);
+        }
+        if ((position & 63) != 0) {
+            rank += Long.bitCount(bits[lastWord] & ((1L << position) - 1));
+        }
+        return rank;
+    }
+
+    /**
+     * Counts the 0 bits before a position
+     *
+     * @param position 0 to length()
+     * @return number of 0 bits in positions 0 to position - 1
+     */
+    public int rank0(int position) {
+        return position - rank1(position);
+    }
+
+    /**
+     * Finds the k-th 1 bit
+     *
+     * @param k which 1 bit, counting from 0
+     * @return its position
+     * @throws IllegalArgumentException if there are not that many 1 bits
+     */
+    public int select1(int k) {
+        if (k < 0 || k >= ones()) throw new IllegalArgumentException("No 1 bit number " + k);
+        return select(k, true, oneSamples);
+    }
+
+    /**
+     * Finds the k-th 0 bit
+     *
+     * @param k which 0 bit, counting from 0
+     * @return its position
+     * @throws IllegalArgumentException if there are not that many 0 bits
+     */
+    public int select0(int k) {
+        if (k < 0 || k >= length - ones()) throw new IllegalArgumentException("No 0 bit number " + k);
+        return select(k, false, zeroSamples);
+    }
+
+    private int select(int k, boolean ones, int[] samples) {
+        int sample = k / BLOCK_BITS;
+        int low = samples[sample];
+        int high = sample + 1 < samples.length ? samples[sample + 1] : blockRanks.length - 2;
+        while (low < high) {   //last block with at most k of the bits before it
+            int middle = (low + high + 1) >>> 1;
+            if (countBefore(middle, ones) <= k) low = middle; else high = middle - 1;
+        }
+        int left = k - countBefore(low, ones);
+        for (int word = low * LONGS_PER_BLOCK; ; word++) {
+            long bits = ones ? this.bits[word] : ~this.bits[word];
+            int count = Long.bitCount(bits);
+            if (left < count) return word * 64 + selectInWord(bits, left);
+            left -= count;
+        }
+    }
+
+    private static int selectInWord(long word, int k) {
+        for (int i = 0; i < k; i++) {
+            word &= word - 1;
+        }
+        return Long.numberOfTrailingZeros(word);
+    }
+
+    /**
+     * Number of 1 bits in the whole string
+     *
+     * @return the count
+     */
+    public int ones() {
+        return blockRanks[blockRanks.length - 1];
+    }
+
+    /**
+     * Number of bits in the string
+     *
+     * @return the length
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * Memory used by the bits, the rank table and the select samples
+     *
+     * @return footprint in bytes, not counting object headers
+     */
+    public long getBytes() {
+        return bits.length * 8L + (blockRanks.length + oneSamples.length + zeroSamples.length) * 4L;
+    }
+}
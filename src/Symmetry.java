@@ -0,0 +1,80 @@
+/**
+ * Symmetry maps squares through the 8 ways of turning and flipping a square board (the
+ * rotations and mirror images). A transform is a number from 0 to 7 with three bits:
+ *      4   swap rows and columns (mirror in the main diagonal), done first
+ *      1   flip the rows upside down
+ *      2   flip the columns left to right
+ * 0 leaves the board as it is. On a layout with the same symmetry (see PremiumLayout.isSymmetric)
+ * a position and its image play exactly the same, so Position.canonical() can pick one of them
+ * for caches and opening books, and a move found on the image is turned back with the inverse.
+ */
+public final class Symmetry {
+    public static final int IDENTITY = 0;
+    public static final int COUNT = 8;
+    private static final int FLIP_ROWS = 1;
+    private static final int FLIP_COLS = 2;
+    private static final int TRANSPOSE = 4;
+
+    private Symmetry() {
+    }
+
+    /**
+     * Row of a square after the transform
+     *
+     * @param transform 0 to 7
+     * @param size the board size
+     * @param row row of the square
+     * @param col column of the square
+     * @return the row it moves to
+     */
+    public static int row(int transform, int size, int row, int col) {
+        int r = (transform & TRANSPOSE) != 0 ? col : row;
+        return (transform & FLIP_ROWS) != 0 ? size - 1 - r : r;
+    }
+
+    /**
+     * Column of a square after the transform
+     *
+     * @param transform 0 to 7
+     * @param size the board size
+     * @param row row of the square
+     * @param col column of the square
+     * @return the column it moves to
+     */
+    public static int col(int transform, int size, int row, int col) {
+        int c = (transform & TRANSPOSE) != 0 ? row : col;
+        return (transform & FLIP_COLS) != 0 ? size - 1 - c : c;
+    }
+
+    /**
+     * The transform that undoes another one. Flips are their own inverse, but after a swap of
+     * rows and columns the row flip has to be undone as a column flip and the other way round.
+     *
+     * @param transform 0 to 7
+     * @return the inverse transform
+     */
+    public static int inverse(int transform) {
+        if ((transform & TRANSPOSE) == 0) return transform;
+        int flips = ((transform & FLIP_ROWS) << 1) | ((transform & FLIP_COLS) >> 1);
+        return TRANSPOSE | flips;
+    }
+
+    /**
+     * Moves the squares of a move through a transform, e.g. to turn a move found on a canonical
+     * position back onto the real board with inverse(). The tiles, score and word stay the same.
+     *
+     * @param transform 0 to 7
+     * @param size the board size
+     * @param move the move
+     * @return a new move on the transformed squares
+     */
+    public static AI.PlaceWord apply(int transform, int size, AI.PlaceWord move) {
+        int[] rows = new int[move.rows.length];
+        int[] cols = new int[move.cols.length];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = row(transform, size, move.rows[i], move.cols[i]);
+            cols[i] = col(transform, size, move.rows[i], move.cols[i]);
+        }
+        return new AI.PlaceWord(rows, cols, move.tilesNeeded, move.score, move.word);
+    }
+}
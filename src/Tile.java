@@ -13,37 +13,8 @@ public class Tile implements Serializable {
     final private int Value;
     private boolean isBlank;
     private char assignedLetter = ' ';
-
-    private static final Map<Character, Tile> ALL_TILES = new HashMap<>();
-
-    static {
-        ALL_TILES.put('A', new Tile('A', 1));
-        ALL_TILES.put('B', new Tile('B', 3));
-        ALL_TILES.put('C', new Tile('C', 3));
-        ALL_TILES.put('D', new Tile('D', 2));
-        ALL_TILES.put('E', new Tile('E', 1));
-        ALL_TILES.put('F', new Tile('F', 4));
-        ALL_TILES.put('G', new Tile('G', 2));
-        ALL_TILES.put('H', new Tile('H', 4));
-        ALL_TILES.put('I', new Tile('I', 1));
-        ALL_TILES.put('J', new Tile('J', 8));
-        ALL_TILES.put('K', new Tile('K', 5));
-        ALL_TILES.put('L', new Tile('L', 1));
-        ALL_TILES.put('M', new Tile('M', 3));
-        ALL_TILES.put('N', new Tile('N', 1));
-        ALL_TILES.put('O', new Tile('O', 1));
-        ALL_TILES.put('P', new Tile('P', 3));
-        ALL_TILES.put('Q', new Tile('Q', 10));
-        ALL_TILES.put('R', new Tile('R', 1));
-        ALL_TILES.put('S', new Tile('S', 1));
-        ALL_TILES.put('T', new Tile('T', 1));
-        ALL_TILES.put('U', new Tile('U', 1));
-        ALL_TILES.put('V', new Tile('V', 4));
-        ALL_TILES.put('W', new Tile('W', 4));
-        ALL_TILES.put('X', new Tile('X', 8));
-        ALL_TILES.put('Y', new Tile('Y', 4));
-        ALL_TILES.put('Z', new Tile('Z', 10));
-    }
+    private transient Alphabet alphabet;   //alphabet the tile belongs to, spells its digraph; null for a blank
+    private static final long serialVersionUID = 1308134942509448016L;
 
     /**
      * Tile made up of letter, value, and if it is a blank tile
@@ -74,6 +45,15 @@ public class Tile implements Serializable {
         this.isBlank = false;
     }
 
+    /**
+     * Shared tile of an alphabet, see Alphabet.tile()
+     */
+    Tile(char symbol, int value, Alphabet alphabet)
+    {
+        this(symbol, value);
+        this.alphabet = alphabet;
+    }
+
     public static Tile createLetter(char c, int value)
     {
         return new Tile(c, value, false);
@@ -85,13 +65,24 @@ public class Tile implements Serializable {
     }
 
     /**
-     * Get corresponding tile given a letter
+     * Get corresponding English tile given a letter
      * @param letter to be made into a tile
-     * @return corresponding tile
+     * @return corresponding tile, null if the letter is not A-Z
      */
 
     public static Tile getTile(char letter){
-        return ALL_TILES.get(letter);
+        return getTile(letter, Alphabet.ENGLISH);
+    }
+
+    /**
+     * Get corresponding tile given a letter, from the tiles of an alphabet
+     * @param letter to be made into a tile
+     * @param alphabet the alphabet of the game, see WordDictionary.getAlphabet()
+     * @return corresponding tile, null if the letter is not in the alphabet
+     */
+    public static Tile getTile(char letter, Alphabet alphabet){
+        int code = alphabet.code(letter);
+        return code == Alphabet.NONE ? null : alphabet.tile(code);
     }
 
     /**
@@ -145,11 +136,11 @@ public class Tile implements Serializable {
 
     /**
      * String representatino of Tile
-     * @return string representation of letter in uppercase
+     * @return string representation of letter in uppercase, a digraph tile spelled out ("CH")
      */
     @Override
     public String toString() {
-        return "" + Letter;
+        return alphabet != null ? alphabet.spell("" + Letter) : String.valueOf(Letter);
     }
 
     private Object readResolve() {
@@ -158,6 +149,7 @@ public class Tile implements Serializable {
             blank.setAssignedLetter(this.assignedLetter);
             return blank;
         }
-        return ALL_TILES.get(this.Letter);
+        Tile shared = Alphabet.sharedTile(this.Letter, this.Value);
+        return shared != null ? shared : this;
     }
 }
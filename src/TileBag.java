@@ -1,4 +1,6 @@
 import java.util.*;
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 
 /**
@@ -10,99 +12,89 @@ import java.io.Serializable;
 
 
 public class TileBag implements Serializable  {
-    private Map<Tile, Integer> tiles;
+    //the tiles left, in no order: bag[0] to bag[count - 1]. A draw swaps a random one to the end
+    //and shortens the bag, a return goes on the end, so neither walks or allocates anything
+    private Tile[] bag;
+    private int count;
     private Random random;
 
     private static final Tile BLANK_TILE = Tile.createBlank();
+    private static final long serialVersionUID = 7421258000394666076L;
 
     /**
-     * Populates tileBag as needed with the set frequencies of each tile
+     * Populates tileBag as needed with the set frequencies of each English tile
      */
     TileBag() {
-        tiles = new HashMap<>();
-        random = new Random();
+        this(Alphabet.ENGLISH);
+    }
 
-        
-        tiles.put(Tile.getTile('A'),10);
-        tiles.put(Tile.getTile('B'),2);
-        tiles.put(Tile.getTile('C'),2);
-        tiles.put(Tile.getTile('D'),4);
-        tiles.put(Tile.getTile('E'),12);
-        tiles.put(Tile.getTile('F'),2);
-        tiles.put(Tile.getTile('G'),3);
-        tiles.put(Tile.getTile('H'),2);
-        tiles.put(Tile.getTile('I'),9);
-        tiles.put(Tile.getTile('J'),1);
-        tiles.put(Tile.getTile('K'),1);
-        tiles.put(Tile.getTile('L'),4);
-        tiles.put(Tile.getTile('M'),2);
-        tiles.put(Tile.getTile('N'),6);
-        tiles.put(Tile.getTile('O'),8);
-        tiles.put(Tile.getTile('P'),2);
-        tiles.put(Tile.getTile('Q'),1);
-        tiles.put(Tile.getTile('R'),7);
-        tiles.put(Tile.getTile('S'),4);
-        tiles.put(Tile.getTile('T'),6);
-        tiles.put(Tile.getTile('U'),4);
-        tiles.put(Tile.getTile('V'),2);
-        tiles.put(Tile.getTile('W'),2);
-        tiles.put(Tile.getTile('X'),1);
-        tiles.put(Tile.getTile('Y'),2);
-        tiles.put(Tile.getTile('Z'),1);
-        tiles.put(BLANK_TILE, 2);
+    /**
+     * Populates tileBag with the tiles of an alphabet
+     * @param alphabet the letters, values and frequencies to use
+     */
+    TileBag(Alphabet alphabet) {
+        random = new Random();
+        int total = alphabet.getBlankCount();
+        for (int code = 0; code < alphabet.size(); code++) {
+            total += alphabet.count(code);
+        }
+        bag = new Tile[total];
+        for (int code = 0; code < alphabet.size(); code++) {
+            for (int i = 0; i < alphabet.count(code); i++) {
+                bag[count++] = alphabet.tile(code);
+            }
+        }
+        for (int i = 0; i < alphabet.getBlankCount(); i++) {
+            bag[count++] = BLANK_TILE;
+        }
     }
 
     /**
-     * Picks a random tile from the bag and decrements the count of that letter when picked
-     * removes from bag if there is 0
+     * Picks a random tile from the bag and takes it out: the tile is swapped with the last one
+     * and the bag gets one shorter
      * @return random tile picked is null if bag is empty
      */
     public Tile pickFromBag() {
-        if (tiles.isEmpty()) {
+        if (count == 0) {
             System.out.println("No tiles in this bag");
             return null;
         }
+        return takeAt(random.nextInt(count));
+    }
 
-        int randomNumber = random.nextInt(this.size());
-
-        Tile pickedTile = null;
-
-        for (Map.Entry<Tile, Integer> entry : tiles.entrySet()) {
-            Tile currentTile = entry.getKey();
-            int count =  entry.getValue();
-
-            randomNumber -= count;
-            if (randomNumber < 0) {
-                pickedTile = currentTile;
-                break;
-            }
-        }
+    private Tile takeAt(int index) {
+        Tile pickedTile = bag[index];
+        bag[index] = bag[--count];
+        bag[count] = null;
+        return pickedTile;
+    }
 
-        if (pickedTile != null) {
-            int currentCount = tiles.get(pickedTile);
-            if (currentCount > 1) {
-                tiles.put(pickedTile, currentCount - 1);
-            }
-            else {
-                tiles.remove(pickedTile);
+    /**
+     * Takes one particular tile out of the bag, e.g. when setting up a saved position
+     * @param letter the letter of the tile, ignored for a blank
+     * @param blank true to take a blank
+     * @return false if there is no such tile left
+     */
+    boolean removeTile(char letter, boolean blank) {
+        for (int i = 0; i < count; i++) {
+            Tile tile = bag[i];
+            if (blank ? tile.isBlank() : !tile.isBlank() && tile.getEffectiveLetter() == letter) {
+                takeAt(i);
+                return true;
             }
         }
-
-        if (pickedTile != null && pickedTile.isBlank()) 
-        {
-            pickedTile = BLANK_TILE;
-        }
-
-
-        return pickedTile;
+        return false;
     }
 
     /**
-     * Returns the tile given to the bag
+     * Returns the tile given to the bag, blanks come back without their letter
      * @param tile that needs to be added back
      */
     public void returnTileToBag(Tile tile) {
-        tiles.put(tile, tiles.getOrDefault(tile, 0) + 1);
+        if (count == bag.length) {
+            bag = Arrays.copyOf(bag, Math.max(8, bag.length * 2));   //more tiles than the bag started with
+        }
+        bag[count++] = tile.isBlank() ? BLANK_TILE : tile;
     }
 
     /**
@@ -110,11 +102,32 @@ public class TileBag implements Serializable  {
      * @return size of the bag
      */
     public int size() {
-        int total = 0;
-        for (Map.Entry<Tile, Integer> tile : tiles.entrySet()) {
-            total += tile.getValue();
+        return count;
+    }
+
+    /**
+     * Games saved when the bag was a count per tile get the same tiles in an array
+     */
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        random = (Random) fields.get("random", null);
+        if (random == null) {
+            random = new Random();
+        }
+        if (fields.getObjectStreamClass().getField("bag") != null) {
+            bag = (Tile[]) fields.get("bag", null);
+            count = fields.get("count", 0);
+            return;
+        }
+        Map<Tile, Integer> tiles = (Map<Tile, Integer>) fields.get("tiles", null);
+        bag = new Tile[0];
+        count = 0;
+        for (Map.Entry<Tile, Integer> entry : tiles.entrySet()) {
+            for (int i = 0; i < entry.getValue(); i++) {
+                returnTileToBag(entry.getKey());
+            }
         }
-        return total;
     }
 
     /**
@@ -129,19 +142,14 @@ public class TileBag implements Serializable  {
     public String toString() {
         StringBuilder bagState = new StringBuilder("TileBag: \n");
 
-        if (tiles.isEmpty()) {
+        if (count == 0) {
             bagState.append("No tiles in this bag\n");
         }
 
         List<String> tileStrings = new ArrayList<>();
 
-        for (Map.Entry<Tile, Integer> entry : tiles.entrySet()) {
-            String letter = entry.getKey().toString();
-            int count = entry.getValue();
-
-            for (int i = 1; i <= count; i++) {
-                tileStrings.add(letter);
-            }
+        for (int i = 0; i < count; i++) {
+            tileStrings.add(bag[i].toString());
         }
 
         tileStrings.sort(String::compareTo);
@@ -92,4 +92,30 @@ class TileBagTest {
         String toString = tileBag.toString();
         assertEquals("TileBag: \nNo tiles in this bag\n", toString, "TileBag should be empty"+toString);
     }
+
+    @Test
+    public void RemoveTileAndReturnMoreThanStarted() {
+        assertTrue(tileBag.removeTile('Z', false));
+        assertFalse(tileBag.removeTile('Z', false), "there is only one Z");
+        assertTrue(tileBag.removeTile(' ', true));
+        assertEquals(100, tileBag.size());
+
+        Tile blank = Tile.createBlank();
+        blank.setAssignedLetter('Q');
+        tileBag.returnTileToBag(blank);
+        tileBag.returnTileToBag(Tile.getTile('Z'));
+        tileBag.returnTileToBag(Tile.getTile('Z'));
+        tileBag.returnTileToBag(Tile.getTile('Z'));
+        assertEquals(104, tileBag.size(), "the bag grows past the 102 it started with");
+
+        int blanks = 0;
+        while (tileBag.size() > 0) {
+            Tile tile = tileBag.pickFromBag();
+            if (tile.isBlank()) {
+                blanks++;
+                assertEquals(tile.getEffectiveLetter(), Tile.createBlank().getEffectiveLetter(), "blanks come back without a letter");
+            }
+        }
+        assertEquals(2, blanks);
+    }
 }
@@ -0,0 +1,149 @@
+/**
+ * WordAutomaton is the read only letter automaton that WordDictionary searches. Nodes are ints,
+ * WordTrie.ROOT is the empty prefix and child() follows one letter code of getAlphabet() (0-25 for
+ * English). Words ending at a node carry a lexicon bit mask and an id (their position in sorted
+ * order), see WordTrie.
+ *
+ * WordTrie keeps the nodes in int arrays on the heap, OffHeapWordTrie keeps the same nodes in
+ * memory outside the heap.
+ */
+public interface WordAutomaton {
+
+    /**
+     * The letters the codes stand for
+     *
+     * @return the alphabet of the words
+     */
+    Alphabet getAlphabet();
+
+    /**
+     * Follows the edge for a letter code
+     *
+     * @param node the node to start from
+     * @param letter the letter code
+     * @return the child node, or WordTrie.NONE if there is no such edge
+     */
+    int child(int node, int letter);
+
+    /**
+     * Returns a bit mask of the letters that have an edge out of the node
+     *
+     * @param node the node
+     * @return bit mask, bit i set for letter code i
+     */
+    int childMask(int node);
+
+    /**
+     * Checks if a word of exactly the given number of additional letters can end below the node
+     *
+     * @param node the node
+     * @param remaining how many letters are still to be placed
+     * @return true if some word ends exactly that many letters below the node
+     */
+    boolean canEndIn(int node, int remaining);
+
+    /**
+     * Checks if a word ends at the node
+     *
+     * @param node the node
+     * @return true if the path to the node spells a word
+     */
+    boolean isTerminal(int node);
+
+    /**
+     * Checks if a word of one of the selected lexicons ends at the node
+     *
+     * @param node the node
+     * @param lexiconMask the selected lexicons
+     * @return true if the path to the node spells a word in one of the lexicons
+     */
+    boolean isTerminal(int node, int lexiconMask);
+
+    /**
+     * Returns the lexicons of the word ending at the node
+     *
+     * @param node the node
+     * @return lexicon bit mask, 0 if no word ends at the node
+     */
+    int getLexicons(int node);
+
+    /**
+     * Checks if any word at or below the node belongs to one of the selected lexicons
+     *
+     * @param node the node
+     * @param lexiconMask the selected lexicons
+     * @return true if the branch holds a word of one of the lexicons
+     */
+    boolean hasLexicon(int node, int lexiconMask);
+
+    /**
+     * Returns the id of the first word, in sorted order, at or below the node
+     *
+     * @param node the node
+     * @return the smallest word id in the branch
+     */
+    int firstWord(int node);
+
+    /**
+     * Returns the number of words, the ids go from 0 to this minus one
+     *
+     * @return word count
+     */
+    int getWordCount();
+
+    /**
+     * Returns the number of nodes, root included
+     *
+     * @return node count
+     */
+    int getNodeCount();
+
+    /**
+     * Returns the length of the longest word
+     *
+     * @return longest word length
+     */
+    int getLongestWord();
+
+    /**
+     * Returns the id of the word ending at the node
+     *
+     * @param node the node
+     * @return the word id, or WordTrie.NONE if no word ends at the node
+     */
+    default int wordId(int node) {
+        return isTerminal(node) ? firstWord(node) : WordTrie.NONE;
+    }
+
+    /**
+     * Spells out the word with an id. Goes down from the root, picking at each node the child
+     * whose words contain the id.
+     *
+     * @param id the word id
+     * @return the word
+     * @throws IllegalArgumentException if there is no word with that id
+     */
+    default String wordOf(int id) {
+        if (id < 0 || id >= getWordCount()) {
+            throw new IllegalArgumentException("No word with id " + id);
+        }
+        Alphabet alphabet = getAlphabet();
+        StringBuilder word = new StringBuilder();
+        int node = WordTrie.ROOT;
+        while (!(isTerminal(node) && firstWord(node) == id)) {
+            int mask = childMask(node);
+            int letter = Integer.numberOfTrailingZeros(mask);
+            mask &= mask - 1;
+            //move right while the next child still starts at or before the id
+            while (mask != 0) {
+                int next = Integer.numberOfTrailingZeros(mask);
+                if (firstWord(child(node, next)) > id) break;
+                letter = next;
+                mask &= mask - 1;
+            }
+            word.append(alphabet.symbol(letter));
+            node = child(node, letter);
+        }
+        return word.toString();
+    }
+}
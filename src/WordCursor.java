@@ -0,0 +1,195 @@
+import java.util.*;
+
+/**
+ * WordCursor follows a word as the player types it onto one row or column of the board. It keeps
+ * its place in the dictionary's trie, so each typed letter is one step down from the last node
+ * instead of a new search from the root, and back() just steps up again.
+ *
+ * The cursor knows the letters already on the line and the player's rack: a typed letter must
+ * match the board letter on an occupied square, and on an empty square it must come from the rack
+ * (a blank is used when the letter itself is not there). Completions only offer words that can be
+ * finished with the rest of the rack and the board letters further along the line.
+ */
+public class WordCursor {
+    private static final int FROM_BOARD = -1;   //marks a square that already had a letter
+
+    private final WordDictionary dictionary;
+    private final WordAutomaton trie;
+    private final Alphabet alphabet;
+    private final char[] line;       //the squares of the row or column, ' ' for empty
+    private final int start;         //square of the first letter of the word
+    private final int[] rack;        //rack letter counts left, blank count at WordDictionary.BLANK_INDEX
+    private final int[] nodes;       //nodes[i] is the trie node after i letters
+    private final int[] used;        //what each letter took: a rack letter code, BLANK_INDEX or FROM_BOARD
+    private final char[] letters;
+    private final int fixedDepth;    //board letters the word started with, back() stops there
+    private int depth;
+
+    /**
+     * Starts a word at a square of a board line. If letters on the board touch the square from
+     * before, the word starts at the first of them and the cursor is already past them.
+     *
+     * @param dictionary the dictionary to follow
+     * @param line the squares of the row or column, a letter or ' ' for each one
+     * @param square the square the player starts typing at
+     * @param rack letter counts of the player's rack, see WordDictionary.rackCounts()
+     */
+    WordCursor(WordDictionary dictionary, char[] line, int square, int[] rack) {
+        this.dictionary = dictionary;
+        this.trie = dictionary.getTrie();
+        this.alphabet = trie.getAlphabet();
+        this.line = line.clone();
+        this.rack = Arrays.copyOf(rack, WordDictionary.BLANK_INDEX + 1);
+        nodes = new int[line.length + 1];
+        used = new int[line.length];
+        letters = new char[line.length];
+
+        int first = square;
+        while (first > 0 && line[first - 1] != ' ') first--;
+        start = first;
+        nodes[0] = WordTrie.ROOT;
+        for (int i = first; i < square; i++) {
+            if (!advance(line[i])) break;
+        }
+        fixedDepth = depth;
+    }
+
+    /**
+     * Adds one letter to the word
+     *
+     * @param letter the typed letter, any case
+     * @return false if the letter cannot go there (off the line, not the board letter, not in the
+     *         rack, or no word continues with it); the cursor is then unchanged
+     */
+    public boolean advance(char letter) {
+        int code = alphabet.code(letter);
+        int square = start + depth;
+        if (code == Alphabet.NONE || square >= line.length) return false;
+
+        int from;
+        if (line[square] != ' ') {
+            if (alphabet.code(line[square]) != code) return false;
+            from = FROM_BOARD;
+        } else if (rack[code] > 0) {
+            from = code;
+        } else if (rack[WordDictionary.BLANK_INDEX] > 0) {
+            from = WordDictionary.BLANK_INDEX;
+        } else {
+            return false;
+        }
+
+        int next = trie.child(nodes[depth], code);
+        if (next == WordTrie.NONE || !trie.hasLexicon(next, dictionary.getLexiconMask())) return false;
+
+        if (from != FROM_BOARD) rack[from]--;
+        used[depth] = from;
+        letters[depth] = alphabet.symbol(code);
+        nodes[++depth] = next;
+        return true;
+    }
+
+    /**
+     * Removes the last typed letter and gives its tile back to the rack. Letters that were on the
+     * board before the word started are not removed.
+     *
+     * @return false if there was nothing to remove
+     */
+    public boolean back() {
+        if (depth <= fixedDepth) return false;
+        depth--;
+        if (used[depth] != FROM_BOARD) rack[used[depth]]++;
+        return true;
+    }
+
+    /**
+     * Checks if the letters so far make a word that can end here, i.e. the next square is empty
+     * or the edge of the board
+     *
+     * @return true if the word could be placed as it is
+     */
+    public boolean isWord() {
+        return tilesPlaced(depth) > 0 && endsLine(start + depth) && dictionary.accepts(trie, nodes[depth]);
+    }
+
+    /**
+     * The letters of the word so far, including board letters
+     *
+     * @return the word so far in uppercase
+     */
+    public String getPrefix() {
+        return new String(letters, 0, depth);
+    }
+
+    /**
+     * First square of the word on the line
+     *
+     * @return the index of the first letter in the line
+     */
+    public int getStart() {
+        return start;
+    }
+
+    /**
+     * Finds words that start with the letters typed so far and can be finished on this line with
+     * the rest of the rack, passing through any board letters in the way. Every completion uses at
+     * least one tile from the rack.
+     *
+     * @param limit the most completions to return
+     * @return the completed words in alphabetical order, the current word included if it is one
+     */
+    public List<String> completions(int limit) {
+        List<String> found = new ArrayList<>();
+        char[] word = Arrays.copyOf(letters, line.length);
+        complete(nodes[depth], start + depth, depth, tilesPlaced(depth), word, Arrays.copyOf(rack, rack.length), found, limit);
+        return found;
+    }
+
+    private void complete(int node, int square, int length, int placed, char[] word, int[] left, List<String> found, int limit) {
+        if (found.size() >= limit) return;
+        if (placed > 0 && endsLine(square) && dictionary.accepts(trie, node)) {
+            found.add(new String(word, 0, length));
+        }
+        if (square >= line.length) return;
+
+        int candidates = trie.childMask(node);
+        if (line[square] != ' ') {
+            candidates &= 1 << alphabet.code(line[square]);
+        } else if (left[WordDictionary.BLANK_INDEX] == 0) {
+            int inRack = 0;
+            for (int code = 0; code < alphabet.size(); code++) {
+                if (left[code] > 0) inRack |= 1 << code;
+            }
+            candidates &= inRack;
+        }
+
+        for (; candidates != 0 && found.size() < limit; candidates &= candidates - 1) {
+            int code = Integer.numberOfTrailingZeros(candidates);
+            int next = trie.child(node, code);
+            if (!trie.hasLexicon(next, dictionary.getLexiconMask())) continue;
+
+            int from = line[square] != ' ' ? FROM_BOARD : left[code] > 0 ? code : WordDictionary.BLANK_INDEX;
+            if (from != FROM_BOARD) left[from]--;
+            word[length] = alphabet.symbol(code);
+            complete(next, square + 1, length + 1, from == FROM_BOARD ? placed : placed + 1, word, left, found, limit);
+            if (from != FROM_BOARD) left[from]++;
+        }
+    }
+
+    /**
+     * Number of rack tiles among the first letters of the word
+     */
+    private int tilesPlaced(int letterCount) {
+        int placed = 0;
+        for (int i = 0; i < letterCount; i++) {
+            if (used[i] != FROM_BOARD) placed++;
+        }
+        return placed;
+    }
+
+    /**
+     * A word can only end before an empty square or the edge, otherwise it runs into the next letters
+     */
+    private boolean endsLine(int square) {
+        return square >= line.length || line[square] == ' ';
+    }
+}
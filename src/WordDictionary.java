@@ -1,5 +1,10 @@
 import java.io.*;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
 /**
  * WordDictionary.java is a helper class. It stores all the valid words that cna be played
  * in the game.
@@ -7,6 +12,23 @@ import java.util.*;
  */
 public class WordDictionary implements Serializable {
     private transient Set<String> words;  //set of all valid words in the game
+    private transient volatile WordAutomaton trie; //letter automaton of the same words, used for pattern queries
+    private transient Alphabet alphabet;  //letters of the words, English if not set
+    private int lexiconCount = 1;         //number of word lists merged into the trie
+    private int lexiconMask = WordTrie.ALL_LEXICONS;  //the word lists this dictionary accepts words from
+    private transient WordSubset subset;  //if set, only these word ids are accepted
+    private transient WordListLoader.Report loadReport;
+    private transient volatile HookIndex hooks;           //front and back hooks by word id, built on first use
+    private transient volatile BloomFilter fastReject;   //optional quick check before the real lookup
+    private transient volatile long fingerprint;          //hash of the words in id order, 0 until worked out
+    private final LongAdder filterChecks = new LongAdder();
+    private final LongAdder filterRejects = new LongAdder();
+    private final LongAdder filterFalsePositives = new LongAdder();
+    private static final long serialVersionUID = 2144712598316166820L;
+
+    public static final char OPEN_SQUARE = '?';   //pattern square to be filled from the rack, also a blank tile in a rack
+    public static final int ALL_LETTERS = -1;   //mask allowing every letter, whatever the alphabet
+    public static final int BLANK_INDEX = Alphabet.MAX_SIZE;  //index of the blank count in a rack count array
 
     /**
      * Creates a dictioner of all valid words in the game. It takes an input text file (.txt)
@@ -16,18 +38,274 @@ public class WordDictionary implements Serializable {
      * @throws IOException
      */
     public WordDictionary(String filename){
+        this(filename, false);
+    }
+
+    /**
+     * Creates a dictionary of all valid words in the game, optionally in compact mode. In compact
+     * mode the words are kept in a FrontCodedWordSet, which takes a fraction of the memory of a
+     * HashSet but is read only, and the trie is only built if a pattern query needs it.
+     *
+     * @param filename the word list, one word per line
+     * @param compact true to store the words in a FrontCodedWordSet
+     */
+    public WordDictionary(String filename, boolean compact){
+        this(readWords(filename, Alphabet.ENGLISH), compact, Alphabet.ENGLISH);
+    }
+
+    /**
+     * Builds the dictionary from the words of a loaded list
+     */
+    private WordDictionary(WordListLoader.Report report, boolean compact, Alphabet alphabet){
+        long start = System.nanoTime();
+        this.alphabet = alphabet;
+        List<String> loaded = report.getWords();
+        if (compact){
+            words = new FrontCodedWordSet(loaded);
+        } else {
+            words = new HashSet<>(loaded);
+            buildTrie(loaded);
+        }
+        report.setBuildMillis((System.nanoTime() - start) / 1_000_000);
+        loadReport = compact ? report.withoutWords() : report;   //the compact set should not keep the Strings alive
+    }
+
+    /**
+     * Creates a dictionary that shares the words and trie of another one but only accepts the
+     * words of some lexicons, and of a subset if one is given
+     */
+    private WordDictionary(WordDictionary base, int lexiconMask, WordSubset subset){
+        this.words = base.words;
+        this.trie = base.getTrie();
+        this.alphabet = base.alphabet;
+        this.lexiconCount = base.lexiconCount;
+        this.lexiconMask = lexiconMask;
+        this.subset = subset;
+    }
+
+    /**
+     * Creates one dictionary from several word lists, for example the default list, a tournament
+     * list and a kids' list. All the lists share one trie in which every word records which lists
+     * it comes from, so memory grows with the union of the lists rather than with their number.
+     * The returned dictionary accepts words from every list; use forLexicon to get the dictionary
+     * of a single list for a game.
+     *
+     * @param filenames the word lists, lexicon i is loaded from filenames[i]
+     * @return the merged dictionary
+     */
+    public static WordDictionary merge(String... filenames){
+        if (filenames.length == 0 || filenames.length > WordTrie.MAX_LEXICONS){
+            throw new IllegalArgumentException("Between 1 and " + WordTrie.MAX_LEXICONS + " word lists can be merged");
+        }
+        Map<String, Integer> wordLexicons = new HashMap<>();
+        for (int lexicon = 0; lexicon < filenames.length; lexicon++){
+            int bit = 1 << lexicon;
+            for (String word : readWords(filenames[lexicon], Alphabet.ENGLISH).getWords()){
+                wordLexicons.merge(word, bit, (a, b) -> a | b);
+            }
+        }
+
+        String[] sorted = wordLexicons.keySet().toArray(new String[0]);
+        Arrays.parallelSort(sorted);
+        int[] bits = new int[sorted.length];
+        for (int i = 0; i < sorted.length; i++){
+            bits[i] = wordLexicons.get(sorted[i]);
+        }
+
+        WordDictionary dictionary = new WordDictionary(new HashSet<>(wordLexicons.keySet()), WordTrie.build(sorted, bits));
+        dictionary.lexiconCount = filenames.length;
+        return dictionary;
+    }
+
+    private WordDictionary(Set<String> words, WordAutomaton trie){
+        this.words = words;
+        this.trie = trie;
+        this.alphabet = trie.getAlphabet();
+    }
+
+    /**
+     * Loads a word list into a dictionary whose trie is kept outside the Java heap. There is no
+     * word set, every lookup walks the off heap trie, so the words cost the heap almost nothing
+     * once loading is done.
+     *
+     * @param filename the word list, one word per line
+     * @return the off heap dictionary
+     * @throws IOException if the file cannot be read
+     */
+    public static WordDictionary offHeap(String filename) throws IOException {
+        WordListLoader.Report report = WordListLoader.load(Paths.get(filename));
+        long start = System.nanoTime();
+        WordDictionary dictionary = new WordDictionary(null, OffHeapWordTrie.copyOf(WordTrie.build(report.getWords()), 1));
+        report.setBuildMillis((System.nanoTime() - start) / 1_000_000);
+        dictionary.loadReport = report.withoutWords();
+        return dictionary;
+    }
+
+    /**
+     * Loads a word list into a dictionary backed by a LoudsWordTrie, the smallest form the words
+     * can take while still supporting lookups and pattern searches. There is no word set, and the
+     * heap trie used to build it is dropped once it has been copied.
+     *
+     * @param filename the word list, one word per line
+     * @return the succinct dictionary
+     * @throws IOException if the file cannot be read
+     */
+    public static WordDictionary succinct(String filename) throws IOException {
+        WordListLoader.Report report = WordListLoader.load(Paths.get(filename));
+        long start = System.nanoTime();
+        WordDictionary dictionary = new WordDictionary(null, LoudsWordTrie.copyOf(WordTrie.build(report.getWords())));
+        report.setBuildMillis((System.nanoTime() - start) / 1_000_000);
+        dictionary.loadReport = report.withoutWords();
+        return dictionary;
+    }
+
+    /**
+     * Opens a dictionary from an automaton file written by saveAutomaton(). The file is memory
+     * mapped, so nothing is parsed and the trie stays outside the heap.
+     *
+     * @param path the automaton file
+     * @return the off heap dictionary, with the lexicons that were saved
+     * @throws IOException if the file cannot be read
+     */
+    public static WordDictionary mapAutomaton(Path path) throws IOException {
+        OffHeapWordTrie automaton = OffHeapWordTrie.map(path);
+        WordDictionary dictionary = new WordDictionary(null, automaton);
+        dictionary.lexiconCount = automaton.getLexiconCount();
+        return dictionary;
+    }
+
+    /**
+     * Saves the trie of this dictionary to an automaton file for mapAutomaton()
+     *
+     * @param path the file to write
+     * @throws IOException if the file cannot be written
+     */
+    public void saveAutomaton(Path path) throws IOException {
+        WordAutomaton automaton = getTrie();
+        if (!(automaton instanceof WordTrie)){
+            automaton = WordTrie.build(getWords(), getAlphabet());
+        }
+        OffHeapWordTrie.save((WordTrie) automaton, lexiconCount, path);
+    }
+
+    /**
+     * Returns a dictionary that only accepts the words of one lexicon of a merged dictionary. It
+     * shares this dictionary's trie, so it costs almost no memory.
+     *
+     * @param lexicon the lexicon id, the position of its file in merge()
+     * @return the dictionary of that lexicon
+     */
+    public WordDictionary forLexicon(int lexicon){
+        if (lexicon < 0 || lexicon >= lexiconCount){
+            throw new IllegalArgumentException("No lexicon with id " + lexicon);
+        }
+        return new WordDictionary(this, 1 << lexicon, subset);
+    }
+
+    /**
+     * Returns a dictionary that only accepts the words of a subset, for example the common words
+     * an easy AI may play. It shares this dictionary's trie; the subset only stores word ids, so
+     * any number of restricted vocabularies can sit on one loaded word list.
+     *
+     * @param vocabulary the words to accept, built from this dictionary's word ids
+     * @return the restricted dictionary
+     * @throws IllegalArgumentException if the subset was built for a dictionary with other ids
+     */
+    public WordDictionary restrictTo(WordSubset vocabulary){
+        if (vocabulary.getUniverse() != getWordCount()){
+            throw new IllegalArgumentException("Subset was built for " + vocabulary.getUniverse()
+                    + " word ids, this dictionary has " + getWordCount());
+        }
+        return new WordDictionary(this, lexiconMask, vocabulary);
+    }
+
+    /**
+     * Getter of the subset this dictionary is restricted to
+     * @return the subset, null if every word of the lexicons is accepted
+     */
+    public WordSubset getSubset(){
+        return subset;
+    }
+
+    /**
+     * Getter of the lexicons this dictionary accepts words from
+     * @return lexicon bit mask, WordTrie.ALL_LEXICONS for all of them
+     */
+    int getLexiconMask(){
+        return lexiconMask;
+    }
+
+    /**
+     * Starts following a word typed onto a row or column of the board, see WordCursor
+     *
+     * @param line the squares of the row or column, a letter or ' ' for each one
+     * @param square the square the player starts typing at
+     * @param rack the player's rack letters, '?' for a blank
+     * @return the cursor, positioned after any board letters just before the square
+     */
+    public WordCursor cursor(char[] line, int square, CharSequence rack){
+        return new WordCursor(this, line, square, rackCounts(rack, getAlphabet()));
+    }
+
+    /**
+     * Returns the number of word lists merged into this dictionary
+     *
+     * @return the number of lexicons
+     */
+    public int getLexiconCount(){
+        return lexiconCount;
+    }
+
+    /**
+     * Checks if lookups have to go through the trie: an off heap dictionary has no word set, and
+     * the word set of a filtered or restricted dictionary holds more words than it accepts.
+     */
+    private boolean answersFromTrie(){
+        return words == null || isFiltered() || subset != null;
+    }
+
+    /**
+     * Checks if the word ending at a node is accepted: in a selected lexicon and in the subset
+     */
+    boolean accepts(WordAutomaton automaton, int node){
+        if (!automaton.isTerminal(node, lexiconMask)) return false;
+        return subset == null || subset.contains(automaton.firstWord(node));
+    }
+
+    /**
+     * Checks if this dictionary accepts only some of the words its ids cover: a single lexicon of
+     * a merged dictionary or a restricted one. It shares ids and fingerprint with the full one.
+     */
+    boolean isView(){
+        return isFiltered() || subset != null;
+    }
+
+    /**
+     * Checks if this dictionary only accepts some of the lexicons in its trie. The word set holds
+     * the union of all lexicons, so a filtered dictionary has to answer through the trie.
+     */
+    private boolean isFiltered(){
+        int allLexicons = lexiconCount == WordTrie.MAX_LEXICONS ? WordTrie.ALL_LEXICONS : (1 << lexiconCount) - 1;
+        return (allLexicons & ~lexiconMask) != 0;
+    }
+
+    /**
+     * Reads a word list through WordListLoader. Errors are reported on the console and give an
+     * empty list, like the dictionary has always done, so a missing file does not stop the game.
+     *
+     * @param filename the word list
+     * @return the load report, with no words if the file cannot be read
+     */
+    private static WordListLoader.Report readWords(String filename, Alphabet alphabet){
         //exception handling added for file reading
-        words = new HashSet<>();
         try{
-            File file = new File(filename);
-            BufferedReader br = new BufferedReader(new FileReader(file));
-
-            String word;
-            while ((word = br.readLine()) != null) {
-                words.add(word.toUpperCase());
+            WordListLoader.Report report = WordListLoader.load(Paths.get(filename), alphabet);
+            if (report.getRejected() > 0){
+                System.out.println("Skipped " + report.getRejected() + " invalid lines in " + filename
+                        + ", first ones: " + report.getRejectedLines());
             }
-            br.close();
-        } catch (FileNotFoundException e){
+            return report;
+        } catch (NoSuchFileException e){
             // catch exception for if the file is not found
             System.out.println("File not found: " + filename);
         } catch (IOException e){
@@ -39,24 +317,580 @@ public class WordDictionary implements Serializable {
             System.out.println("An unexpected error occurred: " + e.getMessage());
             e.printStackTrace();
         }
+        return WordListLoader.Report.empty();
+    }
+
+    /**
+     * Loads a dictionary and lets the caller handle errors, instead of falling back to an empty
+     * dictionary like the constructor does.
+     *
+     * @param filename the word list, one word per line
+     * @param compact true to store the words in a FrontCodedWordSet
+     * @return the dictionary, its getLoadReport() has the rejected lines and timings
+     * @throws IOException if the file cannot be read
+     */
+    public static WordDictionary load(String filename, boolean compact) throws IOException {
+        return load(filename, compact, Alphabet.ENGLISH);
+    }
+
+    /**
+     * Loads a dictionary for another language. The words of the list are read through the
+     * alphabet (digraphs joined, accents folded) and stored as its symbols, so the lookups take
+     * the board's symbols and the trie runs on the alphabet's letter codes.
+     *
+     * @param filename the word list, one word per line, in UTF-8
+     * @param compact true to store the words in a FrontCodedWordSet
+     * @param alphabet the letters of the language
+     * @return the dictionary
+     * @throws IOException if the file cannot be read
+     */
+    public static WordDictionary load(String filename, boolean compact, Alphabet alphabet) throws IOException {
+        return new WordDictionary(WordListLoader.load(Paths.get(filename), alphabet), compact, alphabet);
+    }
+
+    /**
+     * Getter of the letters of the dictionary
+     * @return the alphabet the words are written in
+     */
+    public Alphabet getAlphabet(){
+        return alphabet != null ? alphabet : Alphabet.ENGLISH;
+    }
+
+    /**
+     * Getter of the report of the last file loaded into the dictionary
+     * @return the load report, null for a merged dictionary
+     */
+    public WordListLoader.Report getLoadReport(){
+        return loadReport;
     }
 
     /**
      * Checks if the inputted word is valid. A word is valid if it can be found within
-     * the dictionary.
+     * the dictionary. The word can be spelled out ("chico") or written in the alphabet's symbols,
+     * as it is read off the board.
      *
      * @param word The word to be checked
      * @return  True if the word is valid, False otherwise
      */
     public boolean isValidWord(String word){
+        word = symbolsOf(word);
+        if (fastReject != null && rejected(fastReject.mightContain(word))) return false;
+        return passed(lookup(word));
+    }
+
+    /**
+     * The symbols of a word spelled out, with digraphs joined and accents folded. A word that does
+     * not spell out is kept as it is, it is already symbols or it is not a word at all.
+     */
+    private String symbolsOf(String word){
+        String symbols = getAlphabet().toSymbols(word);
+        return symbols != null ? symbols : word;
+    }
+
+    private boolean lookup(String word){
+        if (answersFromTrie()){
+            int node = WordTrie.ROOT;
+            for (int i = 0; i < word.length() && node != WordTrie.NONE; i++){
+                node = step(node, word.charAt(i));
+            }
+            return node != WordTrie.NONE && !word.isEmpty() && accepts(trie, node);
+        }
         return words.contains((word.toUpperCase()));
     }
 
     /**
-     * Getter of words
+     * Checks if the letters in a slice of a char array spell a valid word. The letters are read
+     * straight from the array by walking the trie (or searching the compact set), so nothing is
+     * allocated and no case conversion is done. A row of the board is a slice with a stride of 1.
+     * The compact set only matches uppercase letters, which is what the board holds.
+     *
+     * @param letters the array holding the word
+     * @param start index of the first letter
+     * @param length number of letters in the word
+     * @param stride distance between two letters of the word in the array
+     * @return True if the word is valid, False otherwise
+     */
+    public boolean isValidWord(char[] letters, int start, int length, int stride){
+        if (fastReject != null && rejected(fastReject.mightContain(letters, start, length, stride))) return false;
+        return passed(lookup(letters, start, length, stride));
+    }
+
+    private boolean lookup(char[] letters, int start, int length, int stride){
+        if (words instanceof FrontCodedWordSet && !answersFromTrie()){
+            return ((FrontCodedWordSet) words).contains(letters, start, length, stride);
+        }
+        int node = WordTrie.ROOT;
+        for (int i = 0, index = start; i < length; i++, index += stride){
+            node = step(node, letters[index]);
+            if (node == WordTrie.NONE) return false;
+        }
+        return length > 0 && accepts(trie, node);
+    }
+
+    /**
+     * Checks if the word starting at a square of the board grid is valid, reading the letters in
+     * place like the slice version. Used for columns, which are not stored in a single array.
+     *
+     * @param grid the board letters
+     * @param row row of the first letter
+     * @param col column of the first letter
+     * @param length number of letters in the word
+     * @param horizontal true to read along the row, false to read down the column
+     * @return True if the word is valid, False otherwise
+     */
+    public boolean isValidWord(char[][] grid, int row, int col, int length, boolean horizontal){
+        if (horizontal) return isValidWord(grid[row], col, length, 1);
+        if (fastReject != null && rejected(fastReject.mightContain(grid, row, col, length))) return false;
+        return passed(lookupColumn(grid, row, col, length));
+    }
+
+    private boolean lookupColumn(char[][] grid, int row, int col, int length){
+        if (words instanceof FrontCodedWordSet && !answersFromTrie()){
+            //the compact set can only read along one array, so the column is copied out
+            char[] column = new char[length];
+            for (int i = 0; i < length; i++){
+                column[i] = grid[row + i][col];
+            }
+            return lookup(column, 0, length, 1);
+        }
+
+        int node = WordTrie.ROOT;
+        for (int i = 0; i < length; i++){
+            node = step(node, grid[row + i][col]);
+            if (node == WordTrie.NONE) return false;
+        }
+        return length > 0 && accepts(trie, node);
+    }
+
+    /**
+     * Looks up the id of a word. Ids come from the trie: every word of the dictionary has a fixed
+     * number from 0 to getWordCount() - 1, so callers can keep and compare words as ints. In
+     * compact mode, until something builds the trie, the id is the word's position in the
+     * front coded set, which is the same number.
+     *
+     * @param word the word, any case, spelled out or in the alphabet's symbols
+     * @return the word id, or WordTrie.NONE if the word is not valid
+     */
+    public int wordId(String word){
+        word = symbolsOf(word);
+        if (fastReject != null && rejected(fastReject.mightContain(word))) return WordTrie.NONE;
+        FrontCodedWordSet compact = compactIds();
+        if (compact != null){
+            char[] letters = new char[word.length()];
+            for (int i = 0; i < letters.length; i++){
+                int code = getAlphabet().code(word.charAt(i));
+                if (code == Alphabet.NONE) return passed(WordTrie.NONE);
+                letters[i] = getAlphabet().symbol(code);
+            }
+            return passed(compact.indexOf(letters, 0, letters.length, 1));
+        }
+        WordAutomaton automaton = getTrie();
+        int node = WordTrie.ROOT;
+        for (int i = 0; i < word.length() && node != WordTrie.NONE; i++){
+            node = step(node, word.charAt(i));
+        }
+        return passed(idAt(automaton, node));
+    }
+
+    /**
+     * Looks up the id of a word on the board, reading the letters from the grid
+     *
+     * @param grid the board letters
+     * @param row row of the first letter
+     * @param col column of the first letter
+     * @param length number of letters in the word
+     * @param horizontal true if the word goes across, false if it goes down
+     * @return the word id, or WordTrie.NONE if the word is not valid
+     */
+    public int wordId(char[][] grid, int row, int col, int length, boolean horizontal){
+        if (fastReject != null && rejected(horizontal ? fastReject.mightContain(grid[row], col, length, 1)
+                : fastReject.mightContain(grid, row, col, length))) return WordTrie.NONE;
+        FrontCodedWordSet compact = compactIds();
+        if (compact != null){
+            if (horizontal) return passed(compact.indexOf(grid[row], col, length, 1));
+            char[] column = new char[length];   //the set reads along one array, like lookupColumn
+            for (int i = 0; i < length; i++){
+                column[i] = grid[row + i][col];
+            }
+            return passed(compact.indexOf(column, 0, length, 1));
+        }
+        WordAutomaton automaton = getTrie();
+        int node = WordTrie.ROOT;
+        for (int i = 0; i < length && node != WordTrie.NONE; i++){
+            node = step(node, horizontal ? grid[row][col + i] : grid[row + i][col]);
+        }
+        return passed(idAt(automaton, node));
+    }
+
+    /**
+     * Spells out the word with an id
+     *
+     * @param id a word id from wordId()
+     * @return the word in uppercase
+     */
+    public String wordOf(int id){
+        FrontCodedWordSet compact = compactIds();
+        return compact != null ? compact.get(id) : getTrie().wordOf(id);
+    }
+
+    /**
+     * The compact word set if ids can be answered from it without building the trie: a compact
+     * dictionary with no lexicon filter or subset whose trie has not been built yet
+     */
+    private FrontCodedWordSet compactIds(){
+        return trie == null && words instanceof FrontCodedWordSet && !answersFromTrie() ? (FrontCodedWordSet) words : null;
+    }
+
+    /**
+     * Number of word ids. For a single lexicon of a merged dictionary the ids are shared with the
+     * other lexicons, so this counts the words of all of them.
+     *
+     * @return one more than the largest word id
+     */
+    public int getWordCount(){
+        FrontCodedWordSet compact = compactIds();
+        return compact != null ? compact.size() : getTrie().getWordCount();
+    }
+
+    /**
+     * A 64 bit hash of the words in id order. Two dictionaries with the same fingerprint give
+     * every word the same id, so saved word ids can be checked against the word list they are
+     * read with. Worked out on the first call by spelling every word once.
+     *
+     * @return the fingerprint, never 0
+     */
+    public long getFingerprint(){
+        long hash = fingerprint;
+        if (hash == 0){
+            hash = 0xcbf29ce484222325L;   //64 bit FNV-1a
+            for (int id = 0; id < getWordCount(); id++){
+                String word = wordOf(id);
+                for (int i = 0; i < word.length(); i++){
+                    hash = (hash ^ word.charAt(i)) * 0x100000001b3L;
+                }
+                hash = (hash ^ '\n') * 0x100000001b3L;
+            }
+            if (hash == 0) hash = 1;
+            fingerprint = hash;
+        }
+        return hash;
+    }
+
+    /**
+     * Getter of the front and back hook letters of every word, indexed by word id. Built on the
+     * first call.
+     * @return the hook index of this dictionary's lexicons
+     */
+    public HookIndex getHookIndex(){
+        HookIndex index = hooks;
+        if (index == null){
+            index = HookIndex.build(getTrie(), lexiconMask, subset);
+            hooks = index;
+        }
+        return index;
+    }
+
+    /**
+     * Id of the word ending at a node, if it is in the selected lexicons
+     */
+    private int idAt(WordAutomaton automaton, int node){
+        if (node == WordTrie.NONE || !accepts(automaton, node)) return WordTrie.NONE;
+        return automaton.wordId(node);
+    }
+
+    /**
+     * Counts a word id lookup that got past the filter
+     * @return the id
+     */
+    private int passed(int id){
+        passed(id != WordTrie.NONE);
+        return id;
+    }
+
+    /**
+     * Builds a Bloom filter of the words that is checked before every lookup. Most strings tried
+     * during AI searches are not words, and the filter turns most of those away after hashing
+     * them once, without walking the trie or the word set. Valid words are never turned away.
+     *
+     * @param falsePositiveRate the share of non-words that still get through to the full lookup, e.g. 0.01
+     */
+    public void enableFastReject(double falsePositiveRate){
+        BloomFilter filter;
+        if (words != null){
+            filter = new BloomFilter(words.size(), falsePositiveRate, getAlphabet());
+            for (String word : words){
+                filter.add(word);
+            }
+        } else {
+            //off heap, every word of the automaton is spelled out once (other lexicons only add false positives)
+            filter = new BloomFilter(trie.getWordCount(), falsePositiveRate, getAlphabet());
+            for (int id = 0; id < trie.getWordCount(); id++){
+                filter.add(trie.wordOf(id));
+            }
+        }
+        fastReject = filter;
+        filterChecks.reset();
+        filterRejects.reset();
+        filterFalsePositives.reset();
+    }
+
+    /**
+     * Removes the Bloom filter, lookups go straight to the word set or trie again
+     */
+    public void disableFastReject(){
+        fastReject = null;
+    }
+
+    /**
+     * Getter of the Bloom filter in front of the lookups
+     * @return the filter, null if fast reject is off
+     */
+    public BloomFilter getFastReject(){
+        return fastReject;
+    }
+
+    /**
+     * Number of lookups that went through the Bloom filter since it was enabled
+     * @return lookups checked by the filter
+     */
+    public long getFilterChecks(){
+        return filterChecks.sum();
+    }
+
+    /**
+     * Number of lookups the Bloom filter answered on its own
+     * @return lookups rejected by the filter
+     */
+    public long getFilterRejects(){
+        return filterRejects.sum();
+    }
+
+    /**
+     * Number of non-words the Bloom filter let through to the full lookup
+     * @return false positives of the filter
+     */
+    public long getFilterFalsePositives(){
+        return filterFalsePositives.sum();
+    }
+
+    /**
+     * Counts a filter check
+     * @return true if the filter rejected the word
+     */
+    private boolean rejected(boolean mightContain){
+        filterChecks.increment();
+        if (!mightContain){
+            filterRejects.increment();
+        }
+        return !mightContain;
+    }
+
+    /**
+     * Counts a word that got past the filter but is not in the dictionary
+     * @return the lookup result
+     */
+    private boolean passed(boolean valid){
+        if (fastReject != null && !valid){
+            filterFalsePositives.increment();
+        }
+        return valid;
+    }
+
+    /**
+     * Follows the trie edge for one letter
+     */
+    private int step(int node, char letter){
+        int code = getAlphabet().code(letter);
+        return code == Alphabet.NONE ? WordTrie.NONE : trie.child(node, code);
+    }
+
+    /**
+     * Getter of words. For a single lexicon of a merged dictionary, or an off heap dictionary, this
+     * is a read only view that goes through the trie.
      * @return list of valid words
      */
     public Set<String> getWords(){
-        return words;
+        if (!answersFromTrie()){
+            return words;
+        }
+        return new AbstractSet<String>(){
+            @Override
+            public boolean contains(Object o){
+                return o instanceof String && isValidWord((String) o);
+            }
+
+            @Override
+            public Iterator<String> iterator(){
+                List<String> lexiconWords = new ArrayList<>();
+                for (int length = 1; length <= trie.getLongestWord(); length++){
+                    char[] pattern = new char[length];
+                    Arrays.fill(pattern, OPEN_SQUARE);
+                    findMatches(pattern, null, null, lexiconWords::add);
+                }
+                return Collections.unmodifiableList(lexiconWords).iterator();
+            }
+
+            @Override
+            public int size(){
+                int size = 0;
+                for (String ignored : this) size++;
+                return size;
+            }
+        };
+    }
+
+    /**
+     * Finds every word that fits a pattern such as "?A??E" by walking the trie. Letters in the
+     * pattern are squares already on the board and are matched as is. OPEN_SQUARE positions must
+     * be filled from the rack and only with a letter allowed by that position's mask (e.g. the
+     * letters that also form a valid cross word). Branches that cannot match are cut off as soon
+     * as they leave the pattern, the masks or the rack, so the dictionary is never scanned.
+     *
+     * @param pattern the squares of the word, a letter or OPEN_SQUARE for each one
+     * @param allowed the allowed letter mask for each position, or null to allow all letters
+     * @param rack letter counts by letter code plus blank count at BLANK_INDEX, or null for no rack limit
+     * @param consumer receives each matching word, in alphabetical order
+     */
+    public void findMatches(char[] pattern, int[] allowed, int[] rack, Consumer<String> consumer){
+        int[] counts = rack == null ? null : Arrays.copyOf(rack, BLANK_INDEX + 1);
+        findMatches(getTrie(), WordTrie.ROOT, 0, pattern, allowed, counts, new char[pattern.length], consumer);
+    }
+
+    /**
+     * Convenience version of findMatches that collects the results into a list.
+     *
+     * @param pattern the pattern, letters for board squares and '?' for open squares
+     * @param rack the letters in the rack, '?' for a blank, or null for no rack limit
+     * @return the matching words
+     */
+    public List<String> findMatches(String pattern, String rack){
+        List<String> matches = new ArrayList<>();
+        findMatches(pattern.toUpperCase().toCharArray(), null, rack == null ? null : rackCounts(rack), matches::add);
+        return matches;
+    }
+
+    /**
+     * Counts the letters of a rack by their code in this dictionary's alphabet. Blanks ('?' or ' ')
+     * are counted at BLANK_INDEX, any other character is ignored.
+     *
+     * @param rack the letters in the rack
+     * @return the rack count array used by findMatches
+     */
+    public int[] rackCounts(CharSequence rack){
+        return rackCounts(rack, getAlphabet());
+    }
+
+    /**
+     * Counts the letters of a rack by their code in an alphabet
+     *
+     * @param rack the letters in the rack, as symbols
+     * @param alphabet the alphabet giving the codes
+     * @return the rack count array used by findMatches
+     */
+    public static int[] rackCounts(CharSequence rack, Alphabet alphabet){
+        int[] counts = new int[BLANK_INDEX + 1];
+        for (int i = 0; i < rack.length(); i++){
+            char letter = rack.charAt(i);
+            int code = alphabet.code(letter);
+            if (code != Alphabet.NONE){
+                counts[code]++;
+            } else if (letter == OPEN_SQUARE || letter == ' '){
+                counts[BLANK_INDEX]++;
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Depth first search behind findMatches. The rack counts are taken on the way down and given
+     * back on the way up so no copies are made.
+     */
+    private void findMatches(WordAutomaton trie, int node, int depth, char[] pattern, int[] allowed, int[] rack,
+                             char[] path, Consumer<String> consumer){
+        if (depth == pattern.length){
+            if (accepts(trie, node)){
+                consumer.accept(new String(path));
+            }
+            return;
+        }
+
+        char square = pattern[depth];
+        if (square != OPEN_SQUARE){
+            int code = getAlphabet().code(square);
+            int next = nextNode(trie, node, code, depth, pattern.length);
+            if (next != WordTrie.NONE){
+                path[depth] = getAlphabet().symbol(code);
+                findMatches(trie, next, depth + 1, pattern, allowed, rack, path, consumer);
+            }
+            return;
+        }
+
+        int candidates = trie.childMask(node);
+        if (allowed != null) candidates &= allowed[depth];
+        if (rack != null && rack[BLANK_INDEX] == 0){
+            int inRack = 0;
+            for (int letter = 0; letter < getAlphabet().size(); letter++){
+                if (rack[letter] > 0) inRack |= 1 << letter;
+            }
+            candidates &= inRack;
+        }
+
+        while (candidates != 0){
+            int letter = Integer.numberOfTrailingZeros(candidates);
+            candidates &= candidates - 1;
+
+            int next = nextNode(trie, node, letter, depth, pattern.length);
+            if (next == WordTrie.NONE) continue;
+
+            //use the real tile if there is one, a blank otherwise
+            int used = (rack == null || rack[letter] > 0) ? letter : BLANK_INDEX;
+            if (rack != null) rack[used]--;
+            path[depth] = getAlphabet().symbol(letter);
+            findMatches(trie, next, depth + 1, pattern, allowed, rack, path, consumer);
+            if (rack != null) rack[used]++;
+        }
+    }
+
+    /**
+     * Follows an edge only if a word of the pattern length and of a selected lexicon can still end below it
+     */
+    private int nextNode(WordAutomaton trie, int node, int letter, int depth, int length){
+        if (letter == WordTrie.NONE) return WordTrie.NONE;
+        int next = trie.child(node, letter);
+        if (next == WordTrie.NONE || !trie.canEndIn(next, length - depth - 1)
+                || !trie.hasLexicon(next, lexiconMask)) return WordTrie.NONE;
+        return next;
+    }
+
+    /**
+     * Getter of the letter automaton. In compact mode it is built on the first call; a dictionary
+     * can be shared by games on several threads, so only one of them builds it.
+     * @return the trie of valid words
+     */
+    public WordAutomaton getTrie(){
+        WordAutomaton built = trie;
+        if (built == null){
+            synchronized (this){
+                if (trie == null){
+                    buildTrie(words);
+                }
+                built = trie;
+            }
+        }
+        return built;
+    }
+
+    /**
+     * Checks if the trie has been built, e.g. to see that compact mode has not built it
+     */
+    boolean isTrieBuilt(){
+        return trie != null;
+    }
+
+    /**
+     * Builds the trie from the words. Sorted input is faster since neighbouring words share nodes.
+     */
+    private void buildTrie(Collection<String> source){
+        trie = WordTrie.build(source, alphabet != null ? alphabet : Alphabet.ENGLISH);   //not getAlphabet(), the constructor calls this
     }
 }
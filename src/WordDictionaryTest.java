@@ -0,0 +1,311 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.*;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+/**
+ * JUnit tests for the WordDictionary class.
+ *
+ * Tests the dictionary lookups and the pattern queries used by the AI and hints.
+ *
+ */
+class WordDictionaryTest {
+
+    private WordDictionary dictionary;
+
+    @BeforeEach
+    void setUp() {
+        dictionary = new WordDictionary("ValidWords.txt");
+    }
+
+    @Test
+    void testIsValidWord() {
+        assertTrue(dictionary.isValidWord("test"));
+        assertTrue(dictionary.isValidWord("TEST"));
+        assertFalse(dictionary.isValidWord("ZZZQ"));
+    }
+
+    @Test
+    void testFindMatchesAgreesWithFullScan() {
+        List<String> expected = new ArrayList<>();
+        for (String word : dictionary.getWords()) {
+            if (word.length() == 5 && word.charAt(1) == 'A' && word.charAt(4) == 'E') {
+                expected.add(word);
+            }
+        }
+        Collections.sort(expected);
+
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, dictionary.findMatches("?A??E", null));
+    }
+
+    @Test
+    void testFindMatchesUsesRack() {
+        List<String> matches = dictionary.findMatches("????", "TSET");
+        assertTrue(matches.contains("TEST"));
+        for (String word : matches) {
+            int[] counts = dictionary.rackCounts(word);
+            assertTrue(counts['T' - 'A'] <= 2 && counts['S' - 'A'] <= 1 && counts['E' - 'A'] <= 1);
+        }
+        assertFalse(dictionary.findMatches("????", "TSE").contains("TEST"));
+        assertTrue(dictionary.findMatches("????", "TSE?").contains("TEST"));
+    }
+
+    @Test
+    void testFindMatchesAllowedMask() {
+        char[] pattern = "?EST".toCharArray();
+        int[] allowed = {1 << ('B' - 'A'), WordDictionary.ALL_LETTERS, WordDictionary.ALL_LETTERS, WordDictionary.ALL_LETTERS};
+        List<String> matches = new ArrayList<>();
+        dictionary.findMatches(pattern, allowed, null, matches::add);
+
+        assertEquals(List.of("BEST"), matches);
+    }
+
+    @Test
+    void testIsValidWordFromSlice() {
+        char[] row = " XTESTX ".toCharArray();
+        assertTrue(dictionary.isValidWord(row, 2, 4, 1));
+        assertFalse(dictionary.isValidWord(row, 1, 5, 1));
+
+        char[] column = {'T', '.', 'E', '.', 'S', '.', 'T'};
+        assertTrue(dictionary.isValidWord(column, 0, 4, 2));
+
+        char[][] grid = new char[4][2];
+        for (int i = 0; i < 4; i++) {
+            grid[i][1] = "BEST".charAt(i);
+        }
+        assertTrue(dictionary.isValidWord(grid, 0, 1, 4, false));
+        assertFalse(dictionary.isValidWord(grid, 0, 1, 3, false));
+    }
+
+    @Test
+    void testCompactModeMatchesDefault() {
+        WordDictionary compact = new WordDictionary("ValidWords.txt", true);
+        assertEquals(dictionary.getWords().size(), compact.getWords().size());
+        assertEquals(new TreeSet<>(dictionary.getWords()), new TreeSet<>(compact.getWords()));
+
+        for (String word : dictionary.getWords()) {
+            assertTrue(compact.isValidWord(word), word);
+            assertFalse(compact.isValidWord(word + "QX"));
+        }
+        assertTrue(compact.isValidWord(" XTESTX ".toCharArray(), 2, 4, 1));
+        assertEquals(dictionary.findMatches("?A??E", null), compact.findMatches("?A??E", null));
+    }
+
+    @Test
+    void testCompactModeIdsWithoutTrie() throws Exception {
+        WordDictionary compact = new WordDictionary("ValidWords.txt", true);
+        assertEquals(dictionary.getWordCount(), compact.getWordCount());
+        for (String word : List.of("A", "AA", "ABOUT", "CAT", "QUIZ", "TEST", "ZOO", "ZUM")) {
+            int id = compact.wordId(word.toLowerCase());
+            assertEquals(dictionary.wordId(word), id, word);
+            assertEquals(word, compact.wordOf(id));
+        }
+        assertEquals(WordTrie.NONE, compact.wordId("TESTQX"));
+        for (String word : dictionary.getWords()) {
+            assertEquals(dictionary.wordId(word), compact.wordId(word), word);
+        }
+
+        //a play scores the words by id without building the trie
+        Board board = new Board(compact);
+        Tile[] tiles = {Tile.getTile('T'), Tile.getTile('E'), Tile.getTile('S'), Tile.getTile('T')};
+        assertEquals(8, board.placeTilesAndValidate(new int[] {4, 5, 6, 7}, new int[] {7, 7, 7, 7}, tiles));
+        assertEquals("TEST", compact.wordOf(board.getLastWordIds()[0]));
+        assertFalse(compact.isTrieBuilt());
+
+        //games on other threads that need the trie all get the same one
+        List<Thread> threads = new ArrayList<>();
+        Set<WordAutomaton> tries = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+        for (int i = 0; i < 4; i++) {
+            Thread thread = new Thread(() -> tries.add(compact.getTrie()));
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) thread.join();
+        assertEquals(1, tries.size());
+        assertEquals(dictionary.wordId("TEST"), compact.wordId("TEST"));
+    }
+
+    @Test
+    void testMergedLexicons() throws IOException {
+        String tournament = writeWordList("CAT", "DOG", "ZAX");
+        String kids = writeWordList("CAT", "DOG", "PUPPY");
+        WordDictionary merged = WordDictionary.merge(tournament, kids);
+        WordDictionary tournamentOnly = merged.forLexicon(0);
+        WordDictionary kidsOnly = merged.forLexicon(1);
+
+        assertEquals(2, merged.getLexiconCount());
+        assertTrue(merged.isValidWord("zax") && merged.isValidWord("puppy"));
+        assertTrue(tournamentOnly.isValidWord("ZAX"));
+        assertFalse(tournamentOnly.isValidWord("PUPPY"));
+        assertTrue(kidsOnly.isValidWord("PUPPY"));
+        assertFalse(kidsOnly.isValidWord("ZAX".toCharArray(), 0, 3, 1));
+
+        assertEquals(List.of("CAT", "ZAX"), tournamentOnly.findMatches("???", "CATZX"));
+        assertEquals(Set.of("CAT", "DOG", "PUPPY"), new HashSet<>(kidsOnly.getWords()));
+        assertSame(merged.getTrie(), kidsOnly.getTrie());
+    }
+
+    @Test
+    void testLoadReportsRejectedLines() throws IOException {
+        String list = writeWordList("cat", "  Dog ", "can't", "", "CAT", "zebra");
+        WordDictionary loaded = WordDictionary.load(list, false);
+        WordListLoader.Report report = loaded.getLoadReport();
+
+        assertEquals(List.of("CAT", "DOG", "ZEBRA"), report.getWords());
+        assertEquals(6, report.getLines());
+        assertEquals(1, report.getDuplicates());
+        assertEquals(1, report.getRejected());
+        assertEquals(List.of("3: can't"), report.getRejectedLines());
+        assertTrue(loaded.isValidWord("dog"));
+    }
+
+    @Test
+    void testLoadMissingFile() {
+        assertThrows(IOException.class, () -> WordDictionary.load("NoSuchWords.txt", false));
+        assertTrue(new WordDictionary("NoSuchWords.txt").getWords().isEmpty());
+    }
+
+    /**
+     * Writes a temporary word list file
+     */
+    private String writeWordList(String... words) throws IOException {
+        File file = File.createTempFile("words", ".txt");
+        file.deleteOnExit();
+        Files.write(file.toPath(), Arrays.asList(words));
+        return file.getPath();
+    }
+
+    @Test
+    void testFastRejectKeepsEveryWord() {
+        dictionary.enableFastReject(0.01);
+        for (String word : dictionary.getWords()) {
+            assertTrue(dictionary.isValidWord(word));
+        }
+        assertEquals(0, dictionary.getFilterRejects());
+
+        //words with one letter changed are mostly not words and the filter should stop most of them
+        Random random = new Random(7);
+        int nonWords = 0;
+        for (String word : dictionary.getWords()) {
+            char[] changed = word.toCharArray();
+            changed[random.nextInt(changed.length)] = (char) ('A' + random.nextInt(26));
+            if (!dictionary.isValidWord(new String(changed))) nonWords++;
+        }
+        assertEquals(nonWords, dictionary.getFilterRejects() + dictionary.getFilterFalsePositives());
+        assertTrue(dictionary.getFilterFalsePositives() < nonWords * 0.05);
+        assertEquals(2L * dictionary.getWords().size(), dictionary.getFilterChecks());
+
+        char[][] grid = {{'T', 'E', 'S', 'T'}, {'A', 'B', 'C', 'D'}, {'X', 'Q', 'Z', 'J'}};
+        assertTrue(dictionary.isValidWord(grid, 0, 0, 4, true));
+        assertFalse(dictionary.isValidWord(grid, 0, 3, 3, false));
+    }
+
+    @Test
+    void testWordIdsAreDenseAndSorted() {
+        List<String> sorted = new ArrayList<>(dictionary.getWords());
+        Collections.sort(sorted);
+        assertEquals(sorted.size(), dictionary.getWordCount());
+        for (int id = 0; id < sorted.size(); id++) {
+            assertEquals(id, dictionary.wordId(sorted.get(id)));
+            assertEquals(sorted.get(id), dictionary.wordOf(id));
+        }
+        assertEquals(WordTrie.NONE, dictionary.wordId("ZZZQ"));
+
+        char[][] grid = {{'T', 'E', 'S', 'T'}, {'A', 'B', 'C', 'D'}};
+        assertEquals(dictionary.wordId("TEST"), dictionary.wordId(grid, 0, 0, 4, true));
+        assertEquals(dictionary.wordId("SC"), dictionary.wordId(grid, 0, 2, 2, false));
+        assertNotEquals(WordTrie.NONE, dictionary.wordId("SC"));
+    }
+
+    @Test
+    void testHookIndexMatchesLookups() {
+        HookIndex hooks = dictionary.getHookIndex();
+        int checked = 0;
+        for (String word : dictionary.getWords()) {
+            if (checked++ % 20 != 0) continue;
+            int id = dictionary.wordId(word);
+            int front = 0;
+            int back = 0;
+            for (char letter = 'A'; letter <= 'Z'; letter++) {
+                if (dictionary.isValidWord(letter + word)) front |= 1 << (letter - 'A');
+                if (dictionary.isValidWord(word + letter)) back |= 1 << (letter - 'A');
+            }
+            assertEquals(front, hooks.getFrontHooks(id), word);
+            assertEquals(back, hooks.getBackHooks(id), word);
+        }
+    }
+
+    @Test
+    void testOffHeapMatchesDefault() throws IOException {
+        WordDictionary offHeap = WordDictionary.offHeap("ValidWords.txt");
+        File file = File.createTempFile("words", ".trie");
+        file.deleteOnExit();
+        dictionary.saveAutomaton(file.toPath());
+        WordDictionary mapped = WordDictionary.mapAutomaton(file.toPath());
+
+        assertEquals(dictionary.getWords().size(), offHeap.getWords().size());
+        for (String word : dictionary.getWords()) {
+            assertTrue(offHeap.isValidWord(word));
+            assertEquals(dictionary.wordId(word), mapped.wordId(word));
+        }
+        assertFalse(offHeap.isValidWord("ZZZQ"));
+        assertFalse(mapped.isValidWord("ZZZQ".toCharArray(), 0, 4, 1));
+        assertEquals(dictionary.findMatches("?A??E", "RACKETS"), mapped.findMatches("?A??E", "RACKETS"));
+
+        //a cut off file is refused when it is opened
+        File damaged = File.createTempFile("damaged", ".trie");
+        damaged.deleteOnExit();
+        Files.write(damaged.toPath(), Arrays.copyOf(Files.readAllBytes(file.toPath()), 100));
+        assertThrows(IllegalArgumentException.class, () -> WordDictionary.mapAutomaton(damaged.toPath()));
+    }
+
+    @Test
+    void testSuccinctMatchesDefault() throws IOException {
+        WordDictionary succinct = WordDictionary.succinct("ValidWords.txt");
+        LoudsWordTrie louds = (LoudsWordTrie) succinct.getTrie();
+        assertEquals(dictionary.getTrie().getNodeCount(), louds.getNodeCount());
+
+        for (String word : dictionary.getWords()) {
+            int id = succinct.wordId(word);
+            assertEquals(dictionary.wordId(word), id);
+            assertEquals(word, succinct.wordOf(id));
+        }
+        assertFalse(succinct.isValidWord("ZZZQ"));
+        assertEquals(dictionary.findMatches("?A??E", "RACKETS"), succinct.findMatches("?A??E", "RACKETS"));
+        assertEquals(dictionary.getHookIndex().getBackHooks(dictionary.wordId("CAT")),
+                succinct.getHookIndex().getBackHooks(succinct.wordId("CAT")));
+        assertTrue(louds.getShapeBitsPerNode() < 2.5);   //2 bits plus the rank and select tables
+    }
+
+    @Test
+    void testCursorFollowsRackAndBoardLine() {
+        char[] line = "     A         ".toCharArray();
+        WordCursor cursor = dictionary.cursor(line, 4, "CTSE");
+
+        assertTrue(cursor.advance('c'));
+        assertFalse(cursor.advance('B'));   //square 5 already holds an A
+        assertTrue(cursor.advance('A'));
+        assertEquals("CA", cursor.getPrefix());
+        assertEquals(List.of("CA", "CAS", "CASE", "CAST", "CAT", "CATS"), cursor.completions(10));
+        assertEquals(List.of("CA", "CAS"), cursor.completions(2));
+
+        assertTrue(cursor.advance('T'));
+        assertTrue(cursor.isWord());
+        assertFalse(cursor.advance('T'));   //the only T is already used
+        assertTrue(cursor.back());
+        assertTrue(cursor.advance('S'));
+        assertEquals("CAS", cursor.getPrefix());
+
+        //starting right after a board letter picks it up, and it cannot be removed
+        WordCursor after = dictionary.cursor(line, 6, "T");
+        assertEquals(5, after.getStart());
+        assertEquals("A", after.getPrefix());
+        assertFalse(after.isWord());
+        assertFalse(after.back());
+        assertEquals(List.of("AT"), after.completions(10));
+    }
+}
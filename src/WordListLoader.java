@@ -0,0 +1,294 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+/**
+ * WordListLoader reads word list files for WordDictionary. The file is read through a FileChannel
+ * in large chunks and every chunk of complete lines is parsed on the common fork join pool while
+ * the next chunk is being read. Each line is trimmed, converted to uppercase and checked to only
+ * contain the letters A-Z; other lines are rejected and reported. The accepted words are then
+ * split into buckets by their first two letters, the buckets are sorted in parallel and
+ * duplicates removed.
+ *
+ * Lists of other languages are read as UTF-8 and each line goes through Alphabet.toSymbols(), so
+ * the words come out as the alphabet's symbols (digraphs joined, accents folded).
+ */
+public class WordListLoader {
+    public static final int CHUNK_SIZE = 1 << 20;
+    public static final int MAX_REPORTED_LINES = 20;   //how many rejected lines are kept for the report
+    private static final int BUCKETS = Alphabet.MAX_SIZE * (Alphabet.MAX_SIZE + 1);
+
+    /**
+     * The outcome of loading a word list: the sorted, unique words and what happened to the rest
+     * of the lines, with timings.
+     */
+    public static class Report {
+        private final List<String> words;
+        private int wordCount;
+        private final int lines;
+        private final int duplicates;
+        private final int rejected;
+        private final List<String> rejectedLines;
+        private final long readMillis;
+        private final long sortMillis;
+        private long buildMillis;
+
+        Report(List<String> words, int lines, int duplicates, int rejected, List<String> rejectedLines,
+               long readMillis, long sortMillis) {
+            this.words = words;
+            this.wordCount = words.size();
+            this.lines = lines;
+            this.duplicates = duplicates;
+            this.rejected = rejected;
+            this.rejectedLines = rejectedLines;
+            this.readMillis = readMillis;
+            this.sortMillis = sortMillis;
+        }
+
+        /**
+         * Report of a list that could not be read at all
+         */
+        static Report empty() {
+            return new Report(new ArrayList<>(), 0, 0, 0, new ArrayList<>(), 0, 0);
+        }
+
+        /** The sorted unique words, empty once the report has been kept without them */
+        public List<String> getWords() { return words; }
+        public int getWordCount() { return wordCount; }
+        public int getLines() { return lines; }
+        public int getDuplicates() { return duplicates; }
+        public int getRejected() { return rejected; }
+        /** The first MAX_REPORTED_LINES rejected lines, as "line number: text" */
+        public List<String> getRejectedLines() { return rejectedLines; }
+        public long getReadMillis() { return readMillis; }
+        public long getSortMillis() { return sortMillis; }
+        public long getBuildMillis() { return buildMillis; }
+
+        /**
+         * Records how long the dictionary took to build its structures from the words
+         * @param buildMillis build time in milliseconds
+         */
+        void setBuildMillis(long buildMillis) { this.buildMillis = buildMillis; }
+
+        /**
+         * Copy of the report without the word list, for a dictionary that keeps its words somewhere
+         * else and should not hold on to the Strings
+         * @return the same counts and timings with no words
+         */
+        Report withoutWords() {
+            Report copy = new Report(Collections.emptyList(), lines, duplicates, rejected, rejectedLines, readMillis, sortMillis);
+            copy.wordCount = wordCount;   //keep the count of the words that were loaded
+            copy.buildMillis = buildMillis;
+            return copy;
+        }
+
+        @Override
+        public String toString() {
+            return wordCount + " words from " + lines + " lines (" + duplicates + " duplicates, "
+                    + rejected + " rejected), read " + readMillis + " ms, sort " + sortMillis
+                    + " ms, build " + buildMillis + " ms";
+        }
+    }
+
+    /**
+     * Words and rejected lines of one chunk of the file. Line numbers start at 0 in each chunk and
+     * are made absolute once all chunks are in.
+     */
+    private static class Chunk {
+        final List<String> words = new ArrayList<>();
+        final List<String> rejectedLines = new ArrayList<>();
+        final List<Integer> rejectedAt = new ArrayList<>();
+        int rejected;
+        int lines;
+    }
+
+    /**
+     * Loads a word list file
+     *
+     * @param path the file, one word per line
+     * @return the sorted unique words with a report of the load
+     * @throws IOException if the file cannot be read
+     */
+    public static Report load(Path path) throws IOException {
+        return load(path, Alphabet.ENGLISH);
+    }
+
+    /**
+     * Loads a word list file of a language
+     *
+     * @param path the file, one word per line, in UTF-8
+     * @param alphabet the letters of the language
+     * @return the sorted unique words, as symbols, with a report of the load
+     * @throws IOException if the file cannot be read
+     */
+    public static Report load(Path path, Alphabet alphabet) throws IOException {
+        long start = System.nanoTime();
+        List<CompletableFuture<Chunk>> pending = new ArrayList<>();
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(CHUNK_SIZE);
+            byte[] carry = new byte[0];   //the unfinished last line of the previous chunk
+            boolean endOfFile = false;
+
+            while (!endOfFile) {
+                buffer.clear();
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer) == -1) {
+                        endOfFile = true;
+                        break;
+                    }
+                }
+                buffer.flip();
+
+                byte[] bytes = new byte[carry.length + buffer.remaining()];
+                System.arraycopy(carry, 0, bytes, 0, carry.length);
+                buffer.get(bytes, carry.length, bytes.length - carry.length);
+
+                int end = bytes.length;
+                if (!endOfFile) {
+                    end = lastLineEnd(bytes);
+                    if (end == 0) {   //a single line longer than the chunk, keep reading
+                        carry = bytes;
+                        continue;
+                    }
+                }
+                carry = Arrays.copyOfRange(bytes, end, bytes.length);
+
+                int chunkEnd = end;
+                pending.add(CompletableFuture.supplyAsync(() -> parse(bytes, chunkEnd, alphabet)));
+            }
+        }
+
+        //put the chunks back together in file order
+        List<String> rejectedLines = new ArrayList<>();
+        int lines = 0;
+        int rejected = 0;
+        int total = 0;
+        List<Chunk> chunks = new ArrayList<>();
+        for (CompletableFuture<Chunk> future : pending) {
+            Chunk chunk = future.join();
+            for (int i = 0; i < chunk.rejectedLines.size() && rejectedLines.size() < MAX_REPORTED_LINES; i++) {
+                rejectedLines.add((lines + chunk.rejectedAt.get(i) + 1) + ": " + chunk.rejectedLines.get(i));
+            }
+            lines += chunk.lines;
+            rejected += chunk.rejected;
+            total += chunk.words.size();
+            chunks.add(chunk);
+        }
+
+        //spread the words over buckets by their first two letters, which puts the buckets in
+        //sorted order, then sort the buckets on their own in parallel
+        int[] bucketStart = new int[BUCKETS + 1];
+        for (Chunk chunk : chunks) {
+            for (String word : chunk.words) {
+                bucketStart[bucket(word, alphabet) + 1]++;
+            }
+        }
+        for (int b = 0; b < BUCKETS; b++) {
+            bucketStart[b + 1] += bucketStart[b];
+        }
+        String[] all = new String[total];
+        int[] next = Arrays.copyOf(bucketStart, BUCKETS);
+        for (Chunk chunk : chunks) {
+            for (String word : chunk.words) {
+                all[next[bucket(word, alphabet)]++] = word;
+            }
+        }
+        long read = System.nanoTime();
+
+        IntStream.range(0, BUCKETS).parallel()
+                .forEach(b -> Arrays.sort(all, bucketStart[b], bucketStart[b + 1]));
+        int unique = 0;
+        for (int i = 0; i < all.length; i++) {
+            if (unique == 0 || !all[i].equals(all[unique - 1])) {
+                all[unique++] = all[i];
+            }
+        }
+        long sorted = System.nanoTime();
+
+        return new Report(Arrays.asList(Arrays.copyOf(all, unique)), lines, total - unique, rejected,
+                rejectedLines, (read - start) / 1_000_000, (sorted - read) / 1_000_000);
+    }
+
+    /**
+     * Splits the complete lines of a chunk into words. Blank lines are skipped, lines with any
+     * character other than a letter are rejected.
+     */
+    private static Chunk parse(byte[] bytes, int end, Alphabet alphabet) {
+        Chunk chunk = new Chunk();
+        int lineStart = 0;
+        while (lineStart < end) {
+            int lineEnd = lineStart;
+            while (lineEnd < end && bytes[lineEnd] != '\n') lineEnd++;
+
+            int from = lineStart;
+            int to = lineEnd;
+            while (from < to && isSpace(bytes[from])) from++;
+            while (to > from && isSpace(bytes[to - 1])) to--;
+
+            if (from < to && alphabet != Alphabet.ENGLISH) {
+                String word = alphabet.toSymbols(new String(bytes, from, to - from, StandardCharsets.UTF_8));
+                if (word != null) {
+                    chunk.words.add(word);
+                } else {
+                    reject(chunk, bytes, from, to);
+                }
+            } else if (from < to) {
+                boolean valid = true;
+                for (int i = from; i < to && valid; i++) {
+                    byte b = bytes[i];
+                    valid = (b >= 'A' && b <= 'Z') || (b >= 'a' && b <= 'z');
+                }
+
+                if (valid) {
+                    for (int i = from; i < to; i++) {
+                        if (bytes[i] >= 'a') bytes[i] -= 'a' - 'A';
+                    }
+                    chunk.words.add(new String(bytes, from, to - from, StandardCharsets.US_ASCII));
+                } else {
+                    reject(chunk, bytes, from, to);
+                }
+            }
+            chunk.lines++;
+            lineStart = lineEnd + 1;
+        }
+        return chunk;
+    }
+
+    private static void reject(Chunk chunk, byte[] bytes, int from, int to) {
+        chunk.rejected++;
+        if (chunk.rejectedLines.size() < MAX_REPORTED_LINES) {
+            chunk.rejectedAt.add(chunk.lines);
+            chunk.rejectedLines.add(new String(bytes, from, to - from, StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Returns the index just after the last line break, 0 if there is none
+     */
+    private static int lastLineEnd(byte[] bytes) {
+        for (int i = bytes.length - 1; i >= 0; i--) {
+            if (bytes[i] == '\n') return i + 1;
+        }
+        return 0;
+    }
+
+    /**
+     * Bucket of a word by the codes of its first two letters. A one letter word comes before the
+     * longer words starting with it. Codes follow symbol order, so the buckets are in sorted order.
+     */
+    private static int bucket(String word, Alphabet alphabet) {
+        int second = word.length() > 1 ? alphabet.code(word.charAt(1)) + 1 : 0;
+        return alphabet.code(word.charAt(0)) * (Alphabet.MAX_SIZE + 1) + second;
+    }
+
+    private static boolean isSpace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+}
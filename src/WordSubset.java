@@ -0,0 +1,159 @@
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.*;
+
+/**
+ * WordSubset is a set of word ids of one dictionary, such as the common words for an easy AI or a
+ * kids' game. Many subsets can share one dictionary, each one only storing which ids it keeps.
+ *
+ * The ids are stored like a roaring bitmap: they are split into chunks of 65536 ids by their top
+ * 16 bits, and each chunk that has any ids keeps its low 16 bits either as a sorted char array
+ * (up to ARRAY_LIMIT ids, two bytes each) or as a 65536 bit bitmap (8 KB) when it is fuller than
+ * that. A sparse subset then costs about two bytes per word and a dense one at most one bit per id.
+ */
+public class WordSubset {
+    public static final int ARRAY_LIMIT = 4096;   //above this many ids a chunk is cheaper as a bitmap
+    private static final int CHUNK_BITS = 16;
+    private static final int CHUNK_MASK = (1 << CHUNK_BITS) - 1;
+    private static final int BITMAP_LONGS = (1 << CHUNK_BITS) / 64;
+
+    private final int universe;       //word count of the dictionary the ids belong to
+    private final char[] keys;        //top 16 bits of each chunk, sorted
+    private final char[][] arrays;    //low 16 bits of the ids of a sparse chunk, null for a bitmap chunk
+    private final long[][] bitmaps;   //bitmap of a dense chunk, null for an array chunk
+    private final int size;
+
+    /**
+     * Builds a subset from word ids
+     *
+     * @param universe the number of word ids of the dictionary (its getWordCount())
+     * @param ids the ids to keep, in any order, duplicates allowed
+     * @throws IllegalArgumentException if an id is outside 0 to universe - 1
+     */
+    public WordSubset(int universe, int[] ids) {
+        int[] sorted = ids.clone();
+        Arrays.sort(sorted);
+        int unique = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (sorted[i] < 0 || sorted[i] >= universe) {
+                throw new IllegalArgumentException("Word id " + sorted[i] + " outside 0-" + (universe - 1));
+            }
+            if (unique == 0 || sorted[unique - 1] != sorted[i]) {
+                sorted[unique++] = sorted[i];
+            }
+        }
+
+        int chunks = 0;
+        for (int i = 0; i < unique; i++) {
+            if (i == 0 || sorted[i] >>> CHUNK_BITS != sorted[i - 1] >>> CHUNK_BITS) chunks++;
+        }
+        this.universe = universe;
+        keys = new char[chunks];
+        arrays = new char[chunks][];
+        bitmaps = new long[chunks][];
+        size = unique;
+
+        int chunk = 0;
+        for (int start = 0; start < unique; chunk++) {
+            int key = sorted[start] >>> CHUNK_BITS;
+            int end = start;
+            while (end < unique && sorted[end] >>> CHUNK_BITS == key) end++;
+
+            keys[chunk] = (char) key;
+            if (end - start <= ARRAY_LIMIT) {
+                char[] low = new char[end - start];
+                for (int i = start; i < end; i++) {
+                    low[i - start] = (char) (sorted[i] & CHUNK_MASK);
+                }
+                arrays[chunk] = low;
+            } else {
+                long[] bits = new long[BITMAP_LONGS];
+                for (int i = start; i < end; i++) {
+                    int low = sorted[i] & CHUNK_MASK;
+                    bits[low >>> 6] |= 1L << low;
+                }
+                bitmaps[chunk] = bits;
+            }
+            start = end;
+        }
+    }
+
+    /**
+     * Builds the subset of a dictionary's words that appear in a collection. Words that are not
+     * in the dictionary are left out.
+     *
+     * @param dictionary the dictionary the ids come from
+     * @param words the words to keep, any case, spelled out or in the alphabet's symbols
+     * @return the subset
+     */
+    public static WordSubset of(WordDictionary dictionary, Collection<String> words) {
+        int[] ids = new int[words.size()];
+        int count = 0;
+        for (String word : words) {
+            int id = dictionary.wordId(word);
+            if (id != WordTrie.NONE) ids[count++] = id;
+        }
+        return new WordSubset(dictionary.getWordCount(), Arrays.copyOf(ids, count));
+    }
+
+    /**
+     * Reads a word list file, in the dictionary's alphabet, and builds the subset of the
+     * dictionary's words it contains
+     *
+     * @param dictionary the dictionary the ids come from
+     * @param filename the word list, one word per line
+     * @return the subset
+     * @throws IOException if the file cannot be read
+     */
+    public static WordSubset load(WordDictionary dictionary, String filename) throws IOException {
+        return of(dictionary, WordListLoader.load(Paths.get(filename), dictionary.getAlphabet()).getWords());
+    }
+
+    /**
+     * Checks if a word id is in the subset
+     *
+     * @param id the word id
+     * @return true if the subset keeps the word
+     */
+    public boolean contains(int id) {
+        if (id < 0) return false;
+        int chunk = Arrays.binarySearch(keys, (char) (id >>> CHUNK_BITS));
+        if (chunk < 0 || id >>> CHUNK_BITS > Character.MAX_VALUE) return false;
+        int low = id & CHUNK_MASK;
+        if (bitmaps[chunk] != null) {
+            return (bitmaps[chunk][low >>> 6] & (1L << low)) != 0;
+        }
+        return Arrays.binarySearch(arrays[chunk], (char) low) >= 0;
+    }
+
+    /**
+     * Number of ids in the subset
+     *
+     * @return the size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Number of word ids of the dictionary the subset was built for
+     *
+     * @return the dictionary's word count
+     */
+    public int getUniverse() {
+        return universe;
+    }
+
+    /**
+     * Number of bytes used by the chunks, not counting object headers
+     *
+     * @return approximate footprint in bytes
+     */
+    public long getBytes() {
+        long bytes = keys.length * 2L;
+        for (int chunk = 0; chunk < keys.length; chunk++) {
+            bytes += bitmaps[chunk] != null ? BITMAP_LONGS * 8L : arrays[chunk].length * 2L;
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,75 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+
+/**
+ * JUnit tests for the WordSubset class.
+ *
+ * Tests the compressed id sets and dictionaries restricted to them, and vocabulary files read in
+ * the dictionary's alphabet.
+ *
+ */
+class WordSubsetTest {
+
+    private WordDictionary dictionary;
+
+    @BeforeEach
+    void setUp() {
+        dictionary = new WordDictionary("ValidWords.txt");
+    }
+
+    @Test
+    void testContainsSparseAndDenseChunks() {
+        //ids 0-9999 fill a bitmap chunk, the few ids above 65536 make an array chunk
+        int[] ids = new int[10003];
+        for (int i = 0; i < 10000; i++) ids[i] = i;
+        ids[10000] = 70000;
+        ids[10001] = 70005;
+        ids[10002] = 70000;
+        WordSubset subset = new WordSubset(100000, ids);
+
+        assertEquals(10002, subset.size());
+        assertTrue(subset.contains(0) && subset.contains(9999) && subset.contains(70005));
+        assertFalse(subset.contains(10000) || subset.contains(70001) || subset.contains(-1));
+        assertEquals(2 * 2 + 8192 + 2 * 2, subset.getBytes());
+        assertThrows(IllegalArgumentException.class, () -> new WordSubset(10, new int[]{10}));
+    }
+
+    @Test
+    void testRestrictedDictionary() {
+        WordSubset common = WordSubset.of(dictionary, List.of("cat", "test", "tests", "notaword"));
+        WordDictionary easy = dictionary.restrictTo(common);
+
+        assertEquals(3, common.size());
+        assertTrue(easy.isValidWord("TEST"));
+        assertTrue(easy.isValidWord("tests".toCharArray(), 0, 5, 1));
+        assertFalse(easy.isValidWord("TESTED"));
+        assertTrue(dictionary.isValidWord("TESTED"));
+        assertEquals(dictionary.wordId("TEST"), easy.wordId("TEST"));
+        assertEquals(WordTrie.NONE, easy.wordId("TESTED"));
+
+        assertEquals(List.of("TEST"), easy.findMatches("????", "TESTED"));
+        assertEquals(Set.of("CAT", "TEST", "TESTS"), new HashSet<>(easy.getWords()));
+        assertEquals(1 << ('S' - 'A'), easy.getHookIndex().getBackHooks(easy.wordId("TEST")));
+    }
+
+    @Test
+    void testLoadInDictionaryAlphabet() throws IOException {
+        File words = File.createTempFile("palabras", ".txt");
+        words.deleteOnExit();
+        Files.write(words.toPath(), List.of("chico", "calle", "camión", "gato"), StandardCharsets.UTF_8);
+        WordDictionary spanish = WordDictionary.load(words.getPath(), false, Alphabet.SPANISH);
+
+        File vocabulary = File.createTempFile("vocabulario", ".txt");
+        vocabulary.deleteOnExit();
+        Files.write(vocabulary.toPath(), List.of("CHICO", "CALLE", "CAMIÓN"), StandardCharsets.UTF_8);
+        WordSubset subset = WordSubset.load(spanish, vocabulary.getPath());
+        assertEquals(3, subset.size(), "digraphs and accents are read like the dictionary reads them");
+        assertFalse(subset.contains(spanish.wordId("gato")));
+    }
+}
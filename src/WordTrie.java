@@ -0,0 +1,371 @@
+import java.util.*;
+
+/**
+ * WordTrie is the letter automaton behind WordDictionary. Every node is an int index into a few
+ * parallel int arrays (no objects per node). The children of a node are numbered one after the
+ * other, so a node only stores a bit mask of its letters and its first child; the child for a
+ * letter is found by counting the mask bits below that letter.
+ *
+ * Letters are the codes of the trie's Alphabet, 0-25 for English ('A' = 0), and at most 32 so the
+ * masks fit in an int. Only words made of the alphabet's uppercase symbols are stored. The trie is
+ * built once from a sorted word list and cannot be changed afterwards.
+ *
+ * Several word lists (lexicons) can share one trie. Every word remembers which lexicons contain
+ * it as a bit mask (bit i for lexicon i, up to MAX_LEXICONS), so N lexicons only cost the memory
+ * of their union.
+ *
+ * Every word also has an id: its position in sorted order over all the words of the trie (0 to
+ * getWordCount() - 1). Ids stay the same for as long as the trie is used, so results and history
+ * can store a word as one int and turn it back into letters with wordOf().
+ *
+ * The nodes live in int arrays on the heap; OffHeapWordTrie can copy them outside the heap.
+ */
+public class WordTrie implements WordAutomaton {
+    public static final int NONE = -1;     //returned by child() when there is no edge
+    public static final int ROOT = 0;
+    public static final int MAX_LEXICONS = 32;
+    public static final int ALL_LEXICONS = -1;   //mask selecting every lexicon
+
+    private int[] childMasks;      //bit i set if the node has an edge for letter i
+    private int[] firstChild;      //node number of the child with the lowest letter
+    private int[] suffixLengths;   //bit k set if a word ends k letters below the node (k capped at 31)
+    private int[] lexicons;        //lexicons containing the word that ends at the node, 0 if no word ends there
+    private int[] subtreeLexicons; //lexicons of all the words at or below the node
+    private int[] firstWord;       //id of the first word (in sorted order) at or below the node
+    private final Alphabet alphabet;
+    private int nodeCount;
+    private int wordCount;
+    private int longestWord;
+
+    private WordTrie(int capacity, Alphabet alphabet) {
+        this.alphabet = alphabet;
+        childMasks = new int[capacity];
+        firstChild = new int[capacity];
+        suffixLengths = new int[capacity];
+        lexicons = new int[capacity];
+        subtreeLexicons = new int[capacity];
+        firstWord = new int[capacity];
+        nodeCount = 1;
+    }
+
+    /**
+     * Builds a trie where every word is in lexicon 0. Words that are not only uppercase letters
+     * are left out and duplicates are ignored. Sorted input is used as is, anything else is sorted
+     * first.
+     *
+     * @param words the words to store, in uppercase
+     * @return the trie
+     */
+    public static WordTrie build(Collection<String> words) {
+        return build(words, Alphabet.ENGLISH);
+    }
+
+    /**
+     * Builds a trie of words written in the symbols of an alphabet, every word in lexicon 0
+     *
+     * @param words the words to store, as uppercase symbols (see Alphabet.toSymbols)
+     * @param alphabet the letters of the words
+     * @return the trie
+     */
+    public static WordTrie build(Collection<String> words, Alphabet alphabet) {
+        String[] sorted = words.toArray(new String[0]);
+        for (int i = 1; i < sorted.length; i++) {
+            if (sorted[i - 1].compareTo(sorted[i]) > 0) {
+                Arrays.parallelSort(sorted);
+                break;
+            }
+        }
+        int[] lexicon = new int[sorted.length];
+        Arrays.fill(lexicon, 1);
+        return build(sorted, lexicon, alphabet);
+    }
+
+    /**
+     * Builds a trie from sorted words and the lexicons of each word. Words that are not only
+     * uppercase letters are left out, and the lexicons of duplicate words are combined.
+     *
+     * @param sortedWords the words in String order, in uppercase
+     * @param wordLexicons the lexicon bit mask of each word
+     * @return the trie
+     * @throws IllegalArgumentException if the words are not sorted
+     */
+    public static WordTrie build(String[] sortedWords, int[] wordLexicons) {
+        return build(sortedWords, wordLexicons, Alphabet.ENGLISH);
+    }
+
+    /**
+     * Builds a trie from sorted words of an alphabet and the lexicons of each word
+     *
+     * @param sortedWords the words in String order, as uppercase symbols
+     * @param wordLexicons the lexicon bit mask of each word
+     * @param alphabet the letters of the words
+     * @return the trie
+     * @throws IllegalArgumentException if the words are not sorted
+     */
+    public static WordTrie build(String[] sortedWords, int[] wordLexicons, Alphabet alphabet) {
+        String[] words = new String[sortedWords.length];
+        int[] bits = new int[sortedWords.length];
+        int count = 0;
+        long letters = 0;
+        for (int i = 0; i < sortedWords.length; i++) {
+            String word = sortedWords[i];
+            if (i > 0 && sortedWords[i - 1].compareTo(word) > 0) {
+                throw new IllegalArgumentException("Words must be sorted: " + sortedWords[i - 1] + " before " + word);
+            }
+            if (!alphabet.isSymbols(word)) continue;
+            if (count > 0 && words[count - 1].equals(word)) {
+                bits[count - 1] |= wordLexicons[i];
+                continue;
+            }
+            words[count] = word;
+            bits[count] = wordLexicons[i];
+            letters += word.length();
+            count++;
+        }
+
+        //a trie never has more nodes than letters plus the root, and usually a lot less
+        WordTrie trie = new WordTrie((int) Math.max(1024, Math.min(letters / 3, Integer.MAX_VALUE)), alphabet);
+        if (count > 0) {
+            trie.fill(words, bits, 0, count, 0, ROOT);
+        }
+        trie.trim();
+        return trie;
+    }
+
+    /**
+     * The letters the trie's codes stand for
+     *
+     * @return the alphabet
+     */
+    @Override
+    public Alphabet getAlphabet() {
+        return alphabet;
+    }
+
+    /**
+     * Follows the edge for a letter code
+     *
+     * @param node the node to start from
+     * @param letter the letter code (0-25 for English)
+     * @return the child node, or NONE if there is no such edge
+     */
+    @Override
+    public int child(int node, int letter) {
+        int mask = childMasks[node];
+        int bit = 1 << letter;
+        if ((mask & bit) == 0) return NONE;
+        return firstChild[node] + Integer.bitCount(mask & (bit - 1));
+    }
+
+    /**
+     * Returns a bit mask of the letters that have an edge out of the node
+     *
+     * @param node the node
+     * @return bit mask, bit i set for letter code i
+     */
+    @Override
+    public int childMask(int node) {
+        return childMasks[node];
+    }
+
+    /**
+     * Checks if a word of exactly the given number of additional letters can end below the node.
+     * Used to prune fixed length searches.
+     *
+     * @param node the node
+     * @param remaining how many letters are still to be placed
+     * @return true if some word ends exactly that many letters below the node
+     */
+    @Override
+    public boolean canEndIn(int node, int remaining) {
+        return (suffixLengths[node] & lengthBit(remaining)) != 0;
+    }
+
+    /**
+     * Checks if a word ends at the node
+     *
+     * @param node the node
+     * @return true if the path to the node spells a word
+     */
+    @Override
+    public boolean isTerminal(int node) {
+        return lexicons[node] != 0;
+    }
+
+    /**
+     * Checks if a word of one of the selected lexicons ends at the node
+     *
+     * @param node the node
+     * @param lexiconMask the selected lexicons
+     * @return true if the path to the node spells a word in one of the lexicons
+     */
+    @Override
+    public boolean isTerminal(int node, int lexiconMask) {
+        return (lexicons[node] & lexiconMask) != 0;
+    }
+
+    /**
+     * Returns the lexicons of the word ending at the node
+     *
+     * @param node the node
+     * @return lexicon bit mask, 0 if no word ends at the node
+     */
+    @Override
+    public int getLexicons(int node) {
+        return lexicons[node];
+    }
+
+    /**
+     * Checks if any word at or below the node belongs to one of the selected lexicons. Used to
+     * skip whole branches when searching a single lexicon.
+     *
+     * @param node the node
+     * @param lexiconMask the selected lexicons
+     * @return true if the branch holds a word of one of the lexicons
+     */
+    @Override
+    public boolean hasLexicon(int node, int lexiconMask) {
+        return (subtreeLexicons[node] & lexiconMask) != 0;
+    }
+
+    /**
+     * Returns the id of the first word, in sorted order, at or below the node. For a node where a
+     * word ends this is the id of that word.
+     *
+     * @param node the node
+     * @return the smallest word id in the branch
+     */
+    @Override
+    public int firstWord(int node) {
+        return firstWord[node];
+    }
+
+    /**
+     * Returns the number of words in the trie, the ids go from 0 to this minus one
+     *
+     * @return word count
+     */
+    @Override
+    public int getWordCount() {
+        return wordCount;
+    }
+
+    /**
+     * Returns the number of nodes in the trie, root included
+     *
+     * @return node count
+     */
+    @Override
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Returns the length of the longest word in the trie
+     *
+     * @return longest word length
+     */
+    @Override
+    public int getLongestWord() {
+        return longestWord;
+    }
+
+    /**
+     * Node number of the child with the lowest letter, used to copy the nodes
+     */
+    int firstChild(int node) {
+        return firstChild[node];
+    }
+
+    /**
+     * Raw word length bits of the node (bit k for a word k letters below), used to copy the nodes
+     */
+    int suffixLengths(int node) {
+        return suffixLengths[node];
+    }
+
+    /**
+     * Raw lexicon bits of the whole branch, used to copy the nodes
+     */
+    int subtreeLexicons(int node) {
+        return subtreeLexicons[node];
+    }
+
+    /**
+     * Fills in a node for the words from lo to hi, which all share their first depth letters.
+     * The children of the node get consecutive numbers before any of them is filled in, so
+     * child() can find them from the first one.
+     */
+    private void fill(String[] words, int[] bits, int lo, int hi, int depth, int node) {
+        int i = lo;
+        firstWord[node] = wordCount;
+        if (words[i].length() == depth) {   //the shared prefix is a word itself and sorts first
+            lexicons[node] = bits[i];
+            wordCount++;
+            longestWord = Math.max(longestWord, depth);
+            i++;
+        }
+
+        int mask = 0;
+        for (int j = i; j < hi; j++) {
+            mask |= 1 << alphabet.code(words[j].charAt(depth));
+        }
+        childMasks[node] = mask;
+        firstChild[node] = nodeCount;
+        nodeCount += Integer.bitCount(mask);
+        if (nodeCount > lexicons.length) {
+            resize(Math.max(nodeCount, lexicons.length + (lexicons.length >> 1)));
+        }
+
+        int ends = lexicons[node] != 0 ? 1 : 0;
+        int subtree = lexicons[node];
+        int child = firstChild[node];
+        while (i < hi) {
+            char letter = words[i].charAt(depth);
+            int j = i + 1;
+            while (j < hi && words[j].charAt(depth) == letter) j++;
+
+            fill(words, bits, i, j, depth + 1, child);
+            ends |= shiftLengths(suffixLengths[child]);
+            subtree |= subtreeLexicons[child];
+            child++;
+            i = j;
+        }
+        suffixLengths[node] = ends;
+        subtreeLexicons[node] = subtree;
+    }
+
+    /**
+     * Moves a child's word lengths one letter further away, keeping the top bit for 31 and more
+     */
+    private static int shiftLengths(int lengths) {
+        int shifted = lengths << 1;
+        if ((lengths & (3 << 30)) != 0) shifted |= 1 << 31;
+        return shifted;
+    }
+
+    /**
+     * Lengths of 31 and more share the top bit, so the length check is only exact below that
+     */
+    private static int lengthBit(int length) {
+        return 1 << Math.min(length, 31);
+    }
+
+    /**
+     * Shrinks the arrays to the number of nodes actually used
+     */
+    private void trim() {
+        if (nodeCount < lexicons.length) {
+            resize(nodeCount);
+        }
+    }
+
+    private void resize(int capacity) {
+        childMasks = Arrays.copyOf(childMasks, capacity);
+        firstChild = Arrays.copyOf(firstChild, capacity);
+        suffixLengths = Arrays.copyOf(suffixLengths, capacity);
+        lexicons = Arrays.copyOf(lexicons, capacity);
+        subtreeLexicons = Arrays.copyOf(subtreeLexicons, capacity);
+        firstWord = Arrays.copyOf(firstWord, capacity);
+    }
+}